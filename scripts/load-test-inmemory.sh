@@ -0,0 +1,37 @@
+#!/usr/bin/env bash
+# Loads the bill endpoints of an instance running the inmemory profile, so no Mongo server is needed, e.g. in CI.
+# Throughput and p50/p90/p99/max latency per endpoint are written to target/load-test-inmemory.json.
+# The server runs in TOKEN mode, so the numbers measure the bill endpoints rather than BCrypt on every request.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+BILLS="${BILLS:-100000}"
+USERS="${USERS:-1000}"
+ITEMS="${ITEMS:-20}"
+ENDPOINTS="${ENDPOINTS:-amount,amounts,conditional}"
+CONCURRENCY="${CONCURRENCY:-200}"
+DURATION="${DURATION:-30s}"
+WARMUP="${WARMUP:-10s}"
+PORT="${PORT:-8080}"
+
+./mvnw -B -q -DskipTests package
+./mvnw -B -q -Pjmh -DskipTests test-compile
+
+java -jar target/retailstore-*.jar --server.port="$PORT" --spring.profiles.active=inmemory \
+  --retailstore.memory.synthetic-bills="$BILLS" --retailstore.memory.synthetic-users="$USERS" \
+  --retailstore.memory.items-per-bill="$ITEMS" --retailstore.security.mode=TOKEN > target/load-test-inmemory.log 2>&1 &
+app=$!
+trap 'kill $app 2>/dev/null || true' EXIT
+
+until curl -s -o /dev/null "http://localhost:$PORT/actuator/health"; do
+  if ! kill -0 "$app" 2>/dev/null; then
+    echo "The application exited, see target/load-test-inmemory.log" >&2
+    exit 1
+  fi
+  sleep 1
+done
+
+./mvnw -B -q -Pjmh exec:exec@load-test -Dload.args="--url=http://localhost:$PORT --auth=token --endpoints=$ENDPOINTS \
+--bills=$BILLS --users=$USERS --concurrency=$CONCURRENCY --warmup=$WARMUP --duration=$DURATION --label=inmemory \
+--out=target/load-test-inmemory.json"
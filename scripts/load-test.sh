@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+# Compares platform-thread and virtual-thread request execution under the same closed-loop load.
+# Needs the Mongo server from docker-compose.yml, results are written to target/load-test-*.json.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+CONCURRENCY="${CONCURRENCY:-400}"
+DURATION="${DURATION:-30s}"
+WARMUP="${WARMUP:-10s}"
+PORT="${PORT:-8080}"
+
+./mvnw -B -q -DskipTests package
+./mvnw -B -q -Pjmh -DskipTests test-compile
+
+for virtual in false true; do
+  java -jar target/retailstore-*.jar --server.port="$PORT" --spring.threads.virtual.enabled="$virtual" \
+    > "target/load-test-virtual-$virtual.log" 2>&1 &
+  app=$!
+  trap 'kill $app 2>/dev/null || true' EXIT
+
+  until curl -s -o /dev/null "http://localhost:$PORT/api/bill/amount"; do
+    sleep 1
+  done
+
+  ./mvnw -B -q -Pjmh exec:exec@load-test -Dload.args="--url=http://localhost:$PORT --concurrency=$CONCURRENCY \
+--warmup=$WARMUP --duration=$DURATION --label=virtual-$virtual --out=target/load-test-virtual-$virtual.json"
+
+  kill "$app"
+  wait "$app" 2>/dev/null || true
+done
+
+cat target/load-test-virtual-*.json
@@ -0,0 +1,66 @@
+#!/usr/bin/env bash
+# Measures the time from launching the JVM to the first served /api/bill/amount, for the default jar and for the
+# fast-startup build (Spring AOT initializers, AppCDS archive, seeding in the background).
+# Needs the Mongo server from docker-compose.yml, results are written to target/startup-time.json.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${RUNS:-5}"
+PORT="${PORT:-8080}"
+CREDENTIALS="${CREDENTIALS:-admin:password}"
+
+# The fast-startup package also rebuilds the plain jar, the archive is trained against the extracted copy of it.
+./mvnw -B -q -Pfast-startup -DskipTests package
+jar=$(ls target/retailstore-*.jar)
+fast_jar="target/fast-startup/$(basename "$jar")"
+
+now_millis() {
+  echo $(($(date +%s%N) / 1000000))
+}
+
+# Prints the milliseconds until the first 200 response, the database is seeded by the first run of each variant
+# and upserted again by the following ones.
+measure() {
+  local label=$1
+  shift
+  local start
+  start=$(now_millis)
+  "$@" --server.port="$PORT" > "target/startup-time-$label.log" 2>&1 &
+  local app=$!
+  trap 'kill $app 2>/dev/null || true' EXIT
+
+  until [ "$(curl -s -o /dev/null -w '%{http_code}' -u "$CREDENTIALS" \
+      "http://localhost:$PORT/api/bill/amount?billId=1&userId=1")" = "200" ]; do
+    if ! kill -0 "$app" 2>/dev/null; then
+      echo "$label exited before serving, see target/startup-time-$label.log" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  local elapsed=$(($(now_millis) - start))
+
+  kill "$app"
+  wait "$app" 2>/dev/null || true
+  echo "$elapsed"
+}
+
+# Median of the runs, the first run of a variant also pays for a cold page cache.
+median() {
+  tr ' ' '\n' | sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }'
+}
+
+default_runs=()
+fast_runs=()
+for ((i = 1; i <= RUNS; i++)); do
+  default_runs+=("$(measure default java -jar "$jar")")
+  fast_runs+=("$(measure fast-startup java -XX:SharedArchiveFile=target/fast-startup/application.jsa \
+    -Dspring.aot.enabled=true -jar "$fast_jar" --retailstore.seed.background=true)")
+done
+
+default_median=$(echo "${default_runs[*]}" | median)
+fast_median=$(echo "${fast_runs[*]}" | median)
+summary=$(printf '{"runs":%d,"defaultMs":[%s],"fastStartupMs":[%s],"defaultMedianMs":%d,"fastStartupMedianMs":%d}' \
+  "$RUNS" "$(IFS=,; echo "${default_runs[*]}")" "$(IFS=,; echo "${fast_runs[*]}")" "$default_median" "$fast_median")
+
+echo "$summary" | tee target/startup-time.json
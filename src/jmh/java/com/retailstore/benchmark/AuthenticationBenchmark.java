@@ -0,0 +1,70 @@
+package com.retailstore.benchmark;
+
+import com.retailstore.config.AuthProperties;
+import com.retailstore.security.TokenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.util.concurrent.TimeUnit;
+
+// Authentication cost of one /api request: HTTP Basic runs BCrypt on every request, TOKEN verifies an HMAC.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthenticationBenchmark {
+
+    private AuthenticationManager authenticationManager;
+
+    private TokenService tokenService;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        // Same encoder and user as SecurityConfig.
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(passwordEncoder);
+        provider.setUserDetailsService(new InMemoryUserDetailsManager(User.builder()
+                .username("admin")
+                .password(passwordEncoder.encode("password"))
+                .roles("ADMIN")
+                .build()));
+        authenticationManager = new ProviderManager(provider);
+
+        tokenService = new TokenService(new AuthProperties());
+        token = tokenService.issue(authenticationManager.authenticate(credentials()));
+    }
+
+    @Benchmark
+    public Authentication basic() {
+        return authenticationManager.authenticate(credentials());
+    }
+
+    @Benchmark
+    public Authentication token() {
+        return tokenService.authenticate(token);
+    }
+
+    private static Authentication credentials() {
+        return UsernamePasswordAuthenticationToken.unauthenticated("admin", "password");
+    }
+}
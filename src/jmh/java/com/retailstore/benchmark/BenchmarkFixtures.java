@@ -0,0 +1,84 @@
+package com.retailstore.benchmark;
+
+import com.retailstore.analytics.DiscountCounters;
+import com.retailstore.cache.BillIdFilter;
+import com.retailstore.cache.PayableResultCache;
+import com.retailstore.concurrent.FetchExecutor;
+import com.retailstore.config.BillIdFilterProperties;
+import com.retailstore.config.BillLoadProperties;
+import com.retailstore.config.DiscountCounterProperties;
+import com.retailstore.config.PayableCacheProperties;
+import com.retailstore.constant.ItemType;
+import com.retailstore.constant.UserType;
+import com.retailstore.entity.Item;
+import com.retailstore.entity.User;
+import com.retailstore.metrics.BillingMetrics;
+import com.retailstore.pricing.rule.DefaultDiscountRules;
+import com.retailstore.pricing.rule.DiscountRuleEngine;
+import com.retailstore.repository.BillRepository;
+import com.retailstore.service.UserService;
+import com.retailstore.service.impl.BillServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    // Share of grocery items for the "mix" benchmark parameter.
+    static double groceryShare(String mix) {
+        return switch (mix) {
+            case "GROCERY_HEAVY" -> 0.9;
+            case "NON_GROCERY_HEAVY" -> 0.1;
+            default -> throw new IllegalArgumentException("Unknown item mix " + mix);
+        };
+    }
+
+    static List<Item> items(int count, String mix) {
+        double groceryShare = groceryShare(mix);
+        SplittableRandom random = new SplittableRandom(count);
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ItemType type = random.nextDouble() < groceryShare ? ItemType.GROCERY : ItemType.OTHER;
+            items.add(new Item(i, random.nextInt(1, 50_000), type));
+        }
+        return items;
+    }
+
+    // "LOYAL_CUSTOMER" is a customer older than two years, every other value is a UserType name.
+    static User user(long id, String profile) {
+        User user = new User();
+        user.setId(id);
+        user.setVersion(0L);
+        if ("LOYAL_CUSTOMER".equals(profile)) {
+            user.setType(UserType.CUSTOMER);
+            user.setCreatedAt(LocalDate.now().minusYears(3));
+        } else {
+            user.setType(UserType.valueOf(profile));
+            user.setCreatedAt(LocalDate.now());
+        }
+        return user;
+    }
+
+    // Result cache switched off so every call is priced, the bill id filter is not built so every id is queried.
+    static BillServiceImpl billService(BillRepository billRepository, UserService userService,
+                                       FetchExecutor fetchExecutor) {
+        return billService(billRepository, userService, fetchExecutor,
+                new DiscountCounters(new DiscountCounterProperties()));
+    }
+
+    static BillServiceImpl billService(BillRepository billRepository, UserService userService,
+                                       FetchExecutor fetchExecutor, DiscountCounters discountCounters) {
+        PayableCacheProperties cacheProperties = new PayableCacheProperties();
+        cacheProperties.setEnabled(false);
+        return new BillServiceImpl(billRepository, userService, new PayableResultCache(cacheProperties),
+                new BillIdFilter(billRepository, new BillIdFilterProperties()),
+                new DiscountRuleEngine(DefaultDiscountRules::get), fetchExecutor, new BillLoadProperties(),
+                new BillingMetrics(new SimpleMeterRegistry()), discountCounters);
+    }
+}
@@ -0,0 +1,93 @@
+package com.retailstore.benchmark;
+
+import com.retailstore.concurrent.FetchExecutor;
+import com.retailstore.config.BillBatchProperties;
+import com.retailstore.config.MoneyProperties;
+import com.retailstore.controller.BillController;
+import com.retailstore.entity.Bill;
+import com.retailstore.metrics.BillingMetrics;
+import com.retailstore.repository.BillRepository;
+import com.retailstore.repository.BillTotalsCallback;
+import com.retailstore.service.UserService;
+import com.retailstore.service.impl.BillServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BillControllerBenchmark {
+
+    @Param({"EMPLOYEE", "AFFILIATE", "CUSTOMER", "LOYAL_CUSTOMER"})
+    private String userType;
+
+    @Param({"1", "100", "10000"})
+    private int itemCount;
+
+    private MockMvc mockMvc;
+
+    private RequestBuilder request;
+
+    private RequestBuilder conditionalRequest;
+
+    @Setup
+    public void setup() throws Exception {
+        BillRepository billRepository = mock(BillRepository.class, withSettings().stubOnly());
+        UserService userService = mock(UserService.class, withSettings().stubOnly());
+        Bill bill = new BillTotalsCallback().onBeforeConvert(
+                new Bill(1, 1, BenchmarkFixtures.items(itemCount, "NON_GROCERY_HEAVY")), "bills");
+        when(billRepository.findByIdAndUserId(1, 1)).thenReturn(Optional.of(bill));
+        when(billRepository.findVersionByIdAndUserId(1, 1)).thenReturn(Optional.of(bill));
+        when(userService.get(1)).thenReturn(BenchmarkFixtures.user(1, userType));
+
+        BillServiceImpl billService =
+                BenchmarkFixtures.billService(billRepository, userService, FetchExecutor.inline());
+        BillController controller = new BillController(billService, new BillingMetrics(new SimpleMeterRegistry()),
+                new MoneyProperties(), new BillBatchProperties());
+
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        request = get("/api/bill/amount").param("billId", "1").param("userId", "1");
+        String etag = mockMvc.perform(request).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        conditionalRequest = get("/api/bill/amount").param("billId", "1").param("userId", "1")
+                .header(HttpHeaders.IF_NONE_MATCH, etag);
+    }
+
+    @Benchmark
+    public String netPayableAmount() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+        return response.getContentAsString();
+    }
+
+    // Revalidation with a current ETag, answered with 304 from the bill and user versions
+    // and the stored sums alone.
+    @Benchmark
+    public int notModified() throws Exception {
+        return mockMvc.perform(conditionalRequest).andReturn().getResponse().getStatus();
+    }
+}
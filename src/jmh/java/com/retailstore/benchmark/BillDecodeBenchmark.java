@@ -0,0 +1,96 @@
+package com.retailstore.benchmark;
+
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.BillTotals;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+// JVM side of a bill lookup: decoding the BSON reply of a full load versus the reply of the totals aggregation.
+// Run with -prof gc to compare the allocation per lookup.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BillDecodeBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int itemCount;
+
+    private final DocumentCodec codec = new DocumentCodec();
+
+    private MappingMongoConverter converter;
+
+    private byte[] fullReply;
+
+    private byte[] aggregatedReply;
+
+    @Setup
+    public void setup() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.afterPropertiesSet();
+
+        Bill bill = new Bill(1, 1, BenchmarkFixtures.items(itemCount, "NON_GROCERY_HEAVY"));
+        bill.setVersion(1L);
+        Document full = new Document();
+        converter.write(bill, full);
+        fullReply = encode(full);
+
+        // The shape the aggregation returns, BillTotalsRepositoryImpl projects the sums and drops the items.
+        aggregatedReply = encode(new Document("_id", 1L)
+                .append("userId", 1L)
+                .append("version", 1L)
+                .append("itemCount", itemCount)
+                .append("totalAmount", 123_456.78)
+                .append("groceryAmount", 12_345.67));
+    }
+
+    @Benchmark
+    public Bill decodeFullBill() {
+        return converter.read(Bill.class, decode(fullReply));
+    }
+
+    @Benchmark
+    public BillTotals decodeAggregatedTotals() {
+        return converter.read(BillTotals.class, decode(aggregatedReply));
+    }
+
+    private byte[] encode(Document document) {
+        try (BasicOutputBuffer buffer = new BasicOutputBuffer();
+             BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            codec.encode(writer, document, EncoderContext.builder().build());
+            return buffer.toByteArray();
+        }
+    }
+
+    private Document decode(byte[] reply) {
+        try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(reply))) {
+            return codec.decode(reader, DecoderContext.builder().build());
+        }
+    }
+}
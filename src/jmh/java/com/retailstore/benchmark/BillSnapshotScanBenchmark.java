@@ -0,0 +1,93 @@
+package com.retailstore.benchmark;
+
+import com.retailstore.analytics.BillSnapshot;
+import com.retailstore.analytics.SimulationTotals;
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.Item;
+import com.retailstore.entity.User;
+import com.retailstore.pricing.PricingKernel;
+import com.retailstore.pricing.rule.DefaultDiscountRules;
+import com.retailstore.pricing.rule.DiscountRuleTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// A what-if pricing of every bill: the columnar snapshot scanned in parallel versus a loop over Bill entities.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class BillSnapshotScanBenchmark {
+
+    @Param({"1000000"})
+    private int billCount;
+
+    @Param({"10"})
+    private int itemsPerBill;
+
+    private final LocalDate today = LocalDate.now();
+
+    private final DiscountRuleTable rules = DiscountRuleTable.compile(1, DefaultDiscountRules.get());
+
+    private BillSnapshot snapshot;
+
+    private List<Bill> bills;
+
+    private Map<Long, User> users;
+
+    @Setup
+    public void setup() {
+        List<User> userList = List.of(BenchmarkFixtures.user(0, "EMPLOYEE"), BenchmarkFixtures.user(1, "AFFILIATE"),
+                BenchmarkFixtures.user(2, "CUSTOMER"), BenchmarkFixtures.user(3, "LOYAL_CUSTOMER"));
+        users = userList.stream().collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<Item> items = BenchmarkFixtures.items(itemsPerBill, "NON_GROCERY_HEAVY");
+        BillSnapshot.Builder builder = BillSnapshot.builder();
+        bills = new ArrayList<>(billCount);
+        for (int id = 0; id < billCount; id++) {
+            User user = userList.get(id % userList.size());
+            builder.bill(id, user.getId(), user.getType(), user.getCreatedAt());
+            List<Item> billItems = new ArrayList<>(itemsPerBill);
+            for (Item item : items) {
+                builder.item(item.getPrice(), item.getType());
+                billItems.add(new Item(item.getId(), item.getPrice(), item.getType()));
+            }
+            bills.add(new Bill(id, user.getId(), billItems));
+        }
+        snapshot = builder.build(Instant.now());
+    }
+
+    @Benchmark
+    public SimulationTotals columnarParallelScan() {
+        return snapshot.simulate(rules, today);
+    }
+
+    @Benchmark
+    public long entityLoop() {
+        long netPayableAmount = 0;
+        for (Bill bill : bills) {
+            User user = users.get(bill.getUserId());
+            netPayableAmount += PricingKernel.netPayableAmount(bill, user, rules, today);
+        }
+        return netPayableAmount;
+    }
+}
@@ -0,0 +1,79 @@
+package com.retailstore.benchmark;
+
+import com.retailstore.concurrent.FetchExecutor;
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.User;
+import com.retailstore.repository.BillRepository;
+import com.retailstore.service.UserService;
+import com.retailstore.service.impl.BillServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+// Bill and user lookups with a simulated Mongo round trip, fetched one after the other or concurrently.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentFetchBenchmark {
+
+    @Param({"INLINE", "VIRTUAL"})
+    private String threading;
+
+    @Param({"1000"})
+    private long fetchLatencyMicros;
+
+    private FetchExecutor fetchExecutor;
+
+    private BillServiceImpl billService;
+
+    @Setup
+    public void setup() {
+        User user = BenchmarkFixtures.user(1, "CUSTOMER");
+        Bill bill = new Bill(1, 1, BenchmarkFixtures.items(100, "NON_GROCERY_HEAVY"));
+        long latency = TimeUnit.MICROSECONDS.toNanos(fetchLatencyMicros);
+
+        BillRepository billRepository = mock(BillRepository.class, withSettings().stubOnly());
+        UserService userService = mock(UserService.class, withSettings().stubOnly());
+        when(billRepository.findByIdAndUserId(1, 1)).thenAnswer(invocation -> {
+            LockSupport.parkNanos(latency);
+            return Optional.of(bill);
+        });
+        when(userService.get(1)).thenAnswer(invocation -> {
+            LockSupport.parkNanos(latency);
+            return user;
+        });
+
+        fetchExecutor = "VIRTUAL".equals(threading) ? FetchExecutor.virtualThreads() : FetchExecutor.inline();
+        billService = BenchmarkFixtures.billService(billRepository, userService, fetchExecutor);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fetchExecutor.close();
+    }
+
+    @Benchmark
+    public long netPayableAmount() {
+        return billService.calculateNetPayableAmount(1, 1);
+    }
+}
@@ -0,0 +1,117 @@
+package com.retailstore.benchmark;
+
+import com.retailstore.analytics.DiscountCounters;
+import com.retailstore.concurrent.FetchExecutor;
+import com.retailstore.config.DiscountCounterProperties;
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.BillTotals;
+import com.retailstore.entity.User;
+import com.retailstore.pricing.PricingKernel;
+import com.retailstore.pricing.rule.DefaultDiscountRules;
+import com.retailstore.pricing.rule.DiscountRuleTable;
+import com.retailstore.repository.BillRepository;
+import com.retailstore.service.UserService;
+import com.retailstore.service.impl.BillServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+// Pricing a stored bill through the kernel with the discount counters switched on and off: a version priced again,
+// which the counters skip, a new version on every call, on one thread and on four threads counting into the same
+// bucket, and the whole single bill path of the service. Run with -prof gc to check what counting allocates.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiscountCounterBenchmark {
+
+    @Param({"true", "false"})
+    private boolean counting;
+
+    private User user;
+
+    private BillTotals bill;
+
+    private DiscountRuleTable rules;
+
+    private LocalDate today;
+
+    private DiscountCounters discountCounters;
+
+    private BillServiceImpl billService;
+
+    // Each thread prices its own bill, one new version after the other.
+    @State(Scope.Thread)
+    public static class Versions {
+
+        private static final AtomicLong BILL_IDS = new AtomicLong(1_000);
+
+        private final long billId = BILL_IDS.getAndIncrement();
+
+        private long version;
+    }
+
+    @Setup
+    public void setup() {
+        DiscountCounterProperties properties = new DiscountCounterProperties();
+        properties.setEnabled(counting);
+        discountCounters = new DiscountCounters(properties);
+
+        user = BenchmarkFixtures.user(1, "EMPLOYEE");
+        Bill stored = new Bill(1, 1, BenchmarkFixtures.items(20, "NON_GROCERY_HEAVY"));
+        stored.setVersion(1L);
+        bill = BillTotals.of(stored);
+        rules = DiscountRuleTable.compile(1, DefaultDiscountRules.get());
+        today = LocalDate.now();
+
+        BillRepository billRepository = mock(BillRepository.class, withSettings().stubOnly());
+        UserService userService = mock(UserService.class, withSettings().stubOnly());
+        when(billRepository.findByIdAndUserId(1, 1)).thenReturn(Optional.of(stored));
+        when(userService.get(1)).thenReturn(user);
+        billService = BenchmarkFixtures.billService(billRepository, userService, FetchExecutor.inline(),
+                discountCounters);
+    }
+
+    @Benchmark
+    public long pricedAgain() {
+        return PricingKernel.netPayableAmount(bill, user, rules, today, discountCounters);
+    }
+
+    @Benchmark
+    public long pricedNewVersion(Versions versions) {
+        BillTotals next = new BillTotals(versions.billId, 1, versions.version++, bill.itemCount(), 0, 0,
+                bill.items());
+        return PricingKernel.netPayableAmount(next, user, rules, today, discountCounters);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long pricedNewVersionContended(Versions versions) {
+        return pricedNewVersion(versions);
+    }
+
+    @Benchmark
+    public long serviceNetPayableAmount() {
+        return billService.calculateNetPayableAmount(1, 1);
+    }
+}
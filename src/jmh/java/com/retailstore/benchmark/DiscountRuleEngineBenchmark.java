@@ -0,0 +1,97 @@
+package com.retailstore.benchmark;
+
+import com.retailstore.constant.ItemType;
+import com.retailstore.entity.User;
+import com.retailstore.money.Money;
+import com.retailstore.pricing.rule.DefaultDiscountRules;
+import com.retailstore.pricing.rule.DiscountRule;
+import com.retailstore.pricing.rule.DiscountRuleTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiscountRuleEngineBenchmark {
+
+    @Param({"EMPLOYEE", "AFFILIATE", "CUSTOMER", "LOYAL_CUSTOMER"})
+    private String userType;
+
+    private long totalAmount = 80_000;
+
+    private long groceryAmount = 30_000;
+
+    private User user;
+
+    private LocalDate today;
+
+    private DiscountRuleTable table;
+
+    private List<DiscountRule> rules;
+
+    @Setup
+    public void setup() {
+        user = BenchmarkFixtures.user(1, userType);
+        today = LocalDate.now();
+        rules = DefaultDiscountRules.get();
+        table = DiscountRuleTable.compile(1, rules);
+    }
+
+    @Benchmark
+    public long compiledTable() {
+        return table.schedule(user.getType(), user.getCreatedAt(), today)
+                .netPayableAmount(totalAmount, groceryAmount);
+    }
+
+    // What evaluating the rule list on every request would cost, rule amounts are converted to minor units each time.
+    @Benchmark
+    public long ruleListWalk() {
+        long netPayableAmount = totalAmount;
+        for (DiscountRule rule : rules) {
+            if (!rule.getUserTypes().isEmpty() && !rule.getUserTypes().contains(user.getType())) {
+                continue;
+            }
+            if (rule.getMinTenureYears() > 0
+                    && !user.getCreatedAt().isBefore(today.minusYears(rule.getMinTenureYears()))) {
+                continue;
+            }
+            if (totalAmount < Money.ofMajor(rule.getMinAmount())) {
+                continue;
+            }
+            long amount = rule.getItemTypes().isEmpty() ? totalAmount
+                    : (rule.getItemTypes().contains(ItemType.GROCERY) ? groceryAmount : 0)
+                    + (rule.getItemTypes().contains(ItemType.OTHER) ? totalAmount - groceryAmount : 0);
+            netPayableAmount -= rule.getStep() > 0
+                    ? amount / Money.ofMajor(rule.getStep()) * Money.ofMajor(rule.getStepDiscount())
+                    : Money.share(amount, Money.partsPerMillion(rule.getPercentage()));
+        }
+        return netPayableAmount;
+    }
+
+    // The hard-coded switch the rule engine replaced.
+    @Benchmark
+    public long hardCodedSwitch() {
+        long partsPerMillion = switch (user.getType()) {
+            case EMPLOYEE -> 300_000;
+            case AFFILIATE -> 100_000;
+            case CUSTOMER -> user.getCreatedAt().isBefore(today.minusYears(2)) ? 50_000 : 0;
+        };
+        return totalAmount - Money.share(totalAmount - groceryAmount, partsPerMillion) - totalAmount / 10_000 * 500;
+    }
+}
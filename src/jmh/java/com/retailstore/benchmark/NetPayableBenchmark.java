@@ -0,0 +1,83 @@
+package com.retailstore.benchmark;
+
+import com.retailstore.concurrent.FetchExecutor;
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.Item;
+import com.retailstore.entity.User;
+import com.retailstore.pricing.PricingKernel;
+import com.retailstore.pricing.rule.DefaultDiscountRules;
+import com.retailstore.pricing.rule.DiscountRuleTable;
+import com.retailstore.pricing.rule.DiscountSchedule;
+import com.retailstore.repository.BillRepository;
+import com.retailstore.service.UserService;
+import com.retailstore.service.impl.BillServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NetPayableBenchmark {
+
+    @Param({"EMPLOYEE", "AFFILIATE", "CUSTOMER", "LOYAL_CUSTOMER"})
+    private String userType;
+
+    @Param({"1", "100", "10000", "100000"})
+    private int itemCount;
+
+    @Param({"GROCERY_HEAVY", "NON_GROCERY_HEAVY"})
+    private String mix;
+
+    private BillServiceImpl billService;
+
+    private List<Item> items;
+
+    private DiscountSchedule schedule;
+
+    @Setup
+    public void setup() {
+        items = BenchmarkFixtures.items(itemCount, mix);
+        User user = BenchmarkFixtures.user(1, userType);
+        schedule = DiscountRuleTable.compile(1, DefaultDiscountRules.get())
+                .schedule(user.getType(), user.getCreatedAt(), LocalDate.now());
+
+        // Stub-only mocks do not record invocations, so they do not grow during the run.
+        BillRepository billRepository = mock(BillRepository.class, withSettings().stubOnly());
+        UserService userService = mock(UserService.class, withSettings().stubOnly());
+        when(billRepository.findByIdAndUserId(1, 1)).thenReturn(Optional.of(new Bill(1, 1, items)));
+        when(userService.get(1)).thenReturn(user);
+
+        billService = BenchmarkFixtures.billService(billRepository, userService, FetchExecutor.inline());
+    }
+
+    @Benchmark
+    public long serviceNetPayableAmount() {
+        return billService.calculateNetPayableAmount(1, 1);
+    }
+
+    @Benchmark
+    public long kernelNetPayableAmount() {
+        return PricingKernel.netPayableAmount(items, schedule);
+    }
+}
@@ -0,0 +1,73 @@
+package com.retailstore.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.retailstore.model.response.BillPayableResponse;
+import com.retailstore.model.response.PayableResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayableResponseSerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int batchSize;
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    private ObjectWriter writer;
+
+    private PayableResponse response;
+
+    private List<BillPayableResponse> batch;
+
+    @Setup
+    public void setup() throws Exception {
+        writer = switch (format) {
+            case "smile" -> new ObjectMapper(new SmileFactory()).writer();
+            case "cbor" -> new ObjectMapper(new CBORFactory()).writer();
+            default -> new ObjectMapper().writer();
+        };
+        response = new PayableResponse(73_500);
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(i % 10 == 0
+                    ? BillPayableResponse.failure(i, i, "Bill not found")
+                    : BillPayableResponse.success(i, i, 73_500 + i));
+        }
+        // Payload sizes are what the format saves on the wire, print them next to the timings.
+        System.out.printf("%n%s payload: single %d bytes, batch of %d %d bytes%n", format,
+                payableResponse().length, batchSize, batchResponse().length);
+    }
+
+    @Benchmark
+    public byte[] payableResponse() throws Exception {
+        return writer.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] batchResponse() throws Exception {
+        return writer.writeValueAsBytes(batch);
+    }
+}
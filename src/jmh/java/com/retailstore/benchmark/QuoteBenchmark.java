@@ -0,0 +1,81 @@
+package com.retailstore.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.retailstore.entity.User;
+import com.retailstore.model.request.CreateBillRequest;
+import com.retailstore.model.request.QuoteRequest;
+import com.retailstore.pricing.DiscountBreakdown;
+import com.retailstore.pricing.PricingKernel;
+import com.retailstore.pricing.rule.DefaultDiscountRules;
+import com.retailstore.pricing.rule.DiscountRuleTable;
+import com.retailstore.pricing.rule.DiscountSchedule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Reading and pricing a /api/bill/quote body: summed while it is parsed versus bound to Item objects first, as a
+// bill is. Run with -prof gc to compare the allocation per quote.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuoteBenchmark {
+
+    @Param({"1", "20", "200"})
+    private int itemCount;
+
+    private ObjectReader quoteReader;
+
+    private ObjectReader billReader;
+
+    private DiscountSchedule schedule;
+
+    private byte[] body;
+
+    @Setup
+    public void setup() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        quoteReader = objectMapper.readerFor(QuoteRequest.class);
+        billReader = objectMapper.readerFor(CreateBillRequest.class);
+        User user = BenchmarkFixtures.user(1, "EMPLOYEE");
+        schedule = DiscountRuleTable.compile(1, DefaultDiscountRules.get())
+                .schedule(user.getType(), user.getCreatedAt(), LocalDate.now());
+
+        // Prices in major units with cents, as a POS sends them.
+        StringBuilder items = new StringBuilder();
+        BenchmarkFixtures.items(itemCount, "NON_GROCERY_HEAVY").forEach(item -> items
+                .append(items.isEmpty() ? "" : ",")
+                .append("{\"id\":").append(item.getId())
+                .append(",\"type\":\"").append(item.getType())
+                .append("\",\"price\":").append(item.getPrice() / 100).append('.')
+                .append(String.format("%02d", item.getPrice() % 100)).append('}'));
+        body = ("{\"userId\":1,\"items\":[" + items + "]}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public DiscountBreakdown quote() throws Exception {
+        QuoteRequest request = quoteReader.readValue(body);
+        return schedule.breakdown(request.getTotalAmount(), request.getGroceryAmount());
+    }
+
+    @Benchmark
+    public long boundItems() throws Exception {
+        CreateBillRequest request = billReader.readValue(body);
+        return PricingKernel.netPayableAmount(request.getItems(), schedule);
+    }
+}
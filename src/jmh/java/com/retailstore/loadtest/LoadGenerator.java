@@ -0,0 +1,292 @@
+package com.retailstore.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Closed-loop load generator for the bill endpoints, every worker sends one request at a time. Each endpoint is
+// loaded on its own and reported as one JSON line:
+// - amount: GET /api/bill/amount
+// - amounts: POST /api/bill/amounts with batch-size bills per request
+// - conditional: GET /api/bill/amount with the current ETag, answered with 304
+// Requests shed with a Retry-After header are counted as rejected and the worker waits before its next request.
+// Bill n is requested for user (n - 1) % users + 1, as generated by the inmemory profile and in the seed files.
+public final class LoadGenerator {
+
+    private static final int DISTINCT_BILLS = 10_000;
+
+    private final HttpClient client;
+    private final List<Request> requests;
+    private final int concurrency;
+
+    private LoadGenerator(HttpClient client, List<Request> requests, int concurrency) {
+        this.client = client;
+        this.requests = requests;
+        this.concurrency = concurrency;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = options(args);
+        String baseUrl = options.getOrDefault("url", "http://localhost:8080");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        Duration warmup = Duration.parse("PT" + options.getOrDefault("warmup", "10s"));
+        Duration duration = Duration.parse("PT" + options.getOrDefault("duration", "30s"));
+        String label = options.getOrDefault("label", "run");
+        String credentials = options.getOrDefault("credentials", "admin:password");
+
+        String authorization = "Basic " + Base64.getEncoder()
+                .encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+        if ("token".equals(options.get("auth"))) {
+            authorization = "Bearer " + login(baseUrl, authorization);
+        }
+        List<String> endpoints = List.of(options.getOrDefault("endpoints", "amount").split(","));
+        Ids ids = new Ids(Long.parseLong(options.getOrDefault("bills", "3")),
+                Long.parseLong(options.getOrDefault("users", "3")));
+        int batchSize = Integer.parseInt(options.getOrDefault("batch-size", "50"));
+
+        StringBuilder summaries = new StringBuilder();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(workers)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            for (String endpoint : endpoints) {
+                List<Request> requests = switch (endpoint) {
+                    case "amount" -> amountRequests(baseUrl, authorization, ids);
+                    case "amounts" -> amountsRequests(baseUrl, authorization, ids, batchSize);
+                    case "conditional" -> conditionalRequests(client, baseUrl, authorization, ids);
+                    default -> throw new IllegalArgumentException("Unknown endpoint " + endpoint);
+                };
+                LoadGenerator generator = new LoadGenerator(client, requests, concurrency);
+
+                generator.run(workers, warmup);
+                Result result = generator.run(workers, duration);
+
+                String summary = result.toJson(label, endpoint, concurrency);
+                System.out.println(summary);
+                summaries.append(summary).append(System.lineSeparator());
+            }
+        }
+        if (options.containsKey("out")) {
+            Files.writeString(Path.of(options.get("out")), summaries);
+        }
+    }
+
+    private record Ids(long bills, long users) {
+
+        private int distinctBills() {
+            return (int) Math.min(bills, DISTINCT_BILLS);
+        }
+
+        // Spreads the requested bills over the whole id range instead of the first few thousand.
+        private long bill(int index) {
+            return 1 + index * (bills / distinctBills());
+        }
+
+        private long user(long bill) {
+            return (bill - 1) % users + 1;
+        }
+    }
+
+    private record Request(HttpRequest request, int expectedStatus) {
+    }
+
+    private static HttpRequest.Builder amount(String baseUrl, String authorization, long bill, long user) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/bill/amount?billId=" + bill + "&userId=" + user))
+                .header("Authorization", authorization)
+                .header("Accept", "application/json")
+                .GET();
+    }
+
+    private static List<Request> amountRequests(String baseUrl, String authorization, Ids ids) {
+        List<Request> requests = new ArrayList<>();
+        for (int i = 0; i < ids.distinctBills(); i++) {
+            long bill = ids.bill(i);
+            requests.add(new Request(amount(baseUrl, authorization, bill, ids.user(bill)).build(), 200));
+        }
+        return requests;
+    }
+
+    private static List<Request> amountsRequests(String baseUrl, String authorization, Ids ids, int batchSize) {
+        List<Request> requests = new ArrayList<>();
+        for (int first = 0; first < ids.distinctBills(); first += batchSize) {
+            StringJoiner body = new StringJoiner(",", "[", "]");
+            for (int i = first; i < Math.min(first + batchSize, ids.distinctBills()); i++) {
+                long bill = ids.bill(i);
+                body.add("{\"billId\":" + bill + ",\"userId\":" + ids.user(bill) + "}");
+            }
+            requests.add(new Request(HttpRequest.newBuilder(URI.create(baseUrl + "/api/bill/amounts"))
+                    .header("Authorization", authorization)
+                    .header("Accept", "application/json")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build(), 200));
+        }
+        return requests;
+    }
+
+    // Fetches the ETag of every bill once, the load then only revalidates.
+    private static List<Request> conditionalRequests(HttpClient client, String baseUrl, String authorization,
+                                                     Ids ids) throws Exception {
+        List<Request> requests = new ArrayList<>();
+        for (int i = 0; i < ids.distinctBills(); i++) {
+            long bill = ids.bill(i);
+            HttpResponse<Void> response = client.send(amount(baseUrl, authorization, bill, ids.user(bill)).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            String etag = response.headers().firstValue("ETag")
+                    .orElseThrow(() -> new IllegalStateException("No ETag for bill " + bill));
+            requests.add(new Request(amount(baseUrl, authorization, bill, ids.user(bill))
+                    .header("If-None-Match", etag)
+                    .build(), 304));
+        }
+        return requests;
+    }
+
+    // Exchanges the Basic credentials for a bearer token once, when the server runs with retailstore.security.mode=TOKEN.
+    private static String login(String baseUrl, String authorization) throws Exception {
+        HttpRequest login = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/token"))
+                .header("Authorization", authorization)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpResponse<String> response = client.send(login, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login failed with status " + response.statusCode());
+            }
+            return new ObjectMapper().readTree(response.body()).get("accessToken").asText();
+        }
+    }
+
+    private Result run(ExecutorService workers, Duration duration) throws Exception {
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        List<Future<Worker>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Worker worker = new Worker(i, deadline);
+            futures.add(workers.submit(worker::call));
+        }
+
+        Worker total = new Worker(0, deadline);
+        for (Future<Worker> future : futures) {
+            total.merge(future.get());
+        }
+        return total.result(System.nanoTime() - start);
+    }
+
+    private final class Worker {
+
+        private final long deadline;
+        private int next;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        private long rejected;
+
+        private Worker(int offset, long deadline) {
+            this.next = offset;
+            this.deadline = deadline;
+        }
+
+        private Worker call() {
+            while (System.nanoTime() < deadline) {
+                Request request = requests.get(next++ % requests.size());
+                long sent = System.nanoTime();
+                try {
+                    HttpResponse<Void> response =
+                            client.send(request.request(), HttpResponse.BodyHandlers.discarding());
+                    OptionalLong retryAfter = response.headers().firstValueAsLong("Retry-After");
+                    if (response.statusCode() == request.expectedStatus()) {
+                        record(System.nanoTime() - sent);
+                    } else if (retryAfter.isPresent()) {
+                        // Shed by admission control, a well-behaved client waits as long as it was told to.
+                        rejected++;
+                        Thread.sleep(Duration.ofSeconds(retryAfter.getAsLong()));
+                    } else {
+                        errors++;
+                    }
+                } catch (IOException e) {
+                    errors++;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return this;
+        }
+
+        private void record(long latency) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+
+        private void merge(Worker other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i]);
+            }
+            errors += other.errors;
+            rejected += other.rejected;
+        }
+
+        private Result result(long elapsed) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new Result(count, errors, rejected, elapsed, sorted);
+        }
+    }
+
+    private record Result(long requests, long errors, long rejected, long elapsedNanos, long[] sortedLatencies) {
+
+        private double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        private String toJson(String label, String endpoint, int concurrency) {
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            return String.format(Locale.ROOT,
+                    "{\"label\":\"%s\",\"endpoint\":\"%s\",\"concurrency\":%d,\"requests\":%d,\"errors\":%d,"
+                            + "\"rejected\":%d,\"throughput\":%.1f,"
+                            + "\"p50Ms\":%.3f,\"p90Ms\":%.3f,\"p99Ms\":%.3f,\"maxMs\":%.3f}",
+                    label, endpoint, concurrency, requests, errors, rejected, requests / seconds,
+                    percentileMillis(0.50), percentileMillis(0.90), percentileMillis(0.99), percentileMillis(1.0));
+        }
+    }
+
+    // Options are passed as --name=value.
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
@@ -1,48 +1,63 @@
 package com.retailstore;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retailstore.config.SeedProperties;
 import com.retailstore.entity.Bill;
 import com.retailstore.entity.User;
+import com.retailstore.importer.BulkImporter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationListener;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.List;
-
 
+@Slf4j
 @Component
+@Profile("!inmemory")
+@Order(DatabaseSeeder.ORDER)
 @RequiredArgsConstructor
 public class DatabaseSeeder implements ApplicationListener<ApplicationReadyEvent> {
 
-    private final MongoTemplate mongoTemplate;
-    private final ObjectMapper objectMapper;
+    // Ready listeners reading the collections, like IndexInitializer and BillIdFilter, are ordered after the seeder.
+    public static final int ORDER = 0;
+
+    private final BulkImporter bulkImporter;
+    private final ResourceLoader resourceLoader;
+    private final SeedProperties seedProperties;
 
     @Override
     public void onApplicationEvent(ApplicationReadyEvent event) {
-        seedDatabase();
+        if (!seedProperties.isEnabled()) {
+            return;
+        }
+        // Readiness flips to ACCEPTING_TRAFFIC only after the ready event listeners return.
+        if (seedProperties.isBackground()) {
+            Thread.ofVirtual().name("database-seeder").start(this::seedInBackground);
+        } else {
+            seedDatabase();
+        }
     }
 
     private void seedDatabase() {
-        try (InputStream usersStream = new ClassPathResource("mongo-init/users.json").getInputStream();
-             InputStream billsStream = new ClassPathResource("mongo-init/bills.json").getInputStream()) {
-
-            List<User> users = objectMapper.readValue(usersStream, new TypeReference<>() {});
-            List<Bill> bills = objectMapper.readValue(billsStream, new TypeReference<>() {});
-
-            mongoTemplate.dropCollection(User.class);
-            mongoTemplate.dropCollection(Bill.class);
-
-            mongoTemplate.insertAll(users);
-            mongoTemplate.insertAll(bills);
-
+        try {
+            bulkImporter.importDocuments(resourceLoader.getResource(seedProperties.getUsers()), User.class);
+            // The bulk writes publish an AfterSaveEvent per document, which updates the caches and the bill id filter.
+            bulkImporter.importDocuments(resourceLoader.getResource(seedProperties.getBills()), Bill.class);
         } catch (IOException e) {
-            e.printStackTrace();
+            log.error("Seeding the database failed", e);
+        }
+    }
+
+    // Nothing is left to fail startup from the background thread.
+    private void seedInBackground() {
+        try {
+            seedDatabase();
+        } catch (RuntimeException e) {
+            log.error("Seeding the database failed", e);
         }
     }
 }
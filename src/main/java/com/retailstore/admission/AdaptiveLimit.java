@@ -0,0 +1,102 @@
+package com.retailstore.admission;
+
+import com.retailstore.config.AdmissionProperties;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Concurrency limit following additive increase, multiplicative decrease on the latency of completed requests.
+// When Mongo slows down the limit shrinks, so the excess is turned away instead of queueing on request threads.
+public class AdaptiveLimit {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+
+    private volatile int limit;
+    private volatile int inFlight;
+    private volatile int waiting;
+    private int fastSinceIncrease;
+    private long lastDecrease = System.nanoTime();
+
+    public AdaptiveLimit(AdmissionProperties properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.targetLatencyNanos = properties.getTargetLatency().toNanos();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.maxQueue = properties.getMaxQueue();
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+        this.limit = Math.max(minLimit, Math.min(properties.getInitialLimit(), maxLimit));
+    }
+
+    // True when the request may proceed, it then has to call release. Waits at most maxWait for a free slot.
+    public boolean acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < limit) {
+                inFlight++;
+                return true;
+            }
+            if (waiting >= maxQueue) {
+                return false;
+            }
+            waiting++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= limit) {
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                inFlight++;
+                return true;
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Started is the System.nanoTime() at which the request was admitted.
+    public void release(long started, long latencyNanos) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (latencyNanos > targetLatencyNanos) {
+                // Requests admitted before the last decrease were slowed down by the old limit, one backoff
+                // per overload is enough.
+                if (started - lastDecrease > 0) {
+                    limit = Math.max(minLimit, (int) (limit * backoffRatio));
+                    fastSinceIncrease = 0;
+                    lastDecrease = System.nanoTime();
+                }
+            } else if (++fastSinceIncrease >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+                fastSinceIncrease = 0;
+            }
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getWaiting() {
+        return waiting;
+    }
+}
@@ -0,0 +1,111 @@
+package com.retailstore.admission;
+
+import com.retailstore.config.AdmissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Admits bill requests within the adaptive concurrency limit and the quota of their user, rejecting the rest
+// right away with Retry-After: 429 for a user over its quota, 503 when the limit and its queue are full.
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdaptiveLimit limit;
+    private final UserQuota userQuota;
+    private final String retryAfter;
+    private final Counter userQuotaRejections;
+    private final Counter saturationRejections;
+
+    public AdmissionControlFilter(AdmissionProperties properties, MeterRegistry registry) {
+        this.limit = new AdaptiveLimit(properties);
+        this.userQuota = new UserQuota(limit::getLimit, properties.getUserShare());
+        this.retryAfter = Long.toString(Math.max(1, properties.getRetryAfter().toSeconds()));
+
+        Gauge.builder("retailstore.admission.limit", limit, AdaptiveLimit::getLimit)
+                .description("Concurrent bill requests currently admitted at most")
+                .register(registry);
+        Gauge.builder("retailstore.admission.in.flight", limit, AdaptiveLimit::getInFlight)
+                .description("Bill requests being served")
+                .register(registry);
+        Gauge.builder("retailstore.admission.queue", limit, AdaptiveLimit::getWaiting)
+                .description("Bill requests waiting for a free slot")
+                .register(registry);
+        userQuotaRejections = rejections(registry, "user_quota");
+        saturationRejections = rejections(registry, "saturated");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Long userId = userId(request);
+        if (userId != null && !userQuota.acquire(userId)) {
+            userQuotaRejections.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS);
+            return;
+        }
+        try {
+            if (!admit()) {
+                saturationRejections.increment();
+                reject(response, HttpStatus.SERVICE_UNAVAILABLE);
+                return;
+            }
+            long started = System.nanoTime();
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                limit.release(started, System.nanoTime() - started);
+            }
+        } finally {
+            if (userId != null) {
+                userQuota.release(userId);
+            }
+        }
+    }
+
+    public AdaptiveLimit getLimit() {
+        return limit;
+    }
+
+    private boolean admit() {
+        try {
+            return limit.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // No body and no error dispatch, a rejection has to stay far cheaper than serving the request.
+    private void reject(HttpServletResponse response, HttpStatus status) {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+    }
+
+    // Requests without a user id, e.g. batches, only count against the global limit.
+    private static Long userId(HttpServletRequest request) {
+        String userId = request.getParameter("userId");
+        if (userId == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(userId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Counter rejections(MeterRegistry registry, String reason) {
+        return Counter.builder("retailstore.admission.rejected")
+                .description("Bill requests turned away by admission control")
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
@@ -0,0 +1,38 @@
+package com.retailstore.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+
+// In-flight requests per user, capped at a share of the current concurrency limit so a single user cannot take the
+// whole limit. Users without requests in flight are not kept.
+public class UserQuota {
+
+    private final ConcurrentHashMap<Long, Integer> inFlight = new ConcurrentHashMap<>();
+    private final IntSupplier limit;
+    private final double userShare;
+
+    public UserQuota(IntSupplier limit, double userShare) {
+        this.limit = limit;
+        this.userShare = userShare;
+    }
+
+    // True when the user was below the quota, the request then has to call release.
+    public boolean acquire(long userId) {
+        int quota = Math.max(1, (int) Math.ceil(limit.getAsInt() * userShare));
+        boolean[] acquired = new boolean[1];
+        inFlight.compute(userId, (id, count) -> {
+            int current = count != null ? count : 0;
+            acquired[0] = current < quota;
+            return acquired[0] ? current + 1 : count;
+        });
+        return acquired[0];
+    }
+
+    public void release(long userId) {
+        inFlight.computeIfPresent(userId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    public int users() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,186 @@
+package com.retailstore.analytics;
+
+import com.retailstore.constant.ItemType;
+import com.retailstore.constant.UserType;
+import com.retailstore.pricing.rule.DiscountRuleTable;
+import com.retailstore.pricing.rule.DiscountSchedule;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// Every bill as primitive columns: bill i owns the items [itemOffsets[i], itemOffsets[i + 1]). Amounts are minor
+// units, types are enum ordinals and NO_VALUE when unknown. Immutable once built, so scans need no locking.
+public final class BillSnapshot {
+
+    public static final byte NO_VALUE = -1;
+
+    static final int NO_DATE = Integer.MIN_VALUE;
+
+    // Bills per task of a parallel scan.
+    private static final int CHUNK_SIZE = 16_384;
+
+    private static final UserType[] USER_TYPES = UserType.values();
+    private static final byte GROCERY = (byte) ItemType.GROCERY.ordinal();
+
+    @Getter
+    private final Instant loadedAt;
+
+    private final int billCount;
+    private final long[] billIds;
+    private final long[] userIds;
+    private final byte[] userTypes;
+    private final int[] userCreatedAt;
+    private final int[] itemOffsets;
+    private final long[] prices;
+    private final byte[] itemTypes;
+
+    private BillSnapshot(Instant loadedAt, int billCount, long[] billIds, long[] userIds, byte[] userTypes,
+                         int[] userCreatedAt, int[] itemOffsets, long[] prices, byte[] itemTypes) {
+        this.loadedAt = loadedAt;
+        this.billCount = billCount;
+        this.billIds = billIds;
+        this.userIds = userIds;
+        this.userTypes = userTypes;
+        this.userCreatedAt = userCreatedAt;
+        this.itemOffsets = itemOffsets;
+        this.prices = prices;
+        this.itemTypes = itemTypes;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getBillCount() {
+        return billCount;
+    }
+
+    public int getItemCount() {
+        return itemOffsets[billCount];
+    }
+
+    public long billId(int bill) {
+        return billIds[bill];
+    }
+
+    public long userId(int bill) {
+        return userIds[bill];
+    }
+
+    // Heap held by the columns.
+    public long getSizeInBytes() {
+        return (long) billCount * (Long.BYTES * 2 + 1 + Integer.BYTES)
+                + (long) (billCount + 1) * Integer.BYTES
+                + (long) getItemCount() * (Long.BYTES + 1);
+    }
+
+    // Prices every bill with the rules in parallel, bills whose user is unknown are only counted.
+    public SimulationTotals simulate(DiscountRuleTable rules, LocalDate today) {
+        int chunks = (billCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        return IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> scan(rules, today, chunk * CHUNK_SIZE,
+                        Math.min(billCount, (chunk + 1) * CHUNK_SIZE)))
+                .collect(SimulationTotals::new, SimulationTotals::merge, SimulationTotals::merge);
+    }
+
+    private SimulationTotals scan(DiscountRuleTable rules, LocalDate today, int from, int to) {
+        SimulationTotals totals = new SimulationTotals();
+        for (int bill = from; bill < to; bill++) {
+            long total = 0;
+            long grocery = 0;
+            for (int item = itemOffsets[bill], end = itemOffsets[bill + 1]; item < end; item++) {
+                long price = prices[item];
+                total += price;
+                if (itemTypes[item] == GROCERY) {
+                    grocery += price;
+                }
+            }
+
+            byte userType = userTypes[bill];
+            if (userType == NO_VALUE) {
+                totals.addUnpriced();
+                continue;
+            }
+            int createdAt = userCreatedAt[bill];
+            DiscountSchedule schedule = rules.schedule(USER_TYPES[userType],
+                    createdAt == NO_DATE ? null : LocalDate.ofEpochDay(createdAt), today);
+            totals.add(userType, total, grocery, schedule.netPayableAmount(total, grocery));
+        }
+        return totals;
+    }
+
+    // Appends bills and their items to growing columns, a bill's items follow the bill.
+    public static final class Builder {
+
+        private int billCount;
+        private long[] billIds = new long[1024];
+        private long[] userIds = new long[1024];
+        private byte[] userTypes = new byte[1024];
+        private int[] userCreatedAt = new int[1024];
+        private int[] itemOffsets = new int[1025];
+        private int itemCount;
+        private long[] prices = new long[4096];
+        private byte[] itemTypes = new byte[4096];
+
+        private Builder() {
+        }
+
+        public Builder bill(long billId, long userId, UserType userType, LocalDate createdAt) {
+            if (billCount == billIds.length) {
+                int capacity = grow(billCount);
+                billIds = Arrays.copyOf(billIds, capacity);
+                userIds = Arrays.copyOf(userIds, capacity);
+                userTypes = Arrays.copyOf(userTypes, capacity);
+                userCreatedAt = Arrays.copyOf(userCreatedAt, capacity);
+                itemOffsets = Arrays.copyOf(itemOffsets, capacity + 1);
+            }
+            billIds[billCount] = billId;
+            userIds[billCount] = userId;
+            userTypes[billCount] = userType == null ? NO_VALUE : (byte) userType.ordinal();
+            userCreatedAt[billCount] = createdAt == null ? NO_DATE : Math.toIntExact(createdAt.toEpochDay());
+            billCount++;
+            itemOffsets[billCount] = itemCount;
+            return this;
+        }
+
+        // Adds an item to the last bill.
+        public Builder item(long price, ItemType type) {
+            if (billCount == 0) {
+                throw new IllegalStateException("Items need a bill");
+            }
+            if (itemCount == prices.length) {
+                int capacity = grow(itemCount);
+                prices = Arrays.copyOf(prices, capacity);
+                itemTypes = Arrays.copyOf(itemTypes, capacity);
+            }
+            prices[itemCount] = price;
+            itemTypes[itemCount] = type == null ? NO_VALUE : (byte) type.ordinal();
+            itemCount++;
+            itemOffsets[billCount] = itemCount;
+            return this;
+        }
+
+        // Columns are trimmed to their size, the builder must not be used afterwards.
+        public BillSnapshot build(Instant loadedAt) {
+            return new BillSnapshot(loadedAt, billCount,
+                    Arrays.copyOf(billIds, billCount),
+                    Arrays.copyOf(userIds, billCount),
+                    Arrays.copyOf(userTypes, billCount),
+                    Arrays.copyOf(userCreatedAt, billCount),
+                    Arrays.copyOf(itemOffsets, billCount + 1),
+                    Arrays.copyOf(prices, itemCount),
+                    Arrays.copyOf(itemTypes, itemCount));
+        }
+
+        private static int grow(int size) {
+            if (size == Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Snapshot columns are limited to " + size + " entries");
+            }
+            return (int) Math.min((long) size * 2, Integer.MAX_VALUE - 8);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.retailstore.analytics;
+
+import com.mongodb.client.MongoCursor;
+import com.retailstore.config.AnalyticsProperties;
+import com.retailstore.constant.ItemType;
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class BillSnapshotLoader {
+
+    private final MongoTemplate mongoTemplate;
+    private final AnalyticsProperties properties;
+
+    // Reads every bill once from a cursor as raw documents, only the fields pricing needs and no Bill or Item
+    // objects. Users are joined in memory.
+    public BillSnapshot load() {
+        long start = System.nanoTime();
+        Map<Long, User> users = users();
+
+        BillSnapshot.Builder builder = BillSnapshot.builder();
+        Document projection = new Document("userId", 1)
+                .append("items.priceCents", 1)
+                .append("items.type", 1);
+        try (MongoCursor<Document> cursor = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Bill.class))
+                .find()
+                .projection(projection)
+                .batchSize(properties.getBatchSize())
+                .cursor()) {
+            while (cursor.hasNext()) {
+                Document bill = cursor.next();
+                long userId = bill.get("userId", Number.class).longValue();
+                User user = users.get(userId);
+                builder.bill(bill.get("_id", Number.class).longValue(), userId,
+                        user != null ? user.getType() : null, user != null ? user.getCreatedAt() : null);
+                for (Document item : bill.getList("items", Document.class, List.of())) {
+                    Number price = item.get("priceCents", Number.class);
+                    if (price == null) {
+                        throw new IllegalStateException("Bill " + bill.get("_id") + " has an item without "
+                                + "priceCents, it was written before amounts were stored in minor units");
+                    }
+                    String type = item.getString("type");
+                    builder.item(price.longValue(), type != null ? ItemType.valueOf(type) : null);
+                }
+            }
+        }
+
+        BillSnapshot snapshot = builder.build(Instant.now());
+        log.info("Loaded a snapshot of {} bills and {} items ({} MB) in {} ms", snapshot.getBillCount(),
+                snapshot.getItemCount(), snapshot.getSizeInBytes() >> 20,
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return snapshot;
+    }
+
+    private Map<Long, User> users() {
+        Query query = new Query();
+        query.fields().include("type", "createdAt");
+        Map<Long, User> users = new HashMap<>();
+        try (Stream<User> stream = mongoTemplate.stream(query, User.class)) {
+            stream.forEach(user -> users.put(user.getId(), user));
+        }
+        return users;
+    }
+}
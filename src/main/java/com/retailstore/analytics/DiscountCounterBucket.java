@@ -0,0 +1,107 @@
+package com.retailstore.analytics;
+
+import com.retailstore.constant.UserType;
+import com.retailstore.pricing.rule.DiscountSchedule;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Discounts granted while one bucket of time was current, amounts in minor units. Every count is a LongAdder, so
+// concurrent bills add to separate cells instead of contending on one value.
+final class DiscountCounterBucket {
+
+    private static final UserType[] USER_TYPES = UserType.values();
+
+    // Start of the bucket in bucket lengths since the epoch.
+    private final long index;
+    private final Instant start;
+    private final UserTypeCounters[] userTypes = new UserTypeCounters[USER_TYPES.length];
+
+    DiscountCounterBucket(long index, Instant start) {
+        this.index = index;
+        this.start = start;
+        for (int i = 0; i < userTypes.length; i++) {
+            userTypes[i] = new UserTypeCounters(USER_TYPES[i]);
+        }
+    }
+
+    long index() {
+        return index;
+    }
+
+    Instant start() {
+        return start;
+    }
+
+    UserTypeCounters get(UserType userType) {
+        return userTypes[userType.ordinal()];
+    }
+
+    UserTypeCounters[] userTypes() {
+        return userTypes;
+    }
+
+    // Bills priced for one user type and the discounts of each rule. The discount of the user type is the sum over
+    // its rules, so each granted discount is added once.
+    static final class UserTypeCounters implements DiscountSchedule.DiscountConsumer {
+
+        private final UserType userType;
+        private final Tally bills = new Tally();
+        private final Map<String, Tally> rules = new ConcurrentHashMap<>();
+
+        private UserTypeCounters(UserType userType) {
+            this.userType = userType;
+        }
+
+        void bill(long totalAmount) {
+            bills.add(totalAmount);
+        }
+
+        @Override
+        public void accept(String ruleId, long discount) {
+            Tally rule = rules.get(ruleId);
+            if (rule == null) {
+                rule = rules.computeIfAbsent(ruleId, id -> new Tally());
+            }
+            rule.add(discount);
+        }
+
+        UserType userType() {
+            return userType;
+        }
+
+        // Count is bills, amount their total.
+        Tally bills() {
+            return bills;
+        }
+
+        // Count is bills the rule discounted, amount its discounts.
+        Map<String, Tally> rules() {
+            return rules;
+        }
+    }
+
+    // The flushed fields are only read and written by the flush, which runs one at a time.
+    static final class Tally {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder amount = new LongAdder();
+        long flushedCount;
+        long flushedAmount;
+
+        void add(long value) {
+            count.increment();
+            amount.add(value);
+        }
+
+        long count() {
+            return count.sum();
+        }
+
+        long amount() {
+            return amount.sum();
+        }
+    }
+}
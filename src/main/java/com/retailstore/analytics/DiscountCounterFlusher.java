@@ -0,0 +1,147 @@
+package com.retailstore.analytics;
+
+import com.retailstore.config.DiscountCounterProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Writes the discount counters to Mongo, one document per bucket and user type. Each flush adds what was counted
+// since the previous one with $inc, so instances sharing the collection add up and nothing is read back.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DiscountCounterFlusher implements SmartLifecycle {
+
+    static final String COLLECTION = "discount_counters";
+
+    private final DiscountCounters discountCounters;
+    private final MongoTemplate mongoTemplate;
+    private final DiscountCounterProperties properties;
+    private ScheduledExecutorService scheduler;
+
+    @Override
+    public synchronized void start() {
+        if (!discountCounters.isEnabled() || !properties.isFlushEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("discount-counter-flush").daemon().factory());
+        long interval = properties.getFlushInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // Bills priced until the web server stopped are in the last flush.
+    @Override
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        flushQuietly();
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    // Started before and stopped after the web server.
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    // Returns the documents written. Counts are marked flushed per acknowledged batch and a failed batch is sent
+    // again with the next flush, so documents written before a batch failed part way are counted twice.
+    public synchronized int flush() {
+        List<DiscountCounterBucket> buckets = discountCounters.unflushed();
+        List<Upsert> upserts = new ArrayList<>();
+        for (DiscountCounterBucket bucket : buckets) {
+            for (DiscountCounterBucket.UserTypeCounters counters : bucket.userTypes()) {
+                Upsert upsert = upsert(bucket, counters);
+                if (upsert != null) {
+                    upserts.add(upsert);
+                }
+            }
+        }
+
+        for (int from = 0; from < upserts.size(); from += properties.getFlushBatchSize()) {
+            List<Upsert> batch = upserts.subList(from, Math.min(from + properties.getFlushBatchSize(), upserts.size()));
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION)
+                    .upsert(batch.stream().map(upsert -> Pair.of(upsert.query(), upsert.update())).toList())
+                    .execute();
+            batch.forEach(upsert -> upsert.flushed().forEach(Flushed::commit));
+        }
+        discountCounters.flushed(buckets);
+        return upserts.size();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Flushing the discount counters failed, the counts are kept for the next flush", e);
+        }
+    }
+
+    private static Upsert upsert(DiscountCounterBucket bucket, DiscountCounterBucket.UserTypeCounters counters) {
+        Update update = new Update();
+        List<Flushed> flushed = new ArrayList<>();
+        inc(update, flushed, counters.bills(), "bills", "totalCents");
+        long discountAmount = 0;
+        for (Map.Entry<String, DiscountCounterBucket.Tally> rule : counters.rules().entrySet()) {
+            String field = "rules." + rule.getKey();
+            discountAmount += inc(update, flushed, rule.getValue(), field + ".bills", field + ".discountCents");
+        }
+        if (flushed.isEmpty()) {
+            return null;
+        }
+        if (discountAmount != 0) {
+            update.inc("discountCents", discountAmount);
+        }
+        update.setOnInsert("start", Date.from(bucket.start()))
+                .setOnInsert("userType", counters.userType().name());
+        Query query = Query.query(Criteria.where("_id").is(bucket.start() + "/" + counters.userType().name()));
+        return new Upsert(query, update, flushed);
+    }
+
+    // Returns the amount added.
+    private static long inc(Update update, List<Flushed> flushed, DiscountCounterBucket.Tally tally,
+                            String countField, String amountField) {
+        long count = tally.count();
+        long amount = tally.amount();
+        if (count == tally.flushedCount && amount == tally.flushedAmount) {
+            return 0;
+        }
+        update.inc(countField, count - tally.flushedCount).inc(amountField, amount - tally.flushedAmount);
+        flushed.add(new Flushed(tally, count, amount));
+        return amount - tally.flushedAmount;
+    }
+
+    private record Upsert(Query query, Update update, List<Flushed> flushed) {
+    }
+
+    private record Flushed(DiscountCounterBucket.Tally tally, long count, long amount) {
+
+        void commit() {
+            tally.flushedCount = count;
+            tally.flushedAmount = amount;
+        }
+    }
+}
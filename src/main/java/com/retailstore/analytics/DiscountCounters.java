@@ -0,0 +1,157 @@
+package com.retailstore.analytics;
+
+import com.retailstore.config.DiscountCounterProperties;
+import com.retailstore.constant.UserType;
+import com.retailstore.pricing.PricedBillListener;
+import com.retailstore.pricing.rule.DiscountSchedule;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Live discount totals per user type and rule, counted where bills are priced instead of aggregated from the
+// bills. Each version of a stored bill is counted once, by whichever stack prices it first. A ring of time buckets
+// holds the retention, a bucket is replaced by a compare-and-set once its slot comes round again, so recording never
+// takes a lock.
+@Component
+public class DiscountCounters implements PricedBillListener {
+
+    private final DiscountCounterProperties properties;
+    private final Clock clock;
+    private final long bucketMillis;
+    private final AtomicReferenceArray<DiscountCounterBucket> buckets;
+
+    // Buckets replaced in the ring before their counts were flushed.
+    private final Queue<DiscountCounterBucket> retired = new ConcurrentLinkedQueue<>();
+
+    // Fingerprints of the bill versions counted last, one per slot. A version pushed out of its slot by another bill
+    // is counted again the next time it is priced.
+    private final AtomicLongArray counted;
+
+    @Autowired
+    public DiscountCounters(DiscountCounterProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    DiscountCounters(DiscountCounterProperties properties, Clock clock) {
+        if (properties.getBucket().toMillis() <= 0 || properties.getRetention().compareTo(properties.getBucket()) < 0) {
+            throw new IllegalArgumentException("Discount counter buckets must be positive and within the retention");
+        }
+        this.properties = properties;
+        this.clock = clock;
+        this.bucketMillis = properties.getBucket().toMillis();
+        // The current bucket is partial, one more keeps the whole retention readable.
+        this.buckets = new AtomicReferenceArray<>((int) (properties.getRetention().toMillis() / bucketMillis) + 1);
+        this.counted = new AtomicLongArray(Integer.highestOneBit(Math.max(1, properties.getCountedBills() - 1)) << 1);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    // Counts a priced bill version unless it was counted before, also when priced by the other stack.
+    @Override
+    public void priced(long billId, Long billVersion, UserType userType, DiscountSchedule schedule, int itemCount,
+                       long totalAmount, long groceryAmount, long netPayableAmount) {
+        if (isEnabled() && userType != null && firstPricing(billId, billVersion)) {
+            record(userType, schedule, totalAmount, groceryAmount);
+        }
+    }
+
+    // Swaps the fingerprint of the version into its slot, only the caller that does so counts it.
+    private boolean firstPricing(long billId, Long billVersion) {
+        long fingerprint = fingerprint(billId, billVersion);
+        int slot = (int) fingerprint & (counted.length() - 1);
+        long seen = counted.get(slot);
+        while (seen != fingerprint) {
+            if (counted.compareAndSet(slot, seen, fingerprint)) {
+                return true;
+            }
+            seen = counted.get(slot);
+        }
+        return false;
+    }
+
+    // Bills stored before versioning have no version, they are counted once until their first change. Zero marks an
+    // empty slot.
+    private static long fingerprint(long billId, Long billVersion) {
+        long hash = billId * 0x9E3779B97F4A7C15L + (billVersion == null ? 0 : billVersion + 1);
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+
+    // Counts the bill and every discount the schedule grants on it.
+    public void record(UserType userType, DiscountSchedule schedule, long totalAmount, long groceryAmount) {
+        if (!isEnabled() || userType == null) {
+            return;
+        }
+        DiscountCounterBucket.UserTypeCounters counters = current().get(userType);
+        counters.bill(totalAmount);
+        schedule.forEachDiscount(totalAmount, groceryAmount, counters);
+    }
+
+    // The buckets overlapping the last window, which is cut to the retention. Null for the whole retention.
+    public DiscountTotals totals(Duration window) {
+        long now = clock.millis();
+        long current = now / bucketMillis;
+        long count = window == null ? buckets.length()
+                : Math.min(Math.max(1, (window.toMillis() + bucketMillis - 1) / bucketMillis), buckets.length());
+        long first = current - count + 1;
+
+        DiscountTotals totals = new DiscountTotals(Instant.ofEpochMilli(first * bucketMillis),
+                Instant.ofEpochMilli(now));
+        for (int slot = 0; slot < buckets.length(); slot++) {
+            DiscountCounterBucket bucket = buckets.get(slot);
+            if (bucket != null && bucket.index() >= first && bucket.index() <= current) {
+                totals.add(bucket);
+            }
+        }
+        return totals;
+    }
+
+    private DiscountCounterBucket current() {
+        long index = clock.millis() / bucketMillis;
+        int slot = (int) (index % buckets.length());
+        DiscountCounterBucket bucket = buckets.get(slot);
+        while (bucket == null || bucket.index() < index) {
+            DiscountCounterBucket next = new DiscountCounterBucket(index, Instant.ofEpochMilli(index * bucketMillis));
+            if (buckets.compareAndSet(slot, bucket, next)) {
+                if (bucket != null && properties.isFlushEnabled()) {
+                    retired.add(bucket);
+                }
+                return next;
+            }
+            bucket = buckets.get(slot);
+        }
+        // A caller that read the clock just before the slot moved on counts in the newer bucket.
+        return bucket;
+    }
+
+    // Buckets that may hold counts not flushed yet: those replaced since the last flush, then the ring.
+    List<DiscountCounterBucket> unflushed() {
+        List<DiscountCounterBucket> unflushed = new ArrayList<>(retired);
+        for (int slot = 0; slot < buckets.length(); slot++) {
+            DiscountCounterBucket bucket = buckets.get(slot);
+            if (bucket != null) {
+                unflushed.add(bucket);
+            }
+        }
+        return unflushed;
+    }
+
+    // Replaced buckets are dropped once flushed, nothing counts into them anymore.
+    void flushed(Collection<DiscountCounterBucket> flushed) {
+        retired.removeAll(flushed);
+    }
+}
@@ -0,0 +1,74 @@
+package com.retailstore.analytics;
+
+import com.retailstore.constant.UserType;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Sums of the discount counters over a window per user type ordinal, amounts in minor units.
+public final class DiscountTotals {
+
+    private static final int USER_TYPES = UserType.values().length;
+
+    @Getter
+    private final Instant from;
+
+    @Getter
+    private final Instant to;
+
+    private final long[] bills = new long[USER_TYPES];
+    private final long[] totalAmounts = new long[USER_TYPES];
+    private final long[] discountAmounts = new long[USER_TYPES];
+    private final List<Map<String, RuleTotal>> rules = new ArrayList<>(USER_TYPES);
+
+    DiscountTotals(Instant from, Instant to) {
+        this.from = from;
+        this.to = to;
+        for (int i = 0; i < USER_TYPES; i++) {
+            rules.add(new TreeMap<>());
+        }
+    }
+
+    void add(DiscountCounterBucket bucket) {
+        for (DiscountCounterBucket.UserTypeCounters counters : bucket.userTypes()) {
+            int i = counters.userType().ordinal();
+            bills[i] += counters.bills().count();
+            totalAmounts[i] += counters.bills().amount();
+            counters.rules().forEach((rule, tally) -> {
+                long discountAmount = tally.amount();
+                discountAmounts[i] += discountAmount;
+                rules.get(i).merge(rule, new RuleTotal(tally.count(), discountAmount), RuleTotal::plus);
+            });
+        }
+    }
+
+    public long bills(UserType userType) {
+        return bills[userType.ordinal()];
+    }
+
+    public long totalAmount(UserType userType) {
+        return totalAmounts[userType.ordinal()];
+    }
+
+    public long discountAmount(UserType userType) {
+        return discountAmounts[userType.ordinal()];
+    }
+
+    // By rule id.
+    public Map<String, RuleTotal> rules(UserType userType) {
+        return Collections.unmodifiableMap(rules.get(userType.ordinal()));
+    }
+
+    // Bills the rule discounted and the discount it granted on them.
+    public record RuleTotal(long bills, long discountAmount) {
+
+        RuleTotal plus(RuleTotal other) {
+            return new RuleTotal(bills + other.bills, discountAmount + other.discountAmount);
+        }
+    }
+}
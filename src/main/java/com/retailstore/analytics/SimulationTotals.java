@@ -0,0 +1,57 @@
+package com.retailstore.analytics;
+
+import com.retailstore.constant.UserType;
+import lombok.Getter;
+
+// Sums of a scan per user type ordinal, amounts in minor units. Each scan task fills its own instance.
+public final class SimulationTotals {
+
+    private static final int USER_TYPES = UserType.values().length;
+
+    private final long[] bills = new long[USER_TYPES];
+    private final long[] grossAmounts = new long[USER_TYPES];
+    private final long[] groceryAmounts = new long[USER_TYPES];
+    private final long[] netPayableAmounts = new long[USER_TYPES];
+
+    // Bills whose user was not found when the snapshot was loaded.
+    @Getter
+    private long unpriced;
+
+    void add(int userType, long grossAmount, long groceryAmount, long netPayableAmount) {
+        bills[userType]++;
+        grossAmounts[userType] += grossAmount;
+        groceryAmounts[userType] += groceryAmount;
+        netPayableAmounts[userType] += netPayableAmount;
+    }
+
+    void addUnpriced() {
+        unpriced++;
+    }
+
+    SimulationTotals merge(SimulationTotals other) {
+        for (int i = 0; i < USER_TYPES; i++) {
+            bills[i] += other.bills[i];
+            grossAmounts[i] += other.grossAmounts[i];
+            groceryAmounts[i] += other.groceryAmounts[i];
+            netPayableAmounts[i] += other.netPayableAmounts[i];
+        }
+        unpriced += other.unpriced;
+        return this;
+    }
+
+    public long bills(UserType userType) {
+        return bills[userType.ordinal()];
+    }
+
+    public long grossAmount(UserType userType) {
+        return grossAmounts[userType.ordinal()];
+    }
+
+    public long groceryAmount(UserType userType) {
+        return groceryAmounts[userType.ordinal()];
+    }
+
+    public long netPayableAmount(UserType userType) {
+        return netPayableAmounts[userType.ordinal()];
+    }
+}
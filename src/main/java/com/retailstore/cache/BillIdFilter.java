@@ -0,0 +1,119 @@
+package com.retailstore.cache;
+
+import com.retailstore.config.BillIdFilterProperties;
+import com.retailstore.repository.BillRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.LongStream;
+
+// Ids of the stored bills, so lookups of ids that were never stored are answered without a query. Until the filter
+// is built, or when it is switched off, every id might exist.
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class BillIdFilter implements ApplicationListener<ApplicationReadyEvent>, MeterBinder {
+
+    private final BillRepository billRepository;
+    private final BillIdFilterProperties properties;
+    private final LongAdder rejected = new LongAdder();
+    private volatile LongBloomFilter filter;
+    private volatile LongBloomFilter building;
+
+    public BillIdFilter(BillRepository billRepository, BillIdFilterProperties properties) {
+        this.billRepository = billRepository;
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public boolean mightContain(long billId) {
+        LongBloomFilter current = filter;
+        if (current == null || current.mightContain(billId)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    // Called before a bill is written and again after, a rebuild running in between sees either the call or the bill.
+    public void add(long billId) {
+        LongBloomFilter next = building;
+        LongBloomFilter current = filter;
+        if (next != null) {
+            next.add(billId);
+        }
+        if (current != null) {
+            current.add(billId);
+        }
+    }
+
+    // Built off the startup path, lookups pass through until it is done. Ordered after DatabaseSeeder, so a foreground
+    // seed is complete and one scan over the ids is enough.
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (isEnabled()) {
+            Thread.ofVirtual().name("bill-id-filter").start(this::rebuildInBackground);
+        }
+    }
+
+    // Reads every stored bill id into a new filter and swaps it in. Bills written meanwhile or later, also by the bulk
+    // writes of a background seed, are added on their AfterSaveEvent by BillIdFilterListener.
+    public synchronized void rebuild() {
+        if (!isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long bills = billRepository.count();
+        LongBloomFilter next = new LongBloomFilter(Math.max(properties.getExpectedBills(), 2 * bills),
+                properties.getFalsePositiveRate());
+        building = next;
+        try (LongStream ids = billRepository.streamAllIds(properties.getBatchSize())) {
+            ids.forEach(next::add);
+            // A filter missing ids would turn existing bills away, it is only swapped in once complete.
+            filter = next;
+        } finally {
+            building = null;
+        }
+        log.info("Built the bill id filter over {} bills ({} KB) in {} ms", bills, next.sizeInBytes() >> 10,
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private void rebuildInBackground() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Building the bill id filter failed, bill ids are not filtered", e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!isEnabled()) {
+            return;
+        }
+        FunctionCounter.builder("retailstore.bill.id.filter.rejected", rejected, LongAdder::sum)
+                .description("Lookups of bill ids answered as not found without a query")
+                .register(registry);
+        Gauge.builder("retailstore.bill.id.filter.false.positive.rate", this, BillIdFilter::falsePositiveRate)
+                .description("Chance that an unknown bill id passes the filter and is queried")
+                .register(registry);
+    }
+
+    public double falsePositiveRate() {
+        LongBloomFilter current = filter;
+        return current != null ? current.falsePositiveRate() : 1.0;
+    }
+}
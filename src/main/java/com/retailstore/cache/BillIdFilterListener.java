@@ -0,0 +1,20 @@
+package com.retailstore.cache;
+
+import com.retailstore.entity.Bill;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+// Deleted bills stay in the filter, their ids only cost a query as before.
+@Component
+@RequiredArgsConstructor
+public class BillIdFilterListener extends AbstractMongoEventListener<Bill> {
+
+    private final BillIdFilter billIdFilter;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Bill> event) {
+        billIdFilter.add(event.getSource().getId());
+    }
+}
@@ -0,0 +1,69 @@
+package com.retailstore.cache;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bloom filter over long keys: no false negatives, false positives at about the configured rate while no more than
+// the expected keys were added. Adding is lock-free and safe alongside lookups, keys cannot be removed.
+final class LongBloomFilter {
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] words;
+    private final long mask;
+    private final int hashes;
+    private final LongAdder bitsSet = new LongAdder();
+
+    LongBloomFilter(long expectedKeys, double falsePositiveRate) {
+        double ln2 = Math.log(2);
+        long requiredBits = (long) Math.ceil(-Math.max(expectedKeys, 1) * Math.log(falsePositiveRate) / (ln2 * ln2));
+        // A power of two keeps the bit index a mask instead of a division.
+        long bits = Math.max(Long.highestOneBit(Math.max(requiredBits, 64) - 1) << 1, 64);
+        this.words = new long[(int) (bits >>> 6)];
+        this.mask = bits - 1;
+        this.hashes = Math.max(1, (int) Math.round(-Math.log(falsePositiveRate) / ln2));
+    }
+
+    // Double hashing: the i-th bit is hash + i * step, with an odd step so the bits never repeat.
+    void add(long key) {
+        long hash = mix(key);
+        long step = (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (hash + i * step) & mask;
+            long word = 1L << bit;
+            if (((long) WORDS.getAndBitwiseOr(words, (int) (bit >>> 6), word) & word) == 0) {
+                bitsSet.increment();
+            }
+        }
+    }
+
+    boolean mightContain(long key) {
+        long hash = mix(key);
+        long step = (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (hash + i * step) & mask;
+            if (((long) WORDS.getAcquire(words, (int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The chance that an absent key finds all of its bits set, from how full the filter currently is.
+    double falsePositiveRate() {
+        return Math.pow((double) bitsSet.sum() / (mask + 1), hashes);
+    }
+
+    long sizeInBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    // Bill ids are sequential, the SplitMix64 finalizer spreads them over all 64 bits.
+    private static long mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,16 @@
+package com.retailstore.cache;
+
+import com.retailstore.entity.User;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+public record PayableResult(long userId, Long billVersion, long contentHash, Long userVersion, long rulesVersion,
+                            long netPayableAmount, LocalDate validUntil) {
+
+    public boolean isValidFor(User user, long currentRulesVersion) {
+        return user.getId() == userId
+                && Objects.equals(user.getVersion(), userVersion)
+                && rulesVersion == currentRulesVersion;
+    }
+}
@@ -0,0 +1,130 @@
+package com.retailstore.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.retailstore.config.PayableCacheProperties;
+import com.retailstore.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Profile("!reactive")
+public class PayableResultCache implements MeterBinder {
+
+    // Keyed by bill id only: a bill has a single owner, the entry records which one.
+    private final Cache<Long, PayableResult> cache;
+    private final Clock clock;
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public PayableResultCache(PayableCacheProperties properties) {
+        this(properties, Clock.systemDefaultZone(), Ticker.systemTicker());
+    }
+
+    PayableResultCache(PayableCacheProperties properties, Clock clock, Ticker ticker) {
+        this.clock = clock;
+        this.cache = properties.isEnabled()
+                ? Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new ResultExpiry(properties.getTtl()))
+                .ticker(ticker)
+                .recordStats()
+                .build()
+                : null;
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public PayableResult get(long billId, long userId) {
+        if (!isEnabled()) {
+            return null;
+        }
+        PayableResult result = cache.getIfPresent(billId);
+        return result != null && result.userId() == userId ? result : null;
+    }
+
+    public long stamp() {
+        return generation.get();
+    }
+
+    public void put(long stamp, long billId, Long billVersion, long contentHash, User user, long rulesVersion,
+                    long netPayableAmount, LocalDate validUntil) {
+        if (!isEnabled()) {
+            return;
+        }
+        // An invalidation raced with the computation, the result may be based on stale documents.
+        if (stamp != generation.get()) {
+            return;
+        }
+        cache.put(billId, new PayableResult(user.getId(), billVersion, contentHash, user.getVersion(), rulesVersion,
+                netPayableAmount, validUntil));
+    }
+
+    public void invalidate(long billId) {
+        generation.incrementAndGet();
+        if (isEnabled()) {
+            cache.invalidate(billId);
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        if (isEnabled()) {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (isEnabled()) {
+            CaffeineCacheMetrics.monitor(registry, cache, "payable-results");
+        }
+    }
+
+    public CacheStats stats() {
+        return isEnabled() ? cache.stats() : CacheStats.empty();
+    }
+
+    private class ResultExpiry implements Expiry<Long, PayableResult> {
+
+        private final long ttlNanos;
+
+        ResultExpiry(Duration ttl) {
+            this.ttlNanos = ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Long billId, PayableResult result, long currentTime) {
+            if (result.validUntil() == null) {
+                return ttlNanos;
+            }
+            Duration remaining = Duration.between(clock.instant(),
+                    result.validUntil().atStartOfDay(clock.getZone()).toInstant());
+            return Math.max(0, Math.min(ttlNanos, remaining.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(Long billId, PayableResult result, long currentTime, long currentDuration) {
+            return expireAfterCreate(billId, result, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long billId, PayableResult result, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.retailstore.cache;
+
+import com.retailstore.entity.Bill;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class PayableResultCacheInvalidationListener extends AbstractMongoEventListener<Bill> {
+
+    private final PayableResultCache payableResultCache;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Bill> event) {
+        payableResultCache.invalidate(event.getSource().getId());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Bill> event) {
+        if (event.getSource().get("_id") instanceof Number id) {
+            payableResultCache.invalidate(id.longValue());
+        } else {
+            payableResultCache.invalidateAll();
+        }
+    }
+}
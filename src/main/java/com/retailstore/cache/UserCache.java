@@ -0,0 +1,77 @@
+package com.retailstore.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.retailstore.config.UserCacheProperties;
+import com.retailstore.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Profile("!reactive")
+public class UserCache implements MeterBinder {
+
+    // Null when the cache is switched off, every lookup then goes straight to the loader.
+    private final Cache<Long, User> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserCache(UserCacheProperties properties) {
+        this.cache = properties.isEnabled()
+                ? Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build()
+                : null;
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public User getIfPresent(long userId) {
+        return isEnabled() ? cache.getIfPresent(userId) : null;
+    }
+
+    public long stamp() {
+        return generation.get();
+    }
+
+    public void put(long stamp, User user) {
+        // An invalidation raced with the load, the user may already have changed.
+        if (isEnabled() && stamp == generation.get()) {
+            cache.put(user.getId(), user);
+        }
+    }
+
+    public void invalidate(long userId) {
+        generation.incrementAndGet();
+        if (isEnabled()) {
+            cache.invalidate(userId);
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        if (isEnabled()) {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (isEnabled()) {
+            CaffeineCacheMetrics.monitor(registry, cache, "users");
+        }
+    }
+
+    public CacheStats stats() {
+        return isEnabled() ? cache.stats() : CacheStats.empty();
+    }
+}
@@ -0,0 +1,32 @@
+package com.retailstore.cache;
+
+import com.retailstore.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class UserCacheInvalidationListener extends AbstractMongoEventListener<User> {
+
+    private final UserCache userCache;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<User> event) {
+        userCache.invalidate(event.getSource().getId());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<User> event) {
+        // Deletes only expose the query, drop everything unless it targeted a single id.
+        if (event.getSource().get("_id") instanceof Number id) {
+            userCache.invalidate(id.longValue());
+        } else {
+            userCache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.retailstore.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+public class FetchExecutor implements AutoCloseable {
+
+    // Null runs every fetch inline on the calling thread.
+    private final ExecutorService executor;
+
+    private FetchExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public static FetchExecutor inline() {
+        return new FetchExecutor(null);
+    }
+
+    public static FetchExecutor virtualThreads() {
+        return new FetchExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    public boolean isConcurrent() {
+        return executor != null;
+    }
+
+    public <T> CompletableFuture<T> fork(Supplier<T> fetch) {
+        if (executor == null) {
+            try {
+                return CompletableFuture.completedFuture(fetch.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return CompletableFuture.supplyAsync(fetch, executor);
+    }
+
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.close();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.retailstore.config;
+
+import com.retailstore.admission.AdmissionControlFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("!reactive")
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionConfig {
+
+    // Runs after Spring Security, so unauthenticated requests never take a slot. Only the per-bill endpoints are
+    // limited, reports and the consistency check are long scans that would read as overload.
+    @Bean
+    @ConditionalOnProperty(name = "retailstore.admission.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(AdmissionProperties properties,
+                                                                                 MeterRegistry registry) {
+        FilterRegistrationBean<AdmissionControlFilter> registration =
+                new FilterRegistrationBean<>(new AdmissionControlFilter(properties, registry));
+        registration.addUrlPatterns("/api/bill", "/api/bill/amount", "/api/bill/amounts", "/api/bill/items",
+                "/api/bill/quote");
+        return registration;
+    }
+}
@@ -0,0 +1,37 @@
+package com.retailstore.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "retailstore.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    // Concurrent bill requests, adjusted between minLimit and maxLimit: one more after a limit's worth of requests
+    // faster than targetLatency, times backoffRatio when one is slower.
+    private int initialLimit = 100;
+
+    private int minLimit = 10;
+
+    private int maxLimit = 1_000;
+
+    private Duration targetLatency = Duration.ofMillis(250);
+
+    private double backoffRatio = 0.9;
+
+    // Requests over the limit wait at most maxWait in a queue of at most maxQueue before they get a 503.
+    private int maxQueue = 50;
+
+    private Duration maxWait = Duration.ofMillis(50);
+
+    // Share of the current limit one user may hold at a time, above it the user gets a 429.
+    private double userShare = 0.25;
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
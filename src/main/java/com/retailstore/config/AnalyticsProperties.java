@@ -0,0 +1,14 @@
+package com.retailstore.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "retailstore.analytics")
+public class AnalyticsProperties {
+
+    // Bills fetched per cursor batch while the snapshot is loaded.
+    private int batchSize = 5_000;
+}
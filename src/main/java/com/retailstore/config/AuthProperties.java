@@ -0,0 +1,22 @@
+package com.retailstore.config;
+
+import com.retailstore.constant.AuthMode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "retailstore.security")
+public class AuthProperties {
+
+    // BASIC checks the BCrypt password on every request, TOKEN only on login and then accepts signed bearer tokens.
+    private AuthMode mode = AuthMode.BASIC;
+
+    private Duration tokenTtl = Duration.ofMinutes(15);
+
+    // HMAC key for the tokens, a random key is generated when empty so tokens do not survive a restart.
+    private String tokenSecret;
+}
@@ -0,0 +1,14 @@
+package com.retailstore.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "retailstore.bill.batch")
+public class BillBatchProperties {
+
+    // Bills per /amounts request, larger batches are answered with 400 before anything is read.
+    private int maxSize = 1_000;
+}
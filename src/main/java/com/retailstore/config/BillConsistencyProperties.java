@@ -0,0 +1,13 @@
+package com.retailstore.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "retailstore.bill.consistency")
+public class BillConsistencyProperties {
+
+    private int batchSize = 500;
+}
@@ -0,0 +1,20 @@
+package com.retailstore.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "retailstore.cache.bill-ids")
+public class BillIdFilterProperties {
+
+    private boolean enabled = true;
+
+    // The filter is sized for at least twice the bills found when it is built, so it stays accurate while they grow.
+    private long expectedBills = 1_000_000;
+
+    private double falsePositiveRate = 0.01;
+
+    private int batchSize = 10_000;
+}
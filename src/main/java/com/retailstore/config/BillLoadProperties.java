@@ -0,0 +1,18 @@
+package com.retailstore.config;
+
+import com.retailstore.constant.BillLoadMode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "retailstore.bill.load")
+public class BillLoadProperties {
+
+    // FULL loads every item, AGGREGATE lets Mongo sum the items,
+    // AUTO only lets Mongo sum bills with at least aggregateMinItems items.
+    private BillLoadMode mode = BillLoadMode.FULL;
+
+    private int aggregateMinItems = 1_000;
+}
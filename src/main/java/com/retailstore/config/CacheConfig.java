@@ -0,0 +1,10 @@
+package com.retailstore.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({UserCacheProperties.class, PayableCacheProperties.class,
+        BillIdFilterProperties.class})
+public class CacheConfig {
+}
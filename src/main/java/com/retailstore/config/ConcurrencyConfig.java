@@ -0,0 +1,20 @@
+package com.retailstore.config;
+
+import com.retailstore.concurrent.FetchExecutor;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+@Configuration
+@Profile("!reactive")
+public class ConcurrencyConfig {
+
+    // With spring.threads.virtual.enabled Tomcat serves requests on virtual threads,
+    // and the bill and the user of a request are fetched concurrently.
+    @Bean
+    public FetchExecutor fetchExecutor(Environment environment) {
+        return Threading.VIRTUAL.isActive(environment) ? FetchExecutor.virtualThreads() : FetchExecutor.inline();
+    }
+}
@@ -0,0 +1,32 @@
+package com.retailstore.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "retailstore.analytics.discounts")
+public class DiscountCounterProperties {
+
+    private boolean enabled = true;
+
+    // Counters are kept per bucket of this length, windows are read in whole buckets.
+    private Duration bucket = Duration.ofMinutes(1);
+
+    // How far back windows can be read in memory.
+    private Duration retention = Duration.ofHours(1);
+
+    // Slots remembering counted bill versions, rounded up to a power of two, so a bill priced again is not counted
+    // twice. Eight bytes each.
+    private int countedBills = 131_072;
+
+    private boolean flushEnabled = true;
+
+    private Duration flushInterval = Duration.ofMinutes(1);
+
+    // Upserts per bulk write.
+    private int flushBatchSize = 500;
+}
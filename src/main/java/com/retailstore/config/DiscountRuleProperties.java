@@ -0,0 +1,18 @@
+package com.retailstore.config;
+
+import com.retailstore.pricing.rule.DiscountRuleDefinition;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "retailstore.discount")
+public class DiscountRuleProperties {
+
+    // Replaces the default rule set when not empty.
+    private List<DiscountRuleDefinition> rules = new ArrayList<>();
+}
@@ -0,0 +1,12 @@
+package com.retailstore.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+// The inmemory profile replaces the Mongo repositories, see application-inmemory.yaml.
+@Configuration
+@Profile("inmemory")
+@EnableConfigurationProperties(InMemoryProperties.class)
+public class InMemoryConfig {
+}
@@ -0,0 +1,26 @@
+package com.retailstore.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "retailstore.memory")
+public class InMemoryProperties {
+
+    // With 0 the repositories are filled from the retailstore.seed files, otherwise with generated bills.
+    private int syntheticBills = 0;
+
+    // Bill n belongs to user (n - 1) % syntheticUsers + 1.
+    private int syntheticUsers = 1_000;
+
+    private int itemsPerBill = 20;
+
+    // Simulates a slow database for overload tests: every read holds one of readConnections for readLatency.
+    private Duration readLatency = Duration.ZERO;
+
+    private int readConnections = 100;
+}
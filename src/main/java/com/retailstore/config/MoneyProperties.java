@@ -0,0 +1,19 @@
+package com.retailstore.config;
+
+import com.retailstore.constant.MoneyFormat;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "retailstore.money")
+public class MoneyProperties {
+
+    // Amounts in responses: DECIMAL writes major units as before, e.g. 610.0, MINOR_UNITS the exact cents, e.g. 61000.
+    private MoneyFormat format = MoneyFormat.DECIMAL;
+
+    // Converts bills stored with decimal prices to minor units on startup, see MoneyMigration. Off by default, it is
+    // meant for one instance started once after the upgrade.
+    private boolean migrate = false;
+}
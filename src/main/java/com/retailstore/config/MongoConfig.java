@@ -0,0 +1,10 @@
+package com.retailstore.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({MongoIndexProperties.class, SeedProperties.class, BillConsistencyProperties.class,
+        AnalyticsProperties.class, DiscountCounterProperties.class})
+public class MongoConfig {
+}
@@ -0,0 +1,14 @@
+package com.retailstore.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "retailstore.mongo.indexes")
+public class MongoIndexProperties {
+
+    // Fails startup when a hot query would scan a whole collection.
+    private boolean verifyQueryPlans = true;
+}
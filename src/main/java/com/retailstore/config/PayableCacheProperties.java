@@ -0,0 +1,19 @@
+package com.retailstore.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "retailstore.cache.payable")
+public class PayableCacheProperties {
+
+    private boolean enabled = true;
+
+    private long maximumSize = 100_000;
+
+    private Duration ttl = Duration.ofMinutes(5);
+}
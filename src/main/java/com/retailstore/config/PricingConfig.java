@@ -0,0 +1,10 @@
+package com.retailstore.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({DiscountRuleProperties.class, BillLoadProperties.class, ReportProperties.class,
+        MoneyProperties.class, BillBatchProperties.class})
+public class PricingConfig {
+}
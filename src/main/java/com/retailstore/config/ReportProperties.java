@@ -0,0 +1,14 @@
+package com.retailstore.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "retailstore.report")
+public class ReportProperties {
+
+    // Bills fetched per cursor batch, their users are looked up together.
+    private int batchSize = 500;
+}
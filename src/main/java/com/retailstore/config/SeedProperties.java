@@ -0,0 +1,31 @@
+package com.retailstore.config;
+
+import com.retailstore.constant.ImportMode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "retailstore.seed")
+public class SeedProperties {
+
+    private boolean enabled = true;
+
+    // Imports on a background thread so the application reports ready without waiting for the seed data.
+    private boolean background = false;
+
+    // INSERT_MISSING only inserts documents whose id is not stored yet, so a restart keeps bills changed through the
+    // API. UPSERT replaces documents by id and keeps everything else, DROP_AND_INSERT recreates the collections.
+    private ImportMode mode = ImportMode.INSERT_MISSING;
+
+    // A JSON array or newline delimited JSON, optionally gzip compressed.
+    private String users = "classpath:mongo-init/users.json";
+
+    private String bills = "classpath:mongo-init/bills.json";
+
+    private int batchSize = 1_000;
+
+    // Progress is logged every progressInterval documents.
+    private long progressInterval = 100_000;
+}
@@ -0,0 +1,7 @@
+package com.retailstore.constant;
+
+public enum BillLoadMode {
+    FULL,
+    AGGREGATE,
+    AUTO,
+}
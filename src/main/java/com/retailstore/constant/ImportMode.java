@@ -0,0 +1,7 @@
+package com.retailstore.constant;
+
+public enum ImportMode {
+    INSERT_MISSING,
+    UPSERT,
+    DROP_AND_INSERT,
+}
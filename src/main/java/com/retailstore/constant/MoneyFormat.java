@@ -0,0 +1,6 @@
+package com.retailstore.constant;
+
+public enum MoneyFormat {
+    DECIMAL,
+    MINOR_UNITS,
+}
@@ -0,0 +1,29 @@
+package com.retailstore.controller;
+
+import com.retailstore.model.response.TokenResponse;
+import com.retailstore.security.TokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Profile("!reactive")
+@ConditionalOnProperty(name = "retailstore.security.mode", havingValue = "TOKEN")
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+public class AuthController {
+
+    private final TokenService tokenService;
+
+    // The password is checked once here by HTTP Basic, later requests only present the token.
+    @PostMapping("/token")
+    public ResponseEntity<TokenResponse> token(Authentication authentication) {
+        return ResponseEntity.ok(new TokenResponse(tokenService.issue(authentication), "Bearer",
+                tokenService.getTtl().toSeconds()));
+    }
+}
@@ -0,0 +1,54 @@
+package com.retailstore.controller;
+
+import com.retailstore.model.response.BillSnapshotResponse;
+import com.retailstore.model.response.DiscountCounterReport;
+import com.retailstore.model.response.DiscountSimulationReport;
+import com.retailstore.pricing.rule.DiscountRuleDefinition;
+import com.retailstore.service.BillAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+public class BillAnalyticsController {
+
+    private final BillAnalyticsService billAnalyticsService;
+
+    @GetMapping("/snapshot")
+    public ResponseEntity<BillSnapshotResponse> snapshot() {
+        return ResponseEntity.ok(billAnalyticsService.getSnapshot());
+    }
+
+    @PostMapping("/snapshot/refresh")
+    public ResponseEntity<BillSnapshotResponse> refreshSnapshot() {
+        return ResponseEntity.ok(billAnalyticsService.refreshSnapshot());
+    }
+
+    // What-if pricing of every bill, with the posted rules or the active ones when there is no body.
+    @PostMapping("/simulation")
+    public ResponseEntity<DiscountSimulationReport> simulate(
+            @RequestBody(required = false) List<DiscountRuleDefinition> rules,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(billAnalyticsService.simulate(rules, date != null ? date : LocalDate.now()));
+    }
+
+    // Live discounts per user type and rule, e.g. window=PT15M. Without a window the whole retention is returned.
+    @GetMapping("/discounts")
+    public ResponseEntity<DiscountCounterReport> discounts(@RequestParam(required = false) Duration window) {
+        return ResponseEntity.ok(billAnalyticsService.getDiscountCounters(window));
+    }
+}
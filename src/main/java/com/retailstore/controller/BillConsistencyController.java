@@ -0,0 +1,31 @@
+package com.retailstore.controller;
+
+import com.retailstore.model.response.BillConsistencyReport;
+import com.retailstore.service.BillConsistencyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/bill/consistency")
+@RequiredArgsConstructor
+public class BillConsistencyController {
+
+    private final BillConsistencyService billConsistencyService;
+
+    @GetMapping
+    public ResponseEntity<BillConsistencyReport> check(@RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(billConsistencyService.check(limit));
+    }
+
+    @PostMapping("/repair")
+    public ResponseEntity<BillConsistencyReport> repair(@RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(billConsistencyService.repair(limit));
+    }
+}
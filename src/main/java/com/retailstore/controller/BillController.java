@@ -1,23 +1,110 @@
 package com.retailstore.controller;
 
+import com.retailstore.config.BillBatchProperties;
+import com.retailstore.config.MoneyProperties;
+import com.retailstore.constant.MoneyFormat;
+import com.retailstore.entity.Item;
+import com.retailstore.metrics.BillingMetrics;
+import com.retailstore.model.request.BillAmountRequest;
+import com.retailstore.model.request.CreateBillRequest;
+import com.retailstore.model.request.QuoteRequest;
+import com.retailstore.model.response.BillPayableResponse;
+import com.retailstore.model.response.BillTotalsResponse;
 import com.retailstore.model.response.PayableResponse;
+import com.retailstore.model.response.QuoteResponse;
+import com.retailstore.pricing.Payable;
+import com.retailstore.pricing.PayableVersion;
 import com.retailstore.service.BillService;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/bill")
 @RequiredArgsConstructor
 public class BillController {
 
     private final BillService billService;
+    private final BillingMetrics billingMetrics;
+    private final MoneyProperties moneyProperties;
+    private final BillBatchProperties billBatchProperties;
 
+    // JSON, Smile or CBOR by the Accept header. A client presenting the ETag of an unchanged amount gets a 304
+    // after a version lookup, the items are neither loaded nor priced.
     @GetMapping("/amount")
-    public ResponseEntity<PayableResponse> netPayableAmount(@RequestParam int billId, @RequestParam int userId) {
-        return ResponseEntity.ok(new PayableResponse(billService.calculateNetPayableAmount(billId, userId)));
+    public ResponseEntity<PayableResponse> netPayableAmount(@RequestParam int billId, @RequestParam int userId,
+                                                            WebRequest request) {
+        Timer.Sample sample = billingMetrics.start();
+        try {
+            MoneyFormat format = moneyProperties.getFormat();
+            if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+                PayableVersion version = billService.findPayableVersion(billId, userId);
+                if (version != null && request.checkNotModified(version.etag(format))) {
+                    return null;
+                }
+            }
+            Payable payable = billService.calculatePayable(billId, userId);
+            return ResponseEntity.ok()
+                    .eTag(payable.version().etag(format))
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(new PayableResponse(payable.netPayableAmount()));
+        } finally {
+            billingMetrics.stopRequest(sample, BillingMetrics.AMOUNT);
+        }
+    }
+
+    @PostMapping("/amounts")
+    public ResponseEntity<List<BillPayableResponse>> netPayableAmounts(@RequestBody List<BillAmountRequest> requests) {
+        if (requests.size() > billBatchProperties.getMaxSize()) {
+            return ResponseEntity.badRequest().build();
+        }
+        Timer.Sample sample = billingMetrics.start();
+        try {
+            return ResponseEntity.ok(billService.calculateNetPayableAmounts(requests));
+        } finally {
+            billingMetrics.stopRequest(sample, BillingMetrics.AMOUNTS);
+        }
+    }
+
+    // Prices a cart that is not stored, for pre-checkout. The same discounts as /amount, broken down by kind.
+    @PostMapping("/quote")
+    public ResponseEntity<QuoteResponse> quote(@RequestBody QuoteRequest request) {
+        Timer.Sample sample = billingMetrics.start();
+        try {
+            return ResponseEntity.ok(QuoteResponse.of(request, billService.quote(request)));
+        } finally {
+            billingMetrics.stopRequest(sample, BillingMetrics.QUOTE);
+        }
+    }
+
+    @PostMapping
+    public ResponseEntity<BillTotalsResponse> createBill(@RequestBody CreateBillRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(billService.createBill(request));
+    }
+
+    @PostMapping("/items")
+    public ResponseEntity<BillTotalsResponse> addItem(@RequestParam long billId, @RequestParam long userId,
+                                                      @RequestBody Item item) {
+        return ResponseEntity.ok(billService.addItem(billId, userId, item));
+    }
+
+    @DeleteMapping("/items")
+    public ResponseEntity<BillTotalsResponse> removeItem(@RequestParam long billId, @RequestParam long userId,
+                                                         @RequestParam long itemId) {
+        return ResponseEntity.ok(billService.removeItem(billId, userId, itemId));
     }
 }
@@ -0,0 +1,17 @@
+package com.retailstore.controller;
+
+import com.retailstore.exception.BillNotFoundException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+// Answered in place without a body, unlike other errors not forwarded to the error page, so probing for bill ids
+// stays as cheap as the lookup. Serves both the servlet and the reactive stack.
+@RestControllerAdvice
+public class NotFoundHandler {
+
+    @ExceptionHandler(BillNotFoundException.class)
+    public ResponseEntity<Void> billNotFound() {
+        return ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.retailstore.controller;
+
+import com.retailstore.config.BillBatchProperties;
+import com.retailstore.model.request.BillAmountRequest;
+import com.retailstore.model.response.BillPayableResponse;
+import com.retailstore.model.response.PayableResponse;
+import com.retailstore.service.ReactiveBillService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/bill")
+@RequiredArgsConstructor
+public class ReactiveBillController {
+
+    private final ReactiveBillService billService;
+    private final BillBatchProperties billBatchProperties;
+
+    @GetMapping("/amount")
+    public Mono<PayableResponse> netPayableAmount(@RequestParam int billId, @RequestParam int userId) {
+        return billService.calculateNetPayableAmount(billId, userId).map(PayableResponse::new);
+    }
+
+    @PostMapping("/amounts")
+    public Flux<BillPayableResponse> netPayableAmounts(@RequestBody List<BillAmountRequest> requests) {
+        if (requests.size() > billBatchProperties.getMaxSize()) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + billBatchProperties.getMaxSize() + " bills per request"));
+        }
+        return billService.calculateNetPayableAmounts(requests);
+    }
+}
@@ -5,7 +5,10 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.util.List;
 
@@ -14,6 +17,7 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "bills")
+@CompoundIndex(name = "userId_id", def = "{'userId': 1, '_id': 1}")
 public class Bill {
 
     @Id
@@ -22,4 +26,21 @@ public class Bill {
     private long userId;
 
     private List<Item> items;
+
+    // Kept in step with items by every write, so a bill can be priced without reading its items.
+    // Null for bills written before the totals were stored. Amounts are minor units.
+    private Integer itemCount;
+
+    @Field("totalCents")
+    private Long totalAmount;
+
+    @Field("groceryCents")
+    private Long groceryAmount;
+
+    @Version
+    private Long version;
+
+    public Bill(long id, long userId, List<Item> items) {
+        this(id, userId, items, null, null, null, null);
+    }
 }
@@ -0,0 +1,24 @@
+package com.retailstore.entity;
+
+import java.util.List;
+
+// A bill reduced to what pricing needs. Items are only present when the bill is priced in the JVM,
+// otherwise totalAmount and groceryAmount hold the sums in minor units computed by Mongo.
+public record BillTotals(long id, long userId, Long version, int itemCount, long totalAmount,
+                         long groceryAmount, List<Item> items) {
+
+    public static BillTotals of(Bill bill) {
+        List<Item> items = bill.getItems() != null ? bill.getItems() : List.of();
+        return new BillTotals(bill.getId(), bill.getUserId(), bill.getVersion(), items.size(), 0, 0, items);
+    }
+
+    // The stored totals of a bill read without its items.
+    public static BillTotals stored(Bill bill) {
+        return new BillTotals(bill.getId(), bill.getUserId(), bill.getVersion(), bill.getItemCount(),
+                bill.getTotalAmount(), bill.getGroceryAmount(), null);
+    }
+
+    public boolean isAggregated() {
+        return items == null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.retailstore.entity;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.retailstore.money.MoneySerializer;
+
+// Stored totals of a bill that disagree with the sums of its items. Stored values are null when never written.
+public record BillTotalsDrift(long id, long userId, Integer storedItemCount, int itemCount,
+                              @JsonSerialize(using = MoneySerializer.class) Long storedTotalAmount,
+                              @JsonSerialize(using = MoneySerializer.class) long totalAmount,
+                              @JsonSerialize(using = MoneySerializer.class) Long storedGroceryAmount,
+                              @JsonSerialize(using = MoneySerializer.class) long groceryAmount) {
+}
@@ -1,12 +1,17 @@
 package com.retailstore.entity;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.retailstore.constant.ItemType;
+import com.retailstore.money.MoneyDeserializer;
+import com.retailstore.money.MoneySerializer;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
 
 @Setter
 @Getter
@@ -18,7 +23,11 @@ public class Item {
     @Id
     private long id;
 
-    private double price;
+    // Minor units, stored under a new name so documents with decimal prices are told apart and migrated.
+    @Field("priceCents")
+    @JsonSerialize(using = MoneySerializer.class)
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private long price;
 
     private ItemType type;
 }
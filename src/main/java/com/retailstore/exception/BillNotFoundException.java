@@ -0,0 +1,10 @@
+package com.retailstore.exception;
+
+// Thrown for every unknown or foreign bill id, which probing clients send by the thousands. Without a stack trace
+// it costs no more than the allocation, the message says all there is to know.
+public class BillNotFoundException extends RuntimeException {
+
+    public BillNotFoundException() {
+        super("Bill not found", null, false, false);
+    }
+}
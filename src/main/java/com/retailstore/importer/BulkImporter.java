@@ -0,0 +1,143 @@
+package com.retailstore.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteResult;
+import com.retailstore.config.SeedProperties;
+import com.retailstore.constant.ImportMode;
+import com.retailstore.mongo.IndexManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toSet;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BulkImporter {
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final SeedProperties properties;
+    private final IndexManager indexManager;
+
+    // Streams the documents of the resource into the collection of the type, only one batch is held in memory.
+    public <T> ImportResult importDocuments(Resource resource, Class<T> type) throws IOException {
+        String collection = mongoTemplate.getCollectionName(type);
+        if (properties.getMode() == ImportMode.DROP_AND_INSERT) {
+            mongoTemplate.dropCollection(type);
+            // Indexed while empty, so a seed running in the background never leaves the collection unindexed.
+            indexManager.ensureIndexes(type);
+        }
+
+        Progress progress = new Progress(collection);
+        List<T> batch = new ArrayList<>(properties.getBatchSize());
+        DocumentReader.read(objectMapper, resource, type, document -> {
+            batch.add(document);
+            if (batch.size() == properties.getBatchSize()) {
+                progress.add(write(batch, type), batch.size());
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            progress.add(write(batch, type), batch.size());
+        }
+
+        ImportResult result = progress.result();
+        log.info("Imported {} documents into {} in {} batches ({} inserted, {} upserted, {} modified) "
+                        + "in {} ms, {} docs/s",
+                result.documents(), collection, result.batches(), result.inserted(), result.upserted(),
+                result.modified(), result.elapsed().toMillis(), Math.round(result.documentsPerSecond()));
+        return result;
+    }
+
+    private <T> BulkWriteResult write(List<T> batch, Class<T> type) {
+        MongoPersistentEntity<?> entity =
+                mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+        switch (properties.getMode()) {
+            case DROP_AND_INSERT -> operations.insert(batch);
+            case INSERT_MISSING -> {
+                List<T> missing = missing(batch, type, entity);
+                if (missing.isEmpty()) {
+                    return BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of());
+                }
+                operations.insert(missing);
+            }
+            case UPSERT -> {
+                for (T document : batch) {
+                    Object id = entity.getIdentifierAccessor(document).getRequiredIdentifier();
+                    operations.replaceOne(Query.query(Criteria.where("_id").is(id)), document,
+                            FindAndReplaceOptions.options().upsert());
+                }
+            }
+        }
+        return operations.execute();
+    }
+
+    // The documents of the batch whose id is not stored yet. Stored documents are left as they are, with their items
+    // and version. Inserts publish an AfterSaveEvent, unlike $setOnInsert upserts, so the caches and the bill id
+    // filter still see the new documents.
+    private <T> List<T> missing(List<T> batch, Class<T> type, MongoPersistentEntity<?> entity) {
+        List<Object> ids = batch.stream()
+                .map(document -> entity.getIdentifierAccessor(document).getRequiredIdentifier())
+                .toList();
+        Query stored = Query.query(Criteria.where("_id").in(ids));
+        stored.fields().include("_id");
+        Set<Object> storedIds = mongoTemplate.find(stored, Document.class, mongoTemplate.getCollectionName(type))
+                .stream()
+                .map(document -> document.get("_id"))
+                .collect(toSet());
+        return batch.stream()
+                .filter(document -> !storedIds.contains(entity.getIdentifierAccessor(document).getRequiredIdentifier()))
+                .toList();
+    }
+
+    private class Progress {
+
+        private final String collection;
+        private final long start = System.nanoTime();
+        private long documents;
+        private long batches;
+        private long inserted;
+        private long upserted;
+        private long modified;
+        private long nextReport = properties.getProgressInterval();
+
+        private Progress(String collection) {
+            this.collection = collection;
+        }
+
+        private void add(BulkWriteResult written, int batchSize) {
+            documents += batchSize;
+            batches++;
+            inserted += written.getInsertedCount();
+            upserted += written.getUpserts().size();
+            modified += written.getModifiedCount();
+            if (documents >= nextReport) {
+                log.info("Imported {} documents into {}, {} docs/s",
+                        documents, collection, Math.round(result().documentsPerSecond()));
+                nextReport += properties.getProgressInterval();
+            }
+        }
+
+        private ImportResult result() {
+            return new ImportResult(collection, documents, batches, inserted, upserted, modified,
+                    Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+}
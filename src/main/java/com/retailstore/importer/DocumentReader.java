@@ -0,0 +1,49 @@
+package com.retailstore.importer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.Resource;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+// Reads seed files document by document: a JSON array or newline delimited JSON, optionally gzip compressed.
+public final class DocumentReader {
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    private DocumentReader() {
+    }
+
+    public static <T> void read(ObjectMapper objectMapper, Resource resource, Class<T> type, Consumer<T> consumer)
+            throws IOException {
+        try (InputStream input = open(resource);
+             JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            // A top level array is a JSON file, a sequence of top level objects is newline delimited JSON.
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token == JsonToken.START_OBJECT) {
+                consumer.accept(objectMapper.readValue(parser, type));
+                token = parser.nextToken();
+            }
+            if (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                throw new IOException("Expected a JSON object in " + resource + " but got " + token);
+            }
+        }
+    }
+
+    private static InputStream open(Resource resource) throws IOException {
+        InputStream input = new BufferedInputStream(resource.getInputStream());
+        input.mark(2);
+        int magic = input.read() | (input.read() << 8);
+        input.reset();
+        return magic == GZIP_MAGIC ? new GZIPInputStream(input, 64 * 1024) : input;
+    }
+}
@@ -0,0 +1,12 @@
+package com.retailstore.importer;
+
+import java.time.Duration;
+
+public record ImportResult(String collection, long documents, long batches, long inserted, long upserted,
+                           long modified, Duration elapsed) {
+
+    public double documentsPerSecond() {
+        long millis = Math.max(elapsed.toMillis(), 1);
+        return documents * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,126 @@
+package com.retailstore.metrics;
+
+import com.retailstore.constant.UserType;
+import com.retailstore.money.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Per-stage meters of the billing pipeline. Repository calls are timed by Spring Data
+// (spring.data.repository.invocations), Mongo commands by the driver (mongodb.driver.commands)
+// and whole requests including serialization by Spring MVC (http.server.requests).
+@Component
+@Profile("!reactive")
+public class BillingMetrics {
+
+    public static final String CACHED = "cached";
+    public static final String COMPUTED = "computed";
+    public static final String ERROR = "error";
+
+    public static final String AMOUNT = "amount";
+    public static final String AMOUNTS = "amounts";
+    public static final String QUOTE = "quote";
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> payable = new HashMap<>();
+    private final Map<String, Timer> requests = new HashMap<>();
+    private final Timer fetch;
+    private final Timer discount;
+    private final Map<UserType, DistributionSummary> billItems = new EnumMap<>(UserType.class);
+    private final Map<UserType, DistributionSummary> discountAmounts = new EnumMap<>(UserType.class);
+    private final Counter batchSuccesses;
+    private final Counter batchFailures;
+
+    // Only the pricing timers publish percentile histograms, every other meter exports count, sum and max without
+    // a series per bucket.
+    public BillingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (String outcome : List.of(CACHED, COMPUTED, ERROR)) {
+            payable.put(outcome, Timer.builder("retailstore.bill.payable")
+                    .description("Net payable amount of a single bill")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for (String endpoint : List.of(AMOUNT, AMOUNTS, QUOTE)) {
+            requests.put(endpoint, Timer.builder("retailstore.bill.controller")
+                    .description("Bill controller call, without serializing the response")
+                    .tag("endpoint", endpoint)
+                    .register(registry));
+        }
+        fetch = Timer.builder("retailstore.bill.fetch")
+                .description("Loading the bill and its user")
+                .register(registry);
+        discount = Timer.builder("retailstore.bill.discount")
+                .description("Summing the items and applying the discount rules")
+                .publishPercentileHistogram()
+                .register(registry);
+        for (UserType userType : UserType.values()) {
+            billItems.put(userType, DistributionSummary.builder("retailstore.bill.items")
+                    .description("Items per priced bill")
+                    .tag("userType", userType.name())
+                    .register(registry));
+            discountAmounts.put(userType, DistributionSummary.builder("retailstore.bill.discount.amount")
+                    .description("Discount given per priced bill")
+                    .tag("userType", userType.name())
+                    .register(registry));
+        }
+        batchSuccesses = batchResults("success");
+        batchFailures = batchResults("failure");
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    // Outcome is CACHED, COMPUTED or ERROR.
+    public void stopPayable(Timer.Sample sample, String outcome) {
+        sample.stop(payable.get(outcome));
+    }
+
+    // Endpoint is AMOUNT, AMOUNTS or QUOTE.
+    public void stopRequest(Timer.Sample sample, String endpoint) {
+        sample.stop(requests.get(endpoint));
+    }
+
+    public <T> T timeFetch(Supplier<T> fetch) {
+        return this.fetch.record(fetch);
+    }
+
+    public long timeDiscount(LongSupplier calculation) {
+        return discount.record(calculation);
+    }
+
+    public void stopDiscount(Timer.Sample sample) {
+        sample.stop(discount);
+    }
+
+    // The discount is in minor units and recorded in major units.
+    public void recordBill(UserType userType, int items, long discountAmount) {
+        if (userType != null) {
+            billItems.get(userType).record(items);
+            discountAmounts.get(userType).record(Money.toMajor(discountAmount));
+        }
+    }
+
+    public void countBatchResult(boolean success) {
+        (success ? batchSuccesses : batchFailures).increment();
+    }
+
+    private Counter batchResults(String outcome) {
+        return Counter.builder("retailstore.bill.batch.results")
+                .description("Bills priced in batch requests")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
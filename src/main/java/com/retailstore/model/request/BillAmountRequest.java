@@ -0,0 +1,17 @@
+package com.retailstore.model.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BillAmountRequest {
+
+    private long billId;
+
+    private long userId;
+}
@@ -0,0 +1,22 @@
+package com.retailstore.model.request;
+
+import com.retailstore.entity.Item;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CreateBillRequest {
+
+    private long id;
+
+    private long userId;
+
+    private List<Item> items;
+}
@@ -0,0 +1,25 @@
+package com.retailstore.model.request;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// A cart priced before it is stored as a bill. The items are summed while the body is read and not kept, see
+// QuoteRequestDeserializer. Amounts are minor units.
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonDeserialize(using = QuoteRequestDeserializer.class)
+public class QuoteRequest {
+
+    private long userId;
+
+    private int itemCount;
+
+    private long totalAmount;
+
+    private long groceryAmount;
+}
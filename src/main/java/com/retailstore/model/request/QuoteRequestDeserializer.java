@@ -0,0 +1,119 @@
+package com.retailstore.model.request;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.retailstore.constant.ItemType;
+import com.retailstore.money.Money;
+import com.retailstore.money.MoneyDeserializer;
+
+import java.io.IOException;
+
+// Reads {"userId": 1, "items": [{"type": "GROCERY", "price": 199.99}, ...]} straight into the sums, so a quote
+// allocates no Item, String or BigDecimal per item. Other fields, like an item id, are skipped. Prices that are not
+// plain decimals are left to MoneyDeserializer.
+public class QuoteRequestDeserializer extends StdDeserializer<QuoteRequest> {
+
+    private static final ItemType[] ITEM_TYPES = ItemType.values();
+
+    private final MoneyDeserializer moneyDeserializer = new MoneyDeserializer();
+
+    public QuoteRequestDeserializer() {
+        super(QuoteRequest.class);
+    }
+
+    @Override
+    public QuoteRequest deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.isExpectedStartObjectToken()) {
+            return (QuoteRequest) context.handleUnexpectedToken(QuoteRequest.class, parser);
+        }
+        QuoteRequest request = new QuoteRequest();
+        for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+            parser.nextToken();
+            switch (field) {
+                case "userId" -> request.setUserId(_parseLongPrimitive(parser, context));
+                case "items" -> readItems(parser, context, request);
+                default -> parser.skipChildren();
+            }
+        }
+        return request;
+    }
+
+    private void readItems(JsonParser parser, DeserializationContext context, QuoteRequest request)
+            throws IOException {
+        if (!parser.isExpectedStartArrayToken()) {
+            context.handleUnexpectedToken(QuoteRequest.class, parser);
+            return;
+        }
+        int itemCount = 0;
+        long totalAmount = 0;
+        long groceryAmount = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (!parser.isExpectedStartObjectToken()) {
+                context.handleUnexpectedToken(QuoteRequest.class, parser);
+                return;
+            }
+            ItemType type = null;
+            long price = -1;
+            for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+                parser.nextToken();
+                switch (field) {
+                    case "type" -> type = itemType(parser, context);
+                    case "price" -> price = price(parser, context);
+                    default -> parser.skipChildren();
+                }
+            }
+            if (type == null || price < 0) {
+                context.reportInputMismatch(QuoteRequest.class,
+                        "Item %d needs a type and a non-negative price", itemCount);
+            }
+            itemCount++;
+            totalAmount = Math.addExact(totalAmount, price);
+            if (type == ItemType.GROCERY) {
+                groceryAmount += price;
+            }
+        }
+        request.setItemCount(itemCount);
+        request.setTotalAmount(totalAmount);
+        request.setGroceryAmount(groceryAmount);
+    }
+
+    // Compares the characters of the token with the names instead of creating a String to look up.
+    private static ItemType itemType(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            return (ItemType) context.handleUnexpectedToken(ItemType.class, parser);
+        }
+        char[] text = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int length = parser.getTextLength();
+        for (ItemType type : ITEM_TYPES) {
+            String name = type.name();
+            if (name.length() == length && matches(name, text, offset)) {
+                return type;
+            }
+        }
+        return (ItemType) context.handleWeirdStringValue(ItemType.class, parser.getText(),
+                "not one of the item types");
+    }
+
+    private static boolean matches(String name, char[] text, int offset) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != text[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long price(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            long price = Money.parseMajor(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            if (price != Money.NOT_PLAIN) {
+                return price;
+            }
+        }
+        return moneyDeserializer.deserialize(parser, context);
+    }
+}
@@ -0,0 +1,25 @@
+package com.retailstore.model.response;
+
+import com.retailstore.entity.BillTotalsDrift;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BillConsistencyReport {
+
+    // Number of bills whose stored totals are missing or drifted.
+    private long drifted;
+
+    // Bills changed by a repair, 0 for a check only.
+    private long repaired;
+
+    // The first drifted bills, up to the requested limit.
+    private List<BillTotalsDrift> drifts;
+}
@@ -0,0 +1,34 @@
+package com.retailstore.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.retailstore.money.MoneySerializer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BillPayableResponse {
+
+    private long billId;
+
+    private long userId;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private Long netPayableAmount;
+
+    private String error;
+
+    public static BillPayableResponse success(long billId, long userId, long netPayableAmount) {
+        return new BillPayableResponse(billId, userId, netPayableAmount, null);
+    }
+
+    public static BillPayableResponse failure(long billId, long userId, String error) {
+        return new BillPayableResponse(billId, userId, null, error);
+    }
+}
@@ -0,0 +1,56 @@
+package com.retailstore.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.retailstore.constant.UserType;
+import com.retailstore.money.MoneySerializer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BillReportLine {
+
+    public static final String BILL = "bill";
+    public static final String TOTAL = "total";
+
+    // "bill" for a single bill, "total" for the sum over all bills of a user type.
+    private String record;
+
+    private Long billId;
+
+    private Long userId;
+
+    private UserType userType;
+
+    private Long bills;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long grossAmount;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long groceryAmount;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long discountAmount;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long netPayableAmount;
+
+    public static BillReportLine bill(long billId, long userId, UserType userType, long grossAmount,
+                                      long groceryAmount, long netPayableAmount) {
+        return new BillReportLine(BILL, billId, userId, userType, null, grossAmount, groceryAmount,
+                grossAmount - netPayableAmount, netPayableAmount);
+    }
+
+    public static BillReportLine total(UserType userType, long bills, long grossAmount, long groceryAmount,
+                                       long discountAmount, long netPayableAmount) {
+        return new BillReportLine(TOTAL, null, null, userType, bills, grossAmount, groceryAmount,
+                discountAmount, netPayableAmount);
+    }
+}
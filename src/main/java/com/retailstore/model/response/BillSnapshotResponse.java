@@ -0,0 +1,23 @@
+package com.retailstore.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BillSnapshotResponse {
+
+    private int bills;
+
+    private int items;
+
+    private long sizeInBytes;
+
+    private Instant loadedAt;
+}
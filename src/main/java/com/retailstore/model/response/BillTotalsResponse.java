@@ -0,0 +1,35 @@
+package com.retailstore.model.response;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.retailstore.entity.BillTotals;
+import com.retailstore.money.MoneySerializer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BillTotalsResponse {
+
+    private long billId;
+
+    private long userId;
+
+    private Long version;
+
+    private int itemCount;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long totalAmount;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long groceryAmount;
+
+    public static BillTotalsResponse of(BillTotals bill) {
+        return new BillTotalsResponse(bill.id(), bill.userId(), bill.version(), bill.itemCount(), bill.totalAmount(),
+                bill.groceryAmount());
+    }
+}
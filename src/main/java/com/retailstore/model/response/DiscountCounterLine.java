@@ -0,0 +1,44 @@
+package com.retailstore.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.retailstore.constant.UserType;
+import com.retailstore.money.MoneySerializer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DiscountCounterLine {
+
+    public static final String TOTAL = "total";
+    public static final String RULE = "rule";
+
+    // "total" for every bill of a user type, "rule" for the bills of the user type a rule discounted.
+    private String record;
+
+    private UserType userType;
+
+    private String rule;
+
+    private long bills;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private Long totalAmount;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long discountAmount;
+
+    public static DiscountCounterLine total(UserType userType, long bills, long totalAmount, long discountAmount) {
+        return new DiscountCounterLine(TOTAL, userType, null, bills, totalAmount, discountAmount);
+    }
+
+    public static DiscountCounterLine rule(UserType userType, String rule, long bills, long discountAmount) {
+        return new DiscountCounterLine(RULE, userType, rule, bills, null, discountAmount);
+    }
+}
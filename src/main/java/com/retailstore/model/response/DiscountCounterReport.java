@@ -0,0 +1,24 @@
+package com.retailstore.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DiscountCounterReport {
+
+    // Start of the first bucket in the window.
+    private Instant from;
+
+    private Instant to;
+
+    // Per user type a "total" line followed by one "rule" line per rule that granted a discount.
+    private List<DiscountCounterLine> lines;
+}
@@ -0,0 +1,29 @@
+package com.retailstore.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DiscountSimulationReport {
+
+    // When the simulated bills were loaded from Mongo.
+    private Instant snapshotLoadedAt;
+
+    private long bills;
+
+    // Bills whose user was not found, they are not in the totals.
+    private long unpriced;
+
+    private long elapsedMillis;
+
+    // One "total" line per user type.
+    private List<BillReportLine> totals;
+}
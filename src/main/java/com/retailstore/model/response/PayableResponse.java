@@ -1,6 +1,8 @@
 package com.retailstore.model.response;
 
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.retailstore.money.MoneySerializer;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -12,5 +14,7 @@ import lombok.Setter;
 @NoArgsConstructor
 public class PayableResponse {
 
-    private double netPayableAmount;
+    // Minor units, written in the configured retailstore.money.format.
+    @JsonSerialize(using = MoneySerializer.class)
+    private long netPayableAmount;
 }
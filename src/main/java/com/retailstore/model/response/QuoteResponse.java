@@ -0,0 +1,39 @@
+package com.retailstore.model.response;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.retailstore.model.request.QuoteRequest;
+import com.retailstore.money.MoneySerializer;
+import com.retailstore.pricing.DiscountBreakdown;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuoteResponse {
+
+    private long userId;
+
+    private int itemCount;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long totalAmount;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long percentageDiscount;
+
+    // Discounts per full step of the amount, e.g. 5 for every 100.
+    @JsonSerialize(using = MoneySerializer.class)
+    private long stepDiscount;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long netPayableAmount;
+
+    public static QuoteResponse of(QuoteRequest request, DiscountBreakdown breakdown) {
+        return new QuoteResponse(request.getUserId(), request.getItemCount(), breakdown.totalAmount(),
+                breakdown.percentageDiscount(), breakdown.stepDiscount(), breakdown.netPayableAmount());
+    }
+}
@@ -0,0 +1,19 @@
+package com.retailstore.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenResponse {
+
+    private String accessToken;
+
+    private String tokenType;
+
+    private long expiresIn;
+}
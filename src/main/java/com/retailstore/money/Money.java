@@ -0,0 +1,112 @@
+package com.retailstore.money;
+
+import com.retailstore.constant.MoneyFormat;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Amounts are held as long minor units (cents) of a currency with SCALE decimal places,
+// so sums and discounts are exact integer arithmetic. Decimals are only used at the edges.
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    // Minor units in one major unit.
+    public static final long ONE = 100;
+
+    // Percentages are compiled to parts per million of an amount.
+    public static final long PPM = 1_000_000;
+
+    // Returned by parseMajor for text it leaves to ofMajor(BigDecimal).
+    public static final long NOT_PLAIN = Long.MIN_VALUE;
+
+    // Sixteen digits still fit a long after scaling to minor units.
+    private static final int MAX_PLAIN_DIGITS = 16;
+
+    private Money() {
+    }
+
+    // Throws ArithmeticException for amounts with more than SCALE decimals or out of the long range.
+    public static long ofMajor(BigDecimal amount) {
+        return amount.movePointRight(SCALE).longValueExact();
+    }
+
+    // For configuration and documents that held decimal doubles, e.g. 0.1 is 10 and not 10.000000000000002.
+    public static long ofMajor(double amount) {
+        return ofMajor(BigDecimal.valueOf(amount));
+    }
+
+    // Reads a plain decimal in major units like 199.99 or -5 without allocating. Exponents, signs other than a
+    // leading minus, more than SCALE decimals or more than MAX_PLAIN_DIGITS digits give NOT_PLAIN.
+    public static long parseMajor(char[] text, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = i < end && text[i] == '-';
+        if (negative) {
+            i++;
+        }
+        long units = 0;
+        int digits = 0;
+        int decimals = -1;
+        for (; i < end; i++) {
+            char c = text[i];
+            if (c == '.' && decimals < 0) {
+                decimals = 0;
+                continue;
+            }
+            if (c < '0' || c > '9' || ++digits > MAX_PLAIN_DIGITS || (decimals >= 0 && ++decimals > SCALE)) {
+                return NOT_PLAIN;
+            }
+            units = units * 10 + (c - '0');
+        }
+        if (digits == 0) {
+            return NOT_PLAIN;
+        }
+        for (int scale = Math.max(decimals, 0); scale < SCALE; scale++) {
+            units *= 10;
+        }
+        return negative ? -units : units;
+    }
+
+    public static double toMajor(long minorUnits) {
+        return minorUnits / (double) ONE;
+    }
+
+    // The scale of BigDecimal.valueOf(toMajor(minorUnits)) without allocating, exact below 10^13 major units. The
+    // shortest decimal of the double keeps one or two decimals below 10^7, e.g. 850.0, and has an exponent from
+    // there on, e.g. 1.0E7 has scale -6.
+    public static int decimalScale(long minorUnits) {
+        long digits = Math.abs(minorUnits);
+        if (digits == 0) {
+            return 1;
+        }
+        int zeros = 0;
+        while (digits % 10 == 0) {
+            digits /= 10;
+            zeros++;
+        }
+        if (Math.abs(minorUnits) < 10_000_000 * ONE) {
+            return Math.max(1, SCALE - zeros);
+        }
+        int length = 1;
+        for (long rest = digits; rest >= 10; rest /= 10) {
+            length++;
+        }
+        int exponent = length - 1 + zeros - SCALE;
+        return Math.max(1, length - 1) - exponent;
+    }
+
+    // DECIMAL prints the nearest double like the amounts were printed before minor units, e.g. 610.0.
+    public static String toString(long minorUnits, MoneyFormat format) {
+        return format == MoneyFormat.MINOR_UNITS ? Long.toString(minorUnits) : Double.toString(toMajor(minorUnits));
+    }
+
+    public static long partsPerMillion(double fraction) {
+        return BigDecimal.valueOf(fraction).movePointRight(6).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    // The share of a non-negative amount, rounded half up to whole minor units.
+    public static long share(long amount, long partsPerMillion) {
+        return (Math.multiplyExact(amount, partsPerMillion) + PPM / 2) / PPM;
+    }
+}
@@ -0,0 +1,31 @@
+package com.retailstore.money;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+// Reads a decimal amount in major units, e.g. 199.99, exactly into minor units. Request bodies and seed files
+// always use major units, whatever retailstore.money.format is.
+public class MoneyDeserializer extends StdDeserializer<Long> {
+
+    public MoneyDeserializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        BigDecimal amount = parser.currentToken() == JsonToken.VALUE_STRING
+                ? new BigDecimal(parser.getText().trim())
+                : parser.getDecimalValue();
+        try {
+            return Money.ofMajor(amount);
+        } catch (ArithmeticException e) {
+            return (Long) context.handleWeirdNumberValue(Long.class, amount,
+                    "amounts have at most %d decimals", Money.SCALE);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.retailstore.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.retailstore.config.MoneyProperties;
+import com.retailstore.constant.MoneyFormat;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+
+// Writes minor units in the configured retailstore.money.format. Spring's ObjectMapper creates it with the
+// properties, a plain ObjectMapper with the no-argument constructor and DECIMAL.
+public class MoneySerializer extends StdSerializer<Long> {
+
+    private final MoneyFormat format;
+
+    public MoneySerializer() {
+        this(MoneyFormat.DECIMAL);
+    }
+
+    @Autowired
+    public MoneySerializer(MoneyProperties properties) {
+        this(properties.getFormat());
+    }
+
+    public MoneySerializer(MoneyFormat format) {
+        super(Long.class);
+        this.format = format;
+    }
+
+    @Override
+    public void serialize(Long minorUnits, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (format == MoneyFormat.MINOR_UNITS) {
+            generator.writeNumber(minorUnits.longValue());
+        } else {
+            generator.writeNumber(Money.toMajor(minorUnits));
+        }
+    }
+}
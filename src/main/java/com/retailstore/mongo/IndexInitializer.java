@@ -0,0 +1,25 @@
+package com.retailstore.mongo;
+
+import com.retailstore.DatabaseSeeder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Creates the indexes and checks the query plans on every startup against Mongo, whether or not the database is
+// seeded, after a foreground seed. A failed check is thrown from the ready event and fails startup.
+@Component
+@Profile("!inmemory")
+@Order(DatabaseSeeder.ORDER + 1)
+@RequiredArgsConstructor
+public class IndexInitializer implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final IndexManager indexManager;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        indexManager.ensureIndexes();
+    }
+}
@@ -0,0 +1,93 @@
+package com.retailstore.mongo;
+
+import com.mongodb.ExplainVerbosity;
+import com.retailstore.config.MongoIndexProperties;
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.User;
+import com.retailstore.repository.BillTotalsRepositoryImpl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndexManager {
+
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(Bill.class, User.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoIndexProperties properties;
+
+    // Indexes are declared on the entities, e.g. @CompoundIndex on Bill, and created here because automatic index
+    // creation is off. Runs on every startup against Mongo, see IndexInitializer.
+    public void ensureIndexes() {
+        INDEXED_ENTITIES.forEach(this::ensureIndexes);
+        if (properties.isVerifyQueryPlans()) {
+            verifyQueryPlans();
+        }
+    }
+
+    // Also called when a seed drops the collection of the entity, dropping it drops its indexes.
+    public void ensureIndexes(Class<?> entity) {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        IndexOperations indexOperations = mongoTemplate.indexOps(entity);
+        resolver.resolveIndexFor(entity).forEach(indexOperations::ensureIndex);
+    }
+
+    public void verifyQueryPlans() {
+        List<String> collectionScans = explainHotQueries().entrySet().stream()
+                .filter(query -> QueryPlans.hasCollectionScan(query.getValue().get()))
+                .map(Map.Entry::getKey)
+                .toList();
+        if (!collectionScans.isEmpty()) {
+            throw new IllegalStateException("Queries scanning a whole collection: " + collectionScans);
+        }
+        log.info("Verified query plans, no collection scans");
+    }
+
+    // The queries issued on every bill request, keyed by the repository method issuing them.
+    private Map<String, Supplier<Document>> explainHotQueries() {
+        String bills = mongoTemplate.getCollectionName(Bill.class);
+        String users = mongoTemplate.getCollectionName(User.class);
+
+        Map<String, Supplier<Document>> queries = new LinkedHashMap<>();
+        queries.put("BillRepository.findByIdAndUserId",
+                () -> explainFind(bills, new Document("_id", 1L).append("userId", 1L)));
+        queries.put("BillRepository.findByIdIn",
+                () -> explainFind(bills, new Document("_id", new Document("$in", List.of(1L, 2L)))));
+        queries.put("BillRepository.findTotalsByIdAndUserId",
+                () -> explainAggregate(BillTotalsRepositoryImpl.totals(
+                        Criteria.where("id").is(1L).and("userId").is(1L), 0)));
+        queries.put("BillRepository.findTotalsByIdIn",
+                () -> explainAggregate(BillTotalsRepositoryImpl.totals(
+                        Criteria.where("id").in(List.of(1L, 2L)), 0)));
+        queries.put("UserRepository.findById",
+                () -> explainFind(users, new Document("_id", 1L)));
+        queries.put("UserRepository.findAllById",
+                () -> explainFind(users, new Document("_id", new Document("$in", List.of(1L, 2L)))));
+        return queries;
+    }
+
+    private Document explainFind(String collection, Document filter) {
+        return mongoTemplate.getCollection(collection).find(filter).explain(ExplainVerbosity.QUERY_PLANNER);
+    }
+
+    private Document explainAggregate(Aggregation aggregation) {
+        Aggregation explained = aggregation.withOptions(AggregationOptions.builder().explain(true).build());
+        return mongoTemplate.aggregate(explained, Bill.class, Document.class).getRawResults();
+    }
+}
@@ -0,0 +1,27 @@
+package com.retailstore.mongo;
+
+import com.retailstore.repository.BillRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Converts bills written before amounts were stored in minor units. A one-off step: started with
+// retailstore.money.migrate=true on a single instance, it runs once the context is up and before the application
+// reports ready. Replicas started without it skip the scan.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "retailstore.money.migrate", havingValue = "true")
+@RequiredArgsConstructor
+public class MoneyMigration implements ApplicationRunner {
+
+    private final BillRepository billRepository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long converted = billRepository.convertDecimalAmounts();
+        log.info("Converted {} bills from decimal amounts to minor units", converted);
+    }
+}
@@ -0,0 +1,41 @@
+package com.retailstore.mongo;
+
+import org.bson.Document;
+
+import java.util.List;
+import java.util.Map;
+
+public final class QueryPlans {
+
+    private QueryPlans() {
+    }
+
+    // Walks the whole explain output, so classic, slot based engine and aggregation ($cursor) plans are covered.
+    // Rejected plans are skipped, only the plan that actually runs matters.
+    public static boolean hasCollectionScan(Document explain) {
+        return containsCollectionScan(explain);
+    }
+
+    private static boolean containsCollectionScan(Object node) {
+        if (node instanceof Map<?, ?> map) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if ("rejectedPlans".equals(entry.getKey())) {
+                    continue;
+                }
+                if ("stage".equals(entry.getKey()) && "COLLSCAN".equals(entry.getValue())) {
+                    return true;
+                }
+                if (containsCollectionScan(entry.getValue())) {
+                    return true;
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object element : list) {
+                if (containsCollectionScan(element)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
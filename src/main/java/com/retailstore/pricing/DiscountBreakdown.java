@@ -0,0 +1,9 @@
+package com.retailstore.pricing;
+
+// The discounts a schedule grants on a total, split into percentage and step rules. Amounts are minor units.
+public record DiscountBreakdown(long totalAmount, long percentageDiscount, long stepDiscount) {
+
+    public long netPayableAmount() {
+        return totalAmount - percentageDiscount - stepDiscount;
+    }
+}
@@ -0,0 +1,5 @@
+package com.retailstore.pricing;
+
+// A net payable amount in minor units with the versions it was priced from.
+public record Payable(long netPayableAmount, PayableVersion version) {
+}
@@ -0,0 +1,26 @@
+package com.retailstore.pricing;
+
+import com.retailstore.constant.MoneyFormat;
+
+import java.time.LocalDate;
+
+// Everything a net payable amount is derived from. validUntil is the day the user's tenure discounts change,
+// null when they never do. contentHash covers the priced sums of the bill, so a bill written again with a reset
+// version, e.g. by a re-import, still gets a new entity tag.
+public record PayableVersion(long billId, Long billVersion, long contentHash, long userId, Long userVersion,
+                             long rulesFingerprint, LocalDate validUntil) {
+
+    // Strong entity tag of the amount as written in the format, unquoted.
+    public String etag(MoneyFormat format) {
+        return billId + "." + billVersion + "." + Long.toHexString(contentHash) + "-" + userId + "." + userVersion
+                + "-" + Long.toHexString(rulesFingerprint) + "-" + (validUntil != null ? validUntil.toEpochDay() : "")
+                + "-" + format.ordinal();
+    }
+
+    public static long contentHash(long totalAmount, long groceryAmount) {
+        long hash = totalAmount * 0x9E3779B97F4A7C15L + groceryAmount;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        return hash ^ (hash >>> 33);
+    }
+}
@@ -0,0 +1,17 @@
+package com.retailstore.pricing;
+
+import com.retailstore.constant.UserType;
+import com.retailstore.pricing.rule.DiscountSchedule;
+
+// Told about every stored bill priced for its owner, with the sums and schedule the amount came from. Amounts are
+// minor units. Called on the pricing thread, so it must not block.
+@FunctionalInterface
+public interface PricedBillListener {
+
+    PricedBillListener NONE = (billId, billVersion, userType, schedule, itemCount, totalAmount, groceryAmount,
+                               netPayableAmount) -> {
+    };
+
+    void priced(long billId, Long billVersion, UserType userType, DiscountSchedule schedule, int itemCount,
+                long totalAmount, long groceryAmount, long netPayableAmount);
+}
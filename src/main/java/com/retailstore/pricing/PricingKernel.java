@@ -0,0 +1,98 @@
+package com.retailstore.pricing;
+
+import com.retailstore.constant.UserType;
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.BillTotals;
+import com.retailstore.entity.Item;
+import com.retailstore.entity.User;
+import com.retailstore.pricing.rule.DiscountRuleTable;
+import com.retailstore.pricing.rule.DiscountSchedule;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+
+import static com.retailstore.constant.ItemType.GROCERY;
+
+// Amounts are minor units, see Money.
+public final class PricingKernel {
+
+    private PricingKernel() {
+    }
+
+    public static long netPayableAmount(Bill bill, User user, DiscountRuleTable rules, LocalDate today) {
+        return netPayableAmount(bill.getItems(), rules.schedule(user.getType(), user.getCreatedAt(), today));
+    }
+
+    public static long netPayableAmount(BillTotals bill, User user, DiscountRuleTable rules, LocalDate today) {
+        return netPayableAmount(bill, user, rules, today, PricedBillListener.NONE);
+    }
+
+    // Shared by the servlet and the reactive bill services so both stacks price a stored bill identically and tell
+    // the listener, e.g. the discount counters, about it the same way.
+    public static long netPayableAmount(BillTotals bill, User user, DiscountRuleTable rules, LocalDate today,
+                                        PricedBillListener listener) {
+        DiscountSchedule schedule = rules.schedule(user.getType(), user.getCreatedAt(), today);
+        if (!bill.isAggregated()) {
+            return netPayableAmount(bill.id(), bill.version(), user.getType(), bill.items(), schedule, listener);
+        }
+        long netPayableAmount = schedule.netPayableAmount(bill.totalAmount(), bill.groceryAmount());
+        listener.priced(bill.id(), bill.version(), user.getType(), schedule, bill.itemCount(), bill.totalAmount(),
+                bill.groceryAmount(), netPayableAmount);
+        return netPayableAmount;
+    }
+
+    public static long netPayableAmount(List<Item> items, DiscountSchedule schedule) {
+        return netPayableAmount(0, null, null, items, schedule, PricedBillListener.NONE);
+    }
+
+    // One pass into primitive sums. A random access list is read by index, so pricing allocates nothing, whether or
+    // not escape analysis would have removed a holder.
+    private static long netPayableAmount(long billId, Long billVersion, UserType userType, List<Item> items,
+                                         DiscountSchedule schedule, PricedBillListener listener) {
+        long total = 0;
+        long grocery = 0;
+
+        boolean randomAccess = items instanceof RandomAccess;
+        int size = items.size();
+        Iterator<Item> iterator = randomAccess ? null : items.iterator();
+        for (int i = 0; i < size; i++) {
+            Item item = randomAccess ? items.get(i) : iterator.next();
+            long price = item.getPrice();
+            total += price;
+            if (GROCERY == item.getType()) {
+                grocery += price;
+            }
+        }
+
+        long netPayableAmount = schedule.netPayableAmount(total, grocery);
+        listener.priced(billId, billVersion, userType, schedule, size, total, grocery, netPayableAmount);
+        return netPayableAmount;
+    }
+
+    // The total and grocery amounts of the bill, summed here unless Mongo already did. A new BillTotals for a bill of
+    // items, pricing alone goes through netPayableAmount.
+    public static BillTotals sum(BillTotals bill) {
+        return bill.isAggregated() ? bill : sum(bill.id(), bill.userId(), bill.version(), bill.items());
+    }
+
+    private static BillTotals sum(long id, long userId, Long version, List<Item> items) {
+        long total = 0;
+        long grocery = 0;
+
+        boolean randomAccess = items instanceof RandomAccess;
+        int size = items.size();
+        Iterator<Item> iterator = randomAccess ? null : items.iterator();
+        for (int i = 0; i < size; i++) {
+            Item item = randomAccess ? items.get(i) : iterator.next();
+            long price = item.getPrice();
+            total += price;
+            if (GROCERY == item.getType()) {
+                grocery += price;
+            }
+        }
+
+        return new BillTotals(id, userId, version, size, total, grocery, null);
+    }
+}
@@ -0,0 +1,43 @@
+package com.retailstore.pricing.rule;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.retailstore.constant.ItemType.OTHER;
+import static com.retailstore.constant.UserType.AFFILIATE;
+import static com.retailstore.constant.UserType.CUSTOMER;
+import static com.retailstore.constant.UserType.EMPLOYEE;
+
+public final class DefaultDiscountRules {
+
+    public static final String EMPLOYEE_RULE = "employee";
+    public static final String AFFILIATE_RULE = "affiliate";
+    public static final String LOYAL_CUSTOMER_RULE = "loyal-customer";
+    public static final String BULK_RULE = "bulk";
+
+    private DefaultDiscountRules() {
+    }
+
+    // The percentage based discounts do not apply on groceries.
+    // Every $100 on the bill, there would be a $ 5 discount.
+    public static List<DiscountRule> get() {
+        return List.of(
+                DiscountRuleDefinition.builder()
+                        .id(EMPLOYEE_RULE).userTypes(Set.of(EMPLOYEE)).itemTypes(Set.of(OTHER))
+                        .percentage(0.30)
+                        .build(),
+                DiscountRuleDefinition.builder()
+                        .id(AFFILIATE_RULE).userTypes(Set.of(AFFILIATE)).itemTypes(Set.of(OTHER))
+                        .percentage(0.10)
+                        .build(),
+                DiscountRuleDefinition.builder()
+                        .id(LOYAL_CUSTOMER_RULE).userTypes(Set.of(CUSTOMER)).itemTypes(Set.of(OTHER))
+                        .minTenureYears(2).percentage(0.05)
+                        .build(),
+                DiscountRuleDefinition.builder()
+                        .id(BULK_RULE)
+                        .step(100).stepDiscount(5)
+                        .build()
+        );
+    }
+}
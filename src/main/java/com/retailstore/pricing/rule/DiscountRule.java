@@ -0,0 +1,32 @@
+package com.retailstore.pricing.rule;
+
+import com.retailstore.constant.ItemType;
+import com.retailstore.constant.UserType;
+
+import java.util.Set;
+
+// Amounts are configured in major units, e.g. 100 for $100.
+public interface DiscountRule {
+
+    String getId();
+
+    // Empty means every user type.
+    Set<UserType> getUserTypes();
+
+    // Items whose amount the discount is computed on, empty means every item.
+    Set<ItemType> getItemTypes();
+
+    // Account must be older than this many years, 0 for no tenure condition.
+    int getMinTenureYears();
+
+    // Bill total from which the rule applies.
+    double getMinAmount();
+
+    // Fraction of the matching amount, used when no step is set.
+    double getPercentage();
+
+    // When positive, a fixed stepDiscount is given for every full step of the matching amount.
+    double getStep();
+
+    double getStepDiscount();
+}
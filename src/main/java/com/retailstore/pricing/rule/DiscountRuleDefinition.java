@@ -0,0 +1,38 @@
+package com.retailstore.pricing.rule;
+
+import com.retailstore.constant.ItemType;
+import com.retailstore.constant.UserType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DiscountRuleDefinition implements DiscountRule {
+
+    private String id;
+
+    @Builder.Default
+    private Set<UserType> userTypes = new HashSet<>();
+
+    @Builder.Default
+    private Set<ItemType> itemTypes = new HashSet<>();
+
+    private int minTenureYears;
+
+    private double minAmount;
+
+    private double percentage;
+
+    private double step;
+
+    private double stepDiscount;
+}
@@ -0,0 +1,48 @@
+package com.retailstore.pricing.rule;
+
+import com.retailstore.config.DiscountRuleProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Component
+public class DiscountRuleEngine {
+
+    private final Supplier<List<? extends DiscountRule>> ruleSource;
+    private final AtomicLong versions = new AtomicLong();
+
+    private volatile DiscountRuleTable table;
+
+    @Autowired
+    public DiscountRuleEngine(DiscountRuleProperties properties, ObjectProvider<DiscountRule> ruleBeans) {
+        this(() -> {
+            List<DiscountRule> rules = new ArrayList<>(properties.getRules().isEmpty()
+                    ? DefaultDiscountRules.get()
+                    : properties.getRules());
+            ruleBeans.orderedStream().forEach(rules::add);
+            return rules;
+        });
+    }
+
+    public DiscountRuleEngine(Supplier<List<? extends DiscountRule>> ruleSource) {
+        this.ruleSource = ruleSource;
+        reload();
+    }
+
+    public DiscountRuleTable getTable() {
+        return table;
+    }
+
+    public void reload() {
+        reload(ruleSource.get());
+    }
+
+    public synchronized void reload(List<? extends DiscountRule> rules) {
+        table = DiscountRuleTable.compile(versions.incrementAndGet(), rules);
+    }
+}
@@ -0,0 +1,236 @@
+package com.retailstore.pricing.rule;
+
+import com.retailstore.constant.ItemType;
+import com.retailstore.constant.UserType;
+import com.retailstore.money.Money;
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+public final class DiscountRuleTable {
+
+    @Getter
+    private final long version;
+
+    @Getter
+    private final List<DiscountRule> rules;
+
+    // Hash of the rule contents, equal for equal rules across restarts and instances unlike the version.
+    @Getter
+    private final long fingerprint;
+
+    // Per user type ordinal: ascending tenure thresholds in years, the bucket is the number already reached.
+    private final int[][] tenureThresholds;
+
+    // Per user type ordinal and tenure bucket.
+    private final DiscountSchedule[][] schedules;
+
+    private DiscountRuleTable(long version, List<DiscountRule> rules, long fingerprint, int[][] tenureThresholds,
+                              DiscountSchedule[][] schedules) {
+        this.version = version;
+        this.rules = rules;
+        this.fingerprint = fingerprint;
+        this.tenureThresholds = tenureThresholds;
+        this.schedules = schedules;
+    }
+
+    public DiscountSchedule schedule(UserType userType, LocalDate createdAt, LocalDate today) {
+        return schedules[userType.ordinal()][tenureBucket(userType, createdAt, today)];
+    }
+
+    // The first day on which the user moves to another tenure bucket, null when that never happens.
+    public LocalDate nextChangeDate(UserType userType, LocalDate createdAt, LocalDate today) {
+        int[] thresholds = tenureThresholds[userType.ordinal()];
+        int bucket = tenureBucket(userType, createdAt, today);
+        if (createdAt == null || bucket == thresholds.length) {
+            return null;
+        }
+
+        int years = thresholds[bucket];
+        LocalDate date = createdAt.plusYears(years);
+        while (!createdAt.isBefore(date.minusYears(years))) {
+            date = date.plusDays(1);
+        }
+        return date;
+    }
+
+    private int tenureBucket(UserType userType, LocalDate createdAt, LocalDate today) {
+        int[] thresholds = tenureThresholds[userType.ordinal()];
+        if (createdAt == null) {
+            return 0;
+        }
+        int bucket = 0;
+        while (bucket < thresholds.length && isOlderThan(createdAt, today, thresholds[bucket])) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    // createdAt.isBefore(today.minusYears(years)) without allocating the intermediate date.
+    private static boolean isOlderThan(LocalDate createdAt, LocalDate today, int years) {
+        int year = today.getYear() - years;
+        int month = today.getMonthValue();
+        int day = today.getDayOfMonth();
+        if (month == 2 && day == 29 && !Year.isLeap(year)) {
+            day = 28;
+        }
+
+        if (createdAt.getYear() != year) {
+            return createdAt.getYear() < year;
+        }
+        if (createdAt.getMonthValue() != month) {
+            return createdAt.getMonthValue() < month;
+        }
+        return createdAt.getDayOfMonth() < day;
+    }
+
+    public static DiscountRuleTable compile(long version, List<? extends DiscountRule> rules) {
+        List<DiscountRule> ruleList = List.copyOf(rules);
+        ruleList.forEach(DiscountRuleTable::validate);
+
+        UserType[] userTypes = UserType.values();
+        int[][] tenureThresholds = new int[userTypes.length][];
+        DiscountSchedule[][] schedules = new DiscountSchedule[userTypes.length][];
+
+        for (UserType userType : userTypes) {
+            List<DiscountRule> applicable = ruleList.stream()
+                    .filter(rule -> rule.getUserTypes().isEmpty() || rule.getUserTypes().contains(userType))
+                    .toList();
+
+            int[] thresholds = applicable.stream()
+                    .mapToInt(DiscountRule::getMinTenureYears)
+                    .filter(years -> years > 0)
+                    .distinct()
+                    .sorted()
+                    .toArray();
+            tenureThresholds[userType.ordinal()] = thresholds;
+
+            DiscountSchedule[] buckets = new DiscountSchedule[thresholds.length + 1];
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                int reachedYears = bucket == 0 ? 0 : thresholds[bucket - 1];
+                List<DiscountRule> eligible = applicable.stream()
+                        .filter(rule -> rule.getMinTenureYears() <= reachedYears)
+                        .toList();
+                buckets[bucket] = compileSchedule(eligible);
+            }
+            schedules[userType.ordinal()] = buckets;
+        }
+
+        return new DiscountRuleTable(version, ruleList, fingerprint(ruleList), tenureThresholds, schedules);
+    }
+
+    private static long fingerprint(List<DiscountRule> rules) {
+        StringBuilder text = new StringBuilder();
+        for (DiscountRule rule : rules) {
+            text.append(rule.getId()).append('|')
+                    .append(new TreeSet<>(rule.getUserTypes())).append('|')
+                    .append(new TreeSet<>(rule.getItemTypes())).append('|')
+                    .append(rule.getMinTenureYears()).append('|')
+                    .append(rule.getMinAmount()).append('|')
+                    .append(rule.getPercentage()).append('|')
+                    .append(rule.getStep()).append('|')
+                    .append(rule.getStepDiscount()).append('\n');
+        }
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(text.toString().getBytes(StandardCharsets.UTF_8))).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot hash the discount rules", e);
+        }
+    }
+
+    // Rule amounts are configured in major units and compiled to minor units.
+    private static DiscountSchedule compileSchedule(List<DiscountRule> eligible) {
+        long[] amountThresholds = eligible.stream()
+                .mapToLong(rule -> Money.ofMajor(rule.getMinAmount()))
+                .filter(amount -> amount > 0)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        int[] tierOffsets = new int[amountThresholds.length + 2];
+        List<DiscountRule> entries = new ArrayList<>();
+        for (int tier = 0; tier <= amountThresholds.length; tier++) {
+            long reachedAmount = tier == 0 ? 0 : amountThresholds[tier - 1];
+            List<DiscountRule> tierRules = eligible.stream()
+                    .filter(rule -> Money.ofMajor(rule.getMinAmount()) <= reachedAmount)
+                    .toList();
+
+            // Percentage discounts are taken before step discounts, as the original calculation did.
+            tierRules.stream().filter(rule -> rule.getStep() <= 0).forEach(entries::add);
+            tierRules.stream().filter(rule -> rule.getStep() > 0).forEach(entries::add);
+            tierOffsets[tier + 1] = entries.size();
+        }
+
+        int size = entries.size();
+        byte[] amounts = new byte[size];
+        long[] partsPerMillion = new long[size];
+        long[] steps = new long[size];
+        long[] stepDiscounts = new long[size];
+        String[] ruleIds = new String[size];
+        for (int i = 0; i < size; i++) {
+            DiscountRule rule = entries.get(i);
+            amounts[i] = amount(rule.getItemTypes());
+            partsPerMillion[i] = Money.partsPerMillion(rule.getPercentage());
+            steps[i] = Money.ofMajor(rule.getStep());
+            stepDiscounts[i] = Money.ofMajor(rule.getStepDiscount());
+            ruleIds[i] = rule.getId();
+        }
+
+        return new DiscountSchedule(amountThresholds, tierOffsets, amounts, partsPerMillion, steps,
+                stepDiscounts, ruleIds);
+    }
+
+    // Bills only track the grocery and the non-grocery amount, so rules have to select one of them or both.
+    private static byte amount(Set<ItemType> itemTypes) {
+        if (itemTypes.isEmpty()) {
+            return DiscountSchedule.TOTAL_AMOUNT;
+        }
+        Set<ItemType> nonGrocery = EnumSet.complementOf(EnumSet.of(ItemType.GROCERY));
+        boolean grocery = itemTypes.contains(ItemType.GROCERY);
+        boolean allNonGrocery = itemTypes.containsAll(nonGrocery);
+        boolean anyNonGrocery = itemTypes.stream().anyMatch(nonGrocery::contains);
+        if (anyNonGrocery && !allNonGrocery) {
+            throw new IllegalArgumentException("Item types " + itemTypes + " must select groceries, "
+                    + "all non-grocery items or both");
+        }
+        return (byte) ((grocery ? DiscountSchedule.GROCERY_AMOUNT : 0)
+                | (allNonGrocery ? DiscountSchedule.NON_GROCERY_AMOUNT : 0));
+    }
+
+    private static void validate(DiscountRule rule) {
+        if (rule.getId() == null || rule.getId().isBlank()) {
+            throw new IllegalArgumentException("Discount rule without id");
+        }
+        // Ids name the fields of the flushed discount counters.
+        if (rule.getId().contains(".") || rule.getId().startsWith("$")) {
+            throw new IllegalArgumentException("Discount rule id " + rule.getId() + " contains '.' or starts with '$'");
+        }
+        if (rule.getPercentage() < 0 || rule.getPercentage() > 1) {
+            throw new IllegalArgumentException("Discount rule " + rule.getId() + " percentage must be in [0, 1]");
+        }
+        if (rule.getStep() < 0 || rule.getStepDiscount() < 0 || rule.getMinTenureYears() < 0) {
+            throw new IllegalArgumentException("Discount rule " + rule.getId() + " has a negative condition");
+        }
+        if (rule.getStep() > 0 && rule.getPercentage() > 0) {
+            throw new IllegalArgumentException("Discount rule " + rule.getId() + " is both a step and a percentage");
+        }
+        try {
+            Money.ofMajor(rule.getMinAmount());
+            Money.ofMajor(rule.getStep());
+            Money.ofMajor(rule.getStepDiscount());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Discount rule " + rule.getId() + " has sub-cent amounts", e);
+        }
+    }
+}
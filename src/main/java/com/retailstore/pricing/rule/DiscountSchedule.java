@@ -0,0 +1,110 @@
+package com.retailstore.pricing.rule;
+
+import com.retailstore.money.Money;
+import com.retailstore.pricing.DiscountBreakdown;
+
+// Amounts are minor units, see Money.
+public final class DiscountSchedule {
+
+    static final byte GROCERY_AMOUNT = 1;
+    static final byte NON_GROCERY_AMOUNT = 2;
+    static final byte TOTAL_AMOUNT = GROCERY_AMOUNT | NON_GROCERY_AMOUNT;
+
+    // Ascending bill totals at which the next tier starts, tier i covers totals in [thresholds[i-1], thresholds[i]).
+    private final long[] amountThresholds;
+
+    // Discounts of tier i are the entries [tierOffsets[i], tierOffsets[i + 1]), percentage rules first.
+    private final int[] tierOffsets;
+    private final byte[] amounts;
+    private final long[] partsPerMillion;
+    private final long[] steps;
+    private final long[] stepDiscounts;
+    private final String[] ruleIds;
+
+    DiscountSchedule(long[] amountThresholds, int[] tierOffsets, byte[] amounts,
+                     long[] partsPerMillion, long[] steps, long[] stepDiscounts, String[] ruleIds) {
+        this.amountThresholds = amountThresholds;
+        this.tierOffsets = tierOffsets;
+        this.amounts = amounts;
+        this.partsPerMillion = partsPerMillion;
+        this.steps = steps;
+        this.stepDiscounts = stepDiscounts;
+        this.ruleIds = ruleIds;
+    }
+
+    public long netPayableAmount(long totalAmount, long groceryAmount) {
+        int tier = tier(totalAmount);
+        long netPayableAmount = totalAmount;
+        for (int i = tierOffsets[tier], end = tierOffsets[tier + 1]; i < end; i++) {
+            netPayableAmount -= discount(i, totalAmount, groceryAmount);
+        }
+        return netPayableAmount;
+    }
+
+    // The same discounts as netPayableAmount, told apart by kind of rule.
+    public DiscountBreakdown breakdown(long totalAmount, long groceryAmount) {
+        int tier = tier(totalAmount);
+        long percentageDiscount = 0;
+        long stepDiscount = 0;
+        for (int i = tierOffsets[tier], end = tierOffsets[tier + 1]; i < end; i++) {
+            if (steps[i] > 0) {
+                stepDiscount += discount(i, totalAmount, groceryAmount);
+            } else {
+                percentageDiscount += discount(i, totalAmount, groceryAmount);
+            }
+        }
+        return new DiscountBreakdown(totalAmount, percentageDiscount, stepDiscount);
+    }
+
+    // The same discounts as netPayableAmount, passed on per rule. Rules granting nothing on the total are skipped.
+    public void forEachDiscount(long totalAmount, long groceryAmount, DiscountConsumer consumer) {
+        int tier = tier(totalAmount);
+        for (int i = tierOffsets[tier], end = tierOffsets[tier + 1]; i < end; i++) {
+            long discount = discount(i, totalAmount, groceryAmount);
+            if (discount > 0) {
+                consumer.accept(ruleIds[i], discount);
+            }
+        }
+    }
+
+    private int tier(long totalAmount) {
+        int tier = 0;
+        while (tier < amountThresholds.length && totalAmount >= amountThresholds[tier]) {
+            tier++;
+        }
+        return tier;
+    }
+
+    private long discount(int index, long totalAmount, long groceryAmount) {
+        long amount = switch (amounts[index]) {
+            case GROCERY_AMOUNT -> groceryAmount;
+            case NON_GROCERY_AMOUNT -> totalAmount - groceryAmount;
+            default -> totalAmount;
+        };
+        if (steps[index] > 0) {
+            return stepDiscount(amount, steps[index], stepDiscounts[index]);
+        }
+        return Money.share(amount, partsPerMillion[index]);
+    }
+
+    // As the BigDecimal calculation did on the double amount: the steps are cut down at the scale of the amount, so
+    // 850.0 is 8.5 hundreds and gives 42.50, and 123.45 is 1.23 hundreds. Rounded half up to the cent.
+    private static long stepDiscount(long amount, long step, long stepDiscount) {
+        int scale = Money.decimalScale(amount);
+        long power = 1;
+        for (int i = Math.abs(scale); i > 0; i--) {
+            power *= 10;
+        }
+        if (scale < 0) {
+            return Math.multiplyExact(amount / step / power * power, stepDiscount);
+        }
+        long steps = Math.multiplyExact(amount, power) / step;
+        return (Math.multiplyExact(steps, stepDiscount) + power / 2) / power;
+    }
+
+    @FunctionalInterface
+    public interface DiscountConsumer {
+
+        void accept(String ruleId, long discount);
+    }
+}
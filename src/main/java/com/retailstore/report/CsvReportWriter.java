@@ -0,0 +1,57 @@
+package com.retailstore.report;
+
+import com.retailstore.constant.MoneyFormat;
+import com.retailstore.model.response.BillReportLine;
+import com.retailstore.money.Money;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+class CsvReportWriter implements ReportWriter {
+
+    private static final String HEADER =
+            "record,billId,userId,userType,bills,grossAmount,groceryAmount,discountAmount,netPayableAmount";
+
+    private final Writer writer;
+    private final MoneyFormat moneyFormat;
+
+    CsvReportWriter(OutputStream output, MoneyFormat moneyFormat) throws IOException {
+        this.moneyFormat = moneyFormat;
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(HEADER);
+        writer.write('\n');
+    }
+
+    @Override
+    public void write(BillReportLine line) throws IOException {
+        writer.write(line.getRecord());
+        writer.write(',');
+        writer.write(Objects.toString(line.getBillId(), ""));
+        writer.write(',');
+        writer.write(Objects.toString(line.getUserId(), ""));
+        writer.write(',');
+        writer.write(Objects.toString(line.getUserType(), ""));
+        writer.write(',');
+        writer.write(Objects.toString(line.getBills(), ""));
+        writer.write(',');
+        writer.write(Money.toString(line.getGrossAmount(), moneyFormat));
+        writer.write(',');
+        writer.write(Money.toString(line.getGroceryAmount(), moneyFormat));
+        writer.write(',');
+        writer.write(Money.toString(line.getDiscountAmount(), moneyFormat));
+        writer.write(',');
+        writer.write(Money.toString(line.getNetPayableAmount(), moneyFormat));
+        writer.write('\n');
+    }
+
+    // Flushes without closing the response stream, which belongs to the servlet container.
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+}
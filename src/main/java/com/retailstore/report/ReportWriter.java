@@ -0,0 +1,23 @@
+package com.retailstore.report;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retailstore.constant.MoneyFormat;
+import com.retailstore.constant.ReportFormat;
+import com.retailstore.model.response.BillReportLine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ReportWriter extends Closeable {
+
+    void write(BillReportLine line) throws IOException;
+
+    static ReportWriter of(ReportFormat format, OutputStream output, ObjectMapper objectMapper,
+                           MoneyFormat moneyFormat) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonReportWriter(output, objectMapper);
+            case CSV -> new CsvReportWriter(output, moneyFormat);
+        };
+    }
+}
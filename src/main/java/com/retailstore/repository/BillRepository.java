@@ -3,9 +3,15 @@ package com.retailstore.repository;
 import com.retailstore.entity.Bill;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface BillRepository extends MongoRepository<Bill, Long> {
+public interface BillRepository extends MongoRepository<Bill, Long>, BillTotalsRepository {
 
     Optional<Bill> findByIdAndUserId(long id, long userId);
+
+    boolean existsByIdAndUserId(long id, long userId);
+
+    List<Bill> findByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,23 @@
+package com.retailstore.repository;
+
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.BillTotals;
+import com.retailstore.pricing.PricingKernel;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+// Stores the totals of every bill written as a whole, by the repositories as well as the bulk importer.
+@Component
+public class BillTotalsCallback implements BeforeConvertCallback<Bill> {
+
+    @Override
+    public Bill onBeforeConvert(Bill bill, String collection) {
+        if (bill.getItems() != null) {
+            BillTotals sums = PricingKernel.sum(BillTotals.of(bill));
+            bill.setItemCount(sums.itemCount());
+            bill.setTotalAmount(sums.totalAmount());
+            bill.setGroceryAmount(sums.groceryAmount());
+        }
+        return bill;
+    }
+}
@@ -0,0 +1,49 @@
+package com.retailstore.repository;
+
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.BillTotals;
+import com.retailstore.entity.BillTotalsDrift;
+import com.retailstore.entity.Item;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+public interface BillTotalsRepository {
+
+    // Bills with fewer than minAggregatedItems items come back with their items, the rest only with their sums.
+    Optional<BillTotals> findTotalsByIdAndUserId(long id, long userId, int minAggregatedItems);
+
+    List<BillTotals> findTotalsByIdIn(Collection<Long> ids, int minAggregatedItems);
+
+    // Sums of every bill from a cursor, the stream has to be closed.
+    Stream<BillTotals> streamAllTotals(int batchSize);
+
+    // Ids of every bill from a cursor, the stream has to be closed.
+    LongStream streamAllIds(int batchSize);
+
+    // Appends the item and adds it to the stored totals in one atomic update. Empty when the bill does not exist,
+    // has no stored totals yet or already holds an item with the same id.
+    Optional<BillTotals> pushItem(long billId, long userId, Item item);
+
+    // Removes the item and subtracts it from the stored totals in one atomic update. Empty when the bill does not
+    // exist, has no stored totals yet or does not hold the item.
+    Optional<BillTotals> pullItem(long billId, long userId, long itemId);
+
+    // Only the id, user id, version and stored totals of the bill.
+    Optional<Bill> findVersionByIdAndUserId(long id, long userId);
+
+    // Recomputes the stored totals of the bill from its items if they were never stored, true if it did.
+    boolean storeMissingTotals(long billId, long userId);
+
+    // Recomputes the stored totals of the bills from their items, returns the number of bills changed.
+    long storeTotals(Collection<Long> ids);
+
+    // Bills whose stored totals are missing or differ from the sums of their items, the stream has to be closed.
+    Stream<BillTotalsDrift> streamTotalsDrift(int batchSize);
+
+    // Rewrites bills stored with decimal amounts to minor units, returns the number of bills changed.
+    long convertDecimalAmounts();
+}
@@ -0,0 +1,225 @@
+package com.retailstore.repository;
+
+import com.mongodb.client.MongoCollection;
+import com.retailstore.constant.ItemType;
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.BillTotals;
+import com.retailstore.entity.BillTotalsDrift;
+import com.retailstore.entity.Item;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class BillTotalsRepositoryImpl implements BillTotalsRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<BillTotals> findTotalsByIdAndUserId(long id, long userId, int minAggregatedItems) {
+        Criteria criteria = Criteria.where("id").is(id).and("userId").is(userId);
+        return Optional.ofNullable(mongoTemplate.aggregate(totals(criteria, minAggregatedItems), Bill.class,
+                BillTotals.class).getUniqueMappedResult());
+    }
+
+    @Override
+    public List<BillTotals> findTotalsByIdIn(Collection<Long> ids, int minAggregatedItems) {
+        Criteria criteria = Criteria.where("id").in(ids);
+        return mongoTemplate.aggregate(totals(criteria, minAggregatedItems), Bill.class, BillTotals.class)
+                .getMappedResults();
+    }
+
+    @Override
+    public Stream<BillTotals> streamAllTotals(int batchSize) {
+        Aggregation aggregation = totals(new Criteria(), 0)
+                .withOptions(AggregationOptions.builder().cursorBatchSize(batchSize).build());
+        return mongoTemplate.aggregateStream(aggregation, Bill.class, BillTotals.class);
+    }
+
+    @Override
+    public LongStream streamAllIds(int batchSize) {
+        Query query = new Query().cursorBatchSize(batchSize);
+        query.fields().include("_id");
+        return mongoTemplate.stream(query, Bill.class).mapToLong(Bill::getId);
+    }
+
+    @Override
+    public Optional<BillTotals> pushItem(long billId, long userId, Item item) {
+        Query query = withStoredTotals(billId, userId)
+                .addCriteria(Criteria.where("items.id").ne(item.getId()));
+        Update update = new Update()
+                .push("items", item)
+                .inc("itemCount", 1)
+                .inc("totalAmount", item.getPrice())
+                .inc("groceryAmount", item.getType() == ItemType.GROCERY ? item.getPrice() : 0)
+                .inc("version", 1);
+        return findAndModify(query, update);
+    }
+
+    @Override
+    public Optional<BillTotals> pullItem(long billId, long userId, long itemId) {
+        Query find = withStoredTotals(billId, userId).addCriteria(Criteria.where("items.id").is(itemId));
+        find.fields().include("userId").position("items", 1);
+        Bill found = mongoTemplate.findOne(find, Bill.class);
+        if (found == null || found.getItems() == null || found.getItems().isEmpty()) {
+            return Optional.empty();
+        }
+
+        // Matching the whole item keeps the subtracted price right if the item was replaced in the meantime.
+        Item item = found.getItems().get(0);
+        Query query = withStoredTotals(billId, userId)
+                .addCriteria(Criteria.where("items").elemMatch(Criteria.where("id").is(itemId)
+                        .and("price").is(item.getPrice())
+                        .and("type").is(item.getType())));
+        Update update = new Update()
+                .pull("items", Query.query(Criteria.where("id").is(itemId)))
+                .inc("itemCount", -1)
+                .inc("totalAmount", -item.getPrice())
+                .inc("groceryAmount", item.getType() == ItemType.GROCERY ? -item.getPrice() : 0)
+                .inc("version", 1);
+        return findAndModify(query, update);
+    }
+
+    @Override
+    public Optional<Bill> findVersionByIdAndUserId(long id, long userId) {
+        Query query = Query.query(Criteria.where("id").is(id).and("userId").is(userId));
+        query.fields().include("userId", "version", "totalAmount", "groceryAmount");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Bill.class));
+    }
+
+    @Override
+    public boolean storeMissingTotals(long billId, long userId) {
+        Document filter = new Document("_id", billId)
+                .append("userId", userId)
+                .append("totalCents", new Document("$exists", false));
+        return bills().updateOne(filter, storeTotalsPipeline()).getModifiedCount() > 0;
+    }
+
+    @Override
+    public long storeTotals(Collection<Long> ids) {
+        Document filter = new Document("_id", new Document("$in", ids));
+        return bills().updateMany(filter, storeTotalsPipeline()).getModifiedCount();
+    }
+
+    @Override
+    public Stream<BillTotalsDrift> streamTotalsDrift(int batchSize) {
+        Document drifted = new Document("$or", List.of(
+                new Document("$ne", List.of("$storedItemCount", "$itemCount")),
+                new Document("$ne", List.of("$storedTotalAmount", "$totalAmount")),
+                new Document("$ne", List.of("$storedGroceryAmount", "$groceryAmount"))));
+        Aggregation aggregation = Aggregation.newAggregation(
+                        context -> new Document("$project", new Document("userId", 1)
+                                .append("storedItemCount", "$itemCount")
+                                .append("storedTotalAmount", "$totalCents")
+                                .append("storedGroceryAmount", "$groceryCents")
+                                .append("itemCount", computedItemCount())
+                                .append("totalAmount", computedTotalAmount())
+                                .append("groceryAmount", computedGroceryAmount())),
+                        context -> new Document("$match", new Document("$expr", drifted)))
+                .withOptions(AggregationOptions.builder().cursorBatchSize(batchSize).build());
+        return mongoTemplate.aggregateStream(aggregation, Bill.class, BillTotalsDrift.class);
+    }
+
+    @Override
+    public long convertDecimalAmounts() {
+        Document filter = new Document("$or", List.of(
+                new Document("items.price", new Document("$exists", true)),
+                new Document("totalAmount", new Document("$exists", true)),
+                new Document("groceryAmount", new Document("$exists", true))));
+        // Decimal128 keeps 0.1 as 0.1, rounding its hundredfold gives the cents the price was written with.
+        Document cents = new Document("$toLong", new Document("$round", List.of(
+                new Document("$multiply", List.of(new Document("$toDecimal", "$$item.price"), 100)), 0)));
+        Document items = new Document("$map", new Document("input", items())
+                .append("as", "item")
+                .append("in", new Document("$mergeObjects", List.of("$$item", new Document("priceCents",
+                        new Document("$ifNull", List.of("$$item.priceCents", cents)))))));
+
+        List<Document> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$set", new Document("items", items)));
+        pipeline.addAll(storeTotalsPipeline());
+        pipeline.add(new Document("$unset", List.of("items.price", "totalAmount", "groceryAmount")));
+        return bills().updateMany(filter, pipeline).getModifiedCount();
+    }
+
+    public static Aggregation totals(Criteria criteria, int minAggregatedItems) {
+        return Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                context -> new Document("$project", totalsProjection(minAggregatedItems)));
+    }
+
+    // Stored totals are used as they are, bills written before they were stored are summed here.
+    private static Document totalsProjection(int minAggregatedItems) {
+        Document itemCount = new Document("$ifNull", List.of("$itemCount", computedItemCount()));
+        Document unstored = new Document("$eq", List.of(new Document("$type", "$totalCents"), "missing"));
+
+        return new Document("userId", 1)
+                .append("version", 1)
+                .append("itemCount", itemCount)
+                .append("totalAmount", new Document("$ifNull", List.of("$totalCents", computedTotalAmount())))
+                .append("groceryAmount", new Document("$ifNull", List.of("$groceryCents", computedGroceryAmount())))
+                // Small bills without stored totals keep their items and are summed in the JVM like a full load.
+                .append("items", new Document("$cond", List.of(
+                        new Document("$and", List.of(unstored,
+                                new Document("$lt", List.of(itemCount, minAggregatedItems)))),
+                        "$items", "$$REMOVE")));
+    }
+
+    private static Document items() {
+        return new Document("$ifNull", List.of("$items", List.of()));
+    }
+
+    private static Document computedItemCount() {
+        return new Document("$size", items());
+    }
+
+    private static Document computedTotalAmount() {
+        return new Document("$sum", "$items.priceCents");
+    }
+
+    private static Document computedGroceryAmount() {
+        Document groceryPrices = new Document("$map", new Document("input",
+                new Document("$filter", new Document("input", items())
+                        .append("as", "item")
+                        .append("cond", new Document("$eq", List.of("$$item.type", ItemType.GROCERY.name())))))
+                .append("as", "item")
+                .append("in", "$$item.priceCents"));
+        return new Document("$sum", groceryPrices);
+    }
+
+    // Update pipeline replacing the stored totals with the sums of the items, a new version marks the change.
+    private static List<Document> storeTotalsPipeline() {
+        Document version = new Document("$add", List.of(new Document("$ifNull", List.of("$version", 0L)), 1L));
+        return List.of(new Document("$set", new Document("itemCount", computedItemCount())
+                .append("totalCents", computedTotalAmount())
+                .append("groceryCents", computedGroceryAmount())
+                .append("version", version)));
+    }
+
+    private static Query withStoredTotals(long billId, long userId) {
+        return Query.query(Criteria.where("id").is(billId).and("userId").is(userId).and("totalAmount").exists(true));
+    }
+
+    private Optional<BillTotals> findAndModify(Query query, Update update) {
+        query.fields().exclude("items");
+        Bill bill = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                Bill.class);
+        return Optional.ofNullable(bill).map(BillTotals::stored);
+    }
+
+    private MongoCollection<Document> bills() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Bill.class));
+    }
+}
@@ -0,0 +1,15 @@
+package com.retailstore.repository;
+
+import com.retailstore.entity.Bill;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface ReactiveBillRepository extends ReactiveMongoRepository<Bill, Long> {
+
+    Mono<Bill> findByIdAndUserId(long id, long userId);
+
+    Flux<Bill> findByIdIn(Collection<Long> ids);
+}
@@ -0,0 +1,7 @@
+package com.retailstore.repository;
+
+import com.retailstore.entity.User;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, Long> {
+}
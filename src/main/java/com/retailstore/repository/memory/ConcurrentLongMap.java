@@ -0,0 +1,269 @@
+package com.retailstore.repository.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.UnaryOperator;
+
+// Map from primitive long keys to values, so lookups neither box the key nor chase entry nodes. Keys are spread
+// over lock-striped segments of open addressing tables, reads are optimistic and only take the lock on a race.
+// Values must not be null.
+public final class ConcurrentLongMap<V> {
+
+    private static final int SEGMENTS = 64;
+
+    private final Segment<V>[] segments;
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentLongMap(int expectedSize) {
+        segments = new Segment[SEGMENTS];
+        int segmentSize = Math.max(expectedSize / SEGMENTS, 8);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(segmentSize);
+        }
+    }
+
+    public V get(long key) {
+        long hash = hash(key);
+        return segment(hash).get(key, hash);
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    public V put(long key, V value) {
+        long hash = hash(key);
+        return segment(hash).compute(key, hash, previous -> value);
+    }
+
+    // Null when the value was stored, otherwise the value already held by the key.
+    public V putIfAbsent(long key, V value) {
+        long hash = hash(key);
+        Segment<V> segment = segment(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            V previous = segment.find(key, hash);
+            if (previous == null) {
+                segment.store(key, hash, value);
+            }
+            return previous;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    public V remove(long key) {
+        long hash = hash(key);
+        return segment(hash).compute(key, hash, previous -> null);
+    }
+
+    // Replaces the value of the key atomically with the result of the function, which gets null for an absent key
+    // and removes the key by returning null. Returns the previous value. The function runs under the segment lock
+    // and must not touch the map.
+    public V compute(long key, UnaryOperator<V> remapping) {
+        long hash = hash(key);
+        return segment(hash).compute(key, hash, remapping);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                size += segment.size;
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    // A copy of the values, consistent per segment but not across segments.
+    public List<V> values() {
+        List<V> values = new ArrayList<>();
+        for (Segment<V> segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                segment.copyValues(values);
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return values;
+    }
+
+    public void clear() {
+        for (Segment<V> segment : segments) {
+            long stamp = segment.lock.writeLock();
+            try {
+                segment.clear();
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    private Segment<V> segment(long hash) {
+        return segments[(int) (hash >>> 58)];
+    }
+
+    // Fibonacci hashing, the top bits pick the segment and the low bits the slot.
+    private static long hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+
+    // Keys and values are swapped in together on resize, so an optimistic reader never mixes two generations.
+    private record Table(long[] keys, Object[] values) {
+
+        private Table(int capacity) {
+            this(new long[capacity], new Object[capacity]);
+        }
+    }
+
+    private static final class Segment<V> {
+
+        private final StampedLock lock = new StampedLock();
+        private volatile Table table;
+        private int size;
+
+        private Segment(int expectedSize) {
+            table = new Table(capacity(expectedSize));
+        }
+
+        private V get(long key, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            V value = find(key, hash);
+            if (lock.validate(stamp)) {
+                return value;
+            }
+            stamp = lock.readLock();
+            try {
+                return find(key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        // Probing is bounded by the capacity, a torn optimistic read can return garbage but never loop forever.
+        @SuppressWarnings("unchecked")
+        private V find(long key, long hash) {
+            Table current = table;
+            long[] keys = current.keys();
+            Object[] values = current.values();
+            int mask = values.length - 1;
+            int slot = (int) hash & mask;
+            for (int probes = 0; probes < values.length; probes++) {
+                Object value = values[slot];
+                if (value == null) {
+                    return null;
+                }
+                if (keys[slot] == key) {
+                    return (V) value;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        private V compute(long key, long hash, UnaryOperator<V> remapping) {
+            long stamp = lock.writeLock();
+            try {
+                V previous = find(key, hash);
+                V value = remapping.apply(previous);
+                if (value != null) {
+                    store(key, hash, value);
+                } else if (previous != null) {
+                    delete(key, hash);
+                }
+                return previous;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void store(long key, long hash, Object value) {
+            Table current = table;
+            int mask = current.values().length - 1;
+            int slot = (int) hash & mask;
+            while (current.values()[slot] != null && current.keys()[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (current.values()[slot] == null) {
+                // Resizing before the table is half full keeps probe sequences short.
+                if (2 * (size + 1) > current.values().length) {
+                    resize(current.values().length * 2);
+                    store(key, hash, value);
+                    return;
+                }
+                size++;
+            }
+            current.keys()[slot] = key;
+            current.values()[slot] = value;
+        }
+
+        // Backward shift deletion: entries after the removed one move up, so no tombstones are left behind.
+        private void delete(long key, long hash) {
+            long[] keys = table.keys();
+            Object[] values = table.values();
+            int mask = values.length - 1;
+            int slot = (int) hash & mask;
+            while (keys[slot] != key || values[slot] == null) {
+                slot = (slot + 1) & mask;
+            }
+            int next = slot;
+            while (true) {
+                next = (next + 1) & mask;
+                if (values[next] == null) {
+                    break;
+                }
+                int home = (int) hash(keys[next]) & mask;
+                boolean stays = slot <= next ? slot < home && home <= next : slot < home || home <= next;
+                if (!stays) {
+                    keys[slot] = keys[next];
+                    values[slot] = values[next];
+                    slot = next;
+                }
+            }
+            values[slot] = null;
+            size--;
+        }
+
+        private void resize(int capacity) {
+            Table previous = table;
+            Table resized = new Table(capacity);
+            int mask = capacity - 1;
+            for (int i = 0; i < previous.values().length; i++) {
+                Object value = previous.values()[i];
+                if (value != null) {
+                    int slot = (int) hash(previous.keys()[i]) & mask;
+                    while (resized.values()[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    resized.keys()[slot] = previous.keys()[i];
+                    resized.values()[slot] = value;
+                }
+            }
+            table = resized;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void copyValues(List<V> into) {
+            for (Object value : table.values()) {
+                if (value != null) {
+                    into.add((V) value);
+                }
+            }
+        }
+
+        private void clear() {
+            table = new Table(table.values().length);
+            size = 0;
+        }
+
+        private static int capacity(int expectedSize) {
+            return Integer.highestOneBit(Math.max(expectedSize, 4) * 2 - 1) << 1;
+        }
+    }
+}
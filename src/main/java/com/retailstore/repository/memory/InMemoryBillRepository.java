@@ -0,0 +1,242 @@
+package com.retailstore.repository.memory;
+
+import com.retailstore.config.InMemoryProperties;
+import com.retailstore.constant.ItemType;
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.BillTotals;
+import com.retailstore.entity.BillTotalsDrift;
+import com.retailstore.entity.Item;
+import com.retailstore.pricing.PricingKernel;
+import com.retailstore.repository.BillRepository;
+import com.retailstore.repository.BillTotalsCallback;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+// Bills are replaced as a whole on every update, so readers never see a bill half way through a change.
+@Repository
+@Profile("inmemory")
+public class InMemoryBillRepository extends InMemoryRepository<Bill> implements BillRepository {
+
+    private final BillTotalsCallback billTotalsCallback;
+
+    public InMemoryBillRepository(ApplicationEventPublisher eventPublisher, BillTotalsCallback billTotalsCallback,
+                                  InMemoryProperties properties) {
+        super(Bill.class, "bills", eventPublisher, properties.getSyntheticBills(), properties);
+        this.billTotalsCallback = billTotalsCallback;
+    }
+
+    @Override
+    public Optional<Bill> findByIdAndUserId(long id, long userId) {
+        read();
+        return Optional.ofNullable(owned(entities.get(id), userId));
+    }
+
+    @Override
+    public boolean existsByIdAndUserId(long id, long userId) {
+        read();
+        return owned(entities.get(id), userId) != null;
+    }
+
+    @Override
+    public List<Bill> findByIdIn(Collection<Long> ids) {
+        return findAllById(ids);
+    }
+
+    @Override
+    public Optional<BillTotals> findTotalsByIdAndUserId(long id, long userId, int minAggregatedItems) {
+        return findByIdAndUserId(id, userId).map(bill -> totals(bill, minAggregatedItems));
+    }
+
+    @Override
+    public List<BillTotals> findTotalsByIdIn(Collection<Long> ids, int minAggregatedItems) {
+        return findAllById(ids).stream().map(bill -> totals(bill, minAggregatedItems)).toList();
+    }
+
+    @Override
+    public Stream<BillTotals> streamAllTotals(int batchSize) {
+        return entities.values().stream().map(bill -> totals(bill, 0));
+    }
+
+    @Override
+    public LongStream streamAllIds(int batchSize) {
+        return entities.values().stream().mapToLong(Bill::getId);
+    }
+
+    @Override
+    public Optional<BillTotals> pushItem(long billId, long userId, Item item) {
+        Bill[] updated = new Bill[1];
+        entities.compute(billId, current -> {
+            if (!hasStoredTotals(current, userId) || indexOf(current, item.getId()) >= 0) {
+                return current;
+            }
+            List<Item> items = new ArrayList<>(items(current));
+            items.add(copy(item));
+            long grocery = item.getType() == ItemType.GROCERY ? item.getPrice() : 0;
+            updated[0] = updated(current, items, current.getTotalAmount() + item.getPrice(),
+                    current.getGroceryAmount() + grocery);
+            return updated[0];
+        });
+        return Optional.ofNullable(updated[0]).map(BillTotals::stored);
+    }
+
+    @Override
+    public Optional<BillTotals> pullItem(long billId, long userId, long itemId) {
+        Bill[] updated = new Bill[1];
+        entities.compute(billId, current -> {
+            int index = hasStoredTotals(current, userId) ? indexOf(current, itemId) : -1;
+            if (index < 0) {
+                return current;
+            }
+            List<Item> items = new ArrayList<>(items(current));
+            Item item = items.remove(index);
+            long grocery = item.getType() == ItemType.GROCERY ? item.getPrice() : 0;
+            updated[0] = updated(current, items, current.getTotalAmount() - item.getPrice(),
+                    current.getGroceryAmount() - grocery);
+            return updated[0];
+        });
+        return Optional.ofNullable(updated[0]).map(BillTotals::stored);
+    }
+
+    // The stored bill itself, it carries more than the version but is never copied for it.
+    @Override
+    public Optional<Bill> findVersionByIdAndUserId(long id, long userId) {
+        return findByIdAndUserId(id, userId);
+    }
+
+    @Override
+    public boolean storeMissingTotals(long billId, long userId) {
+        boolean[] stored = new boolean[1];
+        entities.compute(billId, current -> {
+            if (owned(current, userId) == null || current.getTotalAmount() != null) {
+                return current;
+            }
+            stored[0] = true;
+            return withTotals(current);
+        });
+        return stored[0];
+    }
+
+    @Override
+    public long storeTotals(Collection<Long> ids) {
+        long changed = 0;
+        for (long id : ids) {
+            if (entities.compute(id, current -> current != null ? withTotals(current) : null) != null) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public Stream<BillTotalsDrift> streamTotalsDrift(int batchSize) {
+        return entities.values().stream()
+                .map(bill -> {
+                    BillTotals sums = PricingKernel.sum(BillTotals.of(bill));
+                    return new BillTotalsDrift(bill.getId(), bill.getUserId(), bill.getItemCount(), sums.itemCount(),
+                            bill.getTotalAmount(), sums.totalAmount(), bill.getGroceryAmount(), sums.groceryAmount());
+                })
+                .filter(drift -> !Objects.equals(drift.storedItemCount(), drift.itemCount())
+                        || !Objects.equals(drift.storedTotalAmount(), drift.totalAmount())
+                        || !Objects.equals(drift.storedGroceryAmount(), drift.groceryAmount()));
+    }
+
+    // Amounts are minor units from the moment they are read, nothing in memory is stored as decimals.
+    @Override
+    public long convertDecimalAmounts() {
+        return 0;
+    }
+
+    @Override
+    protected long id(Bill bill) {
+        return bill.getId();
+    }
+
+    @Override
+    protected Long version(Bill bill) {
+        return bill.getVersion();
+    }
+
+    @Override
+    protected void setVersion(Bill bill, Long version) {
+        bill.setVersion(version);
+    }
+
+    @Override
+    protected Bill copy(Bill bill) {
+        List<Item> items = null;
+        if (bill.getItems() != null) {
+            items = new ArrayList<>(bill.getItems().size());
+            for (Item item : bill.getItems()) {
+                items.add(copy(item));
+            }
+        }
+        return new Bill(bill.getId(), bill.getUserId(), items == null ? null : Collections.unmodifiableList(items),
+                bill.getItemCount(), bill.getTotalAmount(), bill.getGroceryAmount(), bill.getVersion());
+    }
+
+    @Override
+    protected Bill beforeSave(Bill bill) {
+        return billTotalsCallback.onBeforeConvert(bill, "bills");
+    }
+
+    // Same shape as the totals aggregation: stored totals as they are, small unstored bills with their items.
+    private static BillTotals totals(Bill bill, int minAggregatedItems) {
+        if (bill.getTotalAmount() != null) {
+            return BillTotals.stored(bill);
+        }
+        BillTotals items = BillTotals.of(bill);
+        return items.itemCount() < minAggregatedItems ? items : PricingKernel.sum(items);
+    }
+
+    private static Bill owned(Bill bill, long userId) {
+        return bill != null && bill.getUserId() == userId ? bill : null;
+    }
+
+    private static boolean hasStoredTotals(Bill bill, long userId) {
+        return owned(bill, userId) != null && bill.getTotalAmount() != null;
+    }
+
+    private static int indexOf(Bill bill, long itemId) {
+        List<Item> items = items(bill);
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).getId() == itemId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<Item> items(Bill bill) {
+        return bill.getItems() != null ? bill.getItems() : List.of();
+    }
+
+    private static Item copy(Item item) {
+        return new Item(item.getId(), item.getPrice(), item.getType());
+    }
+
+    private static Bill updated(Bill bill, List<Item> items, long totalAmount, long groceryAmount) {
+        return new Bill(bill.getId(), bill.getUserId(), Collections.unmodifiableList(items), items.size(),
+                totalAmount, groceryAmount, nextVersion(bill));
+    }
+
+    private Bill withTotals(Bill bill) {
+        Bill copy = copy(bill);
+        beforeSave(copy);
+        copy.setVersion(nextVersion(bill));
+        return copy;
+    }
+
+    private static long nextVersion(Bill bill) {
+        return bill.getVersion() != null ? bill.getVersion() + 1 : 1;
+    }
+}
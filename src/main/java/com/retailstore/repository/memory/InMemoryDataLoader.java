@@ -0,0 +1,76 @@
+package com.retailstore.repository.memory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retailstore.config.InMemoryProperties;
+import com.retailstore.config.SeedProperties;
+import com.retailstore.constant.ItemType;
+import com.retailstore.constant.UserType;
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.Item;
+import com.retailstore.entity.User;
+import com.retailstore.importer.DocumentReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Fills the in-memory repositories before the first request, from the seed files or with generated bills.
+@Slf4j
+@Component
+@Profile("inmemory")
+@RequiredArgsConstructor
+public class InMemoryDataLoader implements InitializingBean {
+
+    private static final UserType[] USER_TYPES = UserType.values();
+
+    private final InMemoryBillRepository billRepository;
+    private final InMemoryUserRepository userRepository;
+    private final InMemoryProperties properties;
+    private final SeedProperties seedProperties;
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        long start = System.nanoTime();
+        if (properties.getSyntheticBills() > 0) {
+            generate();
+        } else if (seedProperties.isEnabled()) {
+            DocumentReader.read(objectMapper, resourceLoader.getResource(seedProperties.getUsers()), User.class,
+                    userRepository::load);
+            DocumentReader.read(objectMapper, resourceLoader.getResource(seedProperties.getBills()), Bill.class,
+                    billRepository::load);
+        }
+        log.info("Loaded {} users and {} bills into memory in {} ms", userRepository.count(), billRepository.count(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Deterministic, the same settings always produce the same bills and amounts.
+    private void generate() {
+        int users = properties.getSyntheticUsers();
+        LocalDate today = LocalDate.now();
+        for (long id = 1; id <= users; id++) {
+            userRepository.load(new User(id, "user" + id, null, USER_TYPES[(int) (id % USER_TYPES.length)],
+                    today.minusDays(id % 3_650), null));
+        }
+
+        int itemsPerBill = properties.getItemsPerBill();
+        for (long id = 1; id <= properties.getSyntheticBills(); id++) {
+            SplittableRandom random = new SplittableRandom(id);
+            List<Item> items = new ArrayList<>(itemsPerBill);
+            for (int i = 0; i < itemsPerBill; i++) {
+                ItemType type = random.nextInt(3) == 0 ? ItemType.GROCERY : ItemType.OTHER;
+                items.add(new Item((id - 1) * itemsPerBill + i + 1, random.nextLong(100, 50_000), type));
+            }
+            billRepository.load(new Bill(id, (id - 1) % users + 1, items));
+        }
+    }
+}
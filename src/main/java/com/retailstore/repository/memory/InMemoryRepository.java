@@ -0,0 +1,273 @@
+package com.retailstore.repository.memory;
+
+import com.retailstore.config.InMemoryProperties;
+import org.bson.Document;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+// MongoRepository held in a ConcurrentLongMap, for running the service without a Mongo server. Entities are
+// copied on the way in and shared on the way out, so callers must not modify what they read. Versions follow
+// @Version in Mongo and the mapping events are published, so the cache invalidation listeners keep working.
+public abstract class InMemoryRepository<T> implements MongoRepository<T, Long> {
+
+    protected final ConcurrentLongMap<T> entities;
+    private final Class<T> type;
+    private final String collection;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration readLatency;
+    private final Semaphore readConnections;
+
+    protected InMemoryRepository(Class<T> type, String collection, ApplicationEventPublisher eventPublisher,
+                                 int expectedSize, InMemoryProperties properties) {
+        this.entities = new ConcurrentLongMap<>(expectedSize);
+        this.type = type;
+        this.collection = collection;
+        this.eventPublisher = eventPublisher;
+        this.readLatency = properties.getReadLatency();
+        this.readConnections = new Semaphore(properties.getReadConnections());
+    }
+
+    protected abstract long id(T entity);
+
+    protected abstract Long version(T entity);
+
+    protected abstract void setVersion(T entity, Long version);
+
+    protected abstract T copy(T entity);
+
+    // Runs on every entity written as a whole, like the BeforeConvertCallbacks of the Mongo repositories.
+    protected T beforeSave(T entity) {
+        return entity;
+    }
+
+    @Override
+    public <S extends T> S insert(S entity) {
+        long id = id(entity);
+        setVersion(entity, 0L);
+        if (entities.putIfAbsent(id, copy(beforeSave(entity))) != null) {
+            setVersion(entity, null);
+            throw new DuplicateKeyException("Duplicate id " + id + " in " + collection);
+        }
+        saved(entity);
+        return entity;
+    }
+
+    // Replaces the entity without a version check or events, for filling the repository before it is used.
+    void load(T entity) {
+        setVersion(entity, 0L);
+        entities.put(id(entity), copy(beforeSave(entity)));
+    }
+
+    @Override
+    public <S extends T> List<S> insert(Iterable<S> entities) {
+        List<S> inserted = new ArrayList<>();
+        entities.forEach(entity -> inserted.add(insert(entity)));
+        return inserted;
+    }
+
+    // A new entity is inserted, an existing one replaced if its version is still the stored one.
+    @Override
+    public <S extends T> S save(S entity) {
+        long id = id(entity);
+        Long version = version(entity);
+        if (version == null) {
+            return insert(entity);
+        }
+        T stored = copy(beforeSave(entity));
+        setVersion(stored, version + 1);
+        entities.compute(id, current -> {
+            if (current == null || !Objects.equals(version(current), version)) {
+                throw new OptimisticLockingFailureException("Version " + version + " of " + id + " in "
+                        + collection + " is no longer current");
+            }
+            return stored;
+        });
+        setVersion(entity, version + 1);
+        saved(entity);
+        return entity;
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public Optional<T> findById(Long id) {
+        read();
+        return Optional.ofNullable(entities.get(id));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return entities.containsKey(id);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return entities.values();
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<Long> ids) {
+        read();
+        List<T> found = new ArrayList<>();
+        for (Long id : ids) {
+            T entity = entities.get(id);
+            if (entity != null) {
+                found.add(entity);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public long count() {
+        return entities.size();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        if (entities.remove(id) != null) {
+            deleted(new Document("_id", id));
+        }
+    }
+
+    @Override
+    public void delete(T entity) {
+        deleteById(id(entity));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        entities.clear();
+        deleted(new Document());
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        return sorted(sort);
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(sorted(pageable.getSort()));
+        }
+        List<T> all = sorted(pageable.getSort());
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new PageImpl<>(all.subList(from, to), pageable, all.size());
+    }
+
+    // Only the id order is supported, queries on other fields are not needed without Mongo.
+    private List<T> sorted(Sort sort) {
+        List<T> all = new ArrayList<>(entities.values());
+        if (sort.isUnsorted()) {
+            return all;
+        }
+        Comparator<T> byId = Comparator.comparingLong(this::id);
+        for (Sort.Order order : sort) {
+            if (!"id".equals(order.getProperty()) && !"_id".equals(order.getProperty())) {
+                throw new UnsupportedOperationException("Sorting by " + order.getProperty() + " in memory");
+            }
+            all.sort(order.isAscending() ? byId : byId.reversed());
+        }
+        return all;
+    }
+
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example,
+                                     Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw unsupportedExample();
+    }
+
+    // Waits like a query on a database with readConnections connections and readLatency per query.
+    protected void read() {
+        if (readLatency.isZero()) {
+            return;
+        }
+        readConnections.acquireUninterruptibly();
+        try {
+            Thread.sleep(readLatency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            readConnections.release();
+        }
+    }
+
+    protected void saved(T entity) {
+        eventPublisher.publishEvent(new AfterSaveEvent<>(entity, new Document("_id", id(entity)), collection));
+    }
+
+    // An empty query stands for every document, like a deleteAll on the Mongo repositories.
+    protected void deleted(Document query) {
+        eventPublisher.publishEvent(new AfterDeleteEvent<>(query, type, collection));
+    }
+
+    private UnsupportedOperationException unsupportedExample() {
+        return new UnsupportedOperationException("Query by example is not supported in memory");
+    }
+}
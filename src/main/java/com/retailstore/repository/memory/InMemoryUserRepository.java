@@ -0,0 +1,38 @@
+package com.retailstore.repository.memory;
+
+import com.retailstore.config.InMemoryProperties;
+import com.retailstore.entity.User;
+import com.retailstore.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryUserRepository extends InMemoryRepository<User> implements UserRepository {
+
+    public InMemoryUserRepository(ApplicationEventPublisher eventPublisher, InMemoryProperties properties) {
+        super(User.class, "users", eventPublisher, properties.getSyntheticUsers(), properties);
+    }
+
+    @Override
+    protected long id(User user) {
+        return user.getId();
+    }
+
+    @Override
+    protected Long version(User user) {
+        return user.getVersion();
+    }
+
+    @Override
+    protected void setVersion(User user, Long version) {
+        user.setVersion(version);
+    }
+
+    @Override
+    protected User copy(User user) {
+        return new User(user.getId(), user.getUsername(), user.getPassword(), user.getType(), user.getCreatedAt(),
+                user.getVersion());
+    }
+}
@@ -0,0 +1,24 @@
+package com.retailstore.service;
+
+import com.retailstore.model.response.BillSnapshotResponse;
+import com.retailstore.model.response.DiscountCounterReport;
+import com.retailstore.model.response.DiscountSimulationReport;
+import com.retailstore.pricing.rule.DiscountRuleDefinition;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface BillAnalyticsService {
+
+    BillSnapshotResponse getSnapshot();
+
+    BillSnapshotResponse refreshSnapshot();
+
+    // Prices every bill of the snapshot with the given rules, or the active rules when empty.
+    DiscountSimulationReport simulate(List<DiscountRuleDefinition> rules, LocalDate date);
+
+    // Discounts counted in this instance over the last window, cut to the retention of the counters. The whole
+    // retention when the window is null.
+    DiscountCounterReport getDiscountCounters(Duration window);
+}
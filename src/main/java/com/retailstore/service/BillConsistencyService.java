@@ -0,0 +1,10 @@
+package com.retailstore.service;
+
+import com.retailstore.model.response.BillConsistencyReport;
+
+public interface BillConsistencyService {
+
+    BillConsistencyReport check(int limit);
+
+    BillConsistencyReport repair(int limit);
+}
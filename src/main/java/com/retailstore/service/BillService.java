@@ -1,6 +1,36 @@
 package com.retailstore.service;
 
+import com.retailstore.entity.Item;
+import com.retailstore.model.request.BillAmountRequest;
+import com.retailstore.model.request.CreateBillRequest;
+import com.retailstore.model.request.QuoteRequest;
+import com.retailstore.model.response.BillPayableResponse;
+import com.retailstore.model.response.BillTotalsResponse;
+import com.retailstore.pricing.DiscountBreakdown;
+import com.retailstore.pricing.Payable;
+import com.retailstore.pricing.PayableVersion;
+
+import java.util.List;
+
 public interface BillService {
 
-    double calculateNetPayableAmount(long billId, long userId);
+    // Minor units, see Money.
+    long calculateNetPayableAmount(long billId, long userId);
+
+    Payable calculatePayable(long billId, long userId);
+
+    // The version calculatePayable would return, without loading the items or pricing the bill. Null when the bill
+    // does not exist.
+    PayableVersion findPayableVersion(long billId, long userId);
+
+    List<BillPayableResponse> calculateNetPayableAmounts(List<BillAmountRequest> requests);
+
+    // Prices a cart for its user without storing it, only the user is looked up.
+    DiscountBreakdown quote(QuoteRequest request);
+
+    BillTotalsResponse createBill(CreateBillRequest request);
+
+    BillTotalsResponse addItem(long billId, long userId, Item item);
+
+    BillTotalsResponse removeItem(long billId, long userId, long itemId);
 }
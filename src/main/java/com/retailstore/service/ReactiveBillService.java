@@ -0,0 +1,15 @@
+package com.retailstore.service;
+
+import com.retailstore.model.request.BillAmountRequest;
+import com.retailstore.model.response.BillPayableResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ReactiveBillService {
+
+    Mono<Long> calculateNetPayableAmount(long billId, long userId);
+
+    Flux<BillPayableResponse> calculateNetPayableAmounts(List<BillAmountRequest> requests);
+}
@@ -0,0 +1,12 @@
+package com.retailstore.service;
+
+import com.retailstore.constant.ReportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface ReportService {
+
+    void writeBillReport(LocalDate date, ReportFormat format, OutputStream output) throws IOException;
+}
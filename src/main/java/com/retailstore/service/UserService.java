@@ -2,7 +2,16 @@ package com.retailstore.service;
 
 import com.retailstore.entity.User;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface UserService {
 
     User get(long userId);
+
+    List<User> getAll(Collection<Long> userIds);
+
+    void evict(long userId);
+
+    void evictAll();
 }
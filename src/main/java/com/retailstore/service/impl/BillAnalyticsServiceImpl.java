@@ -0,0 +1,102 @@
+package com.retailstore.service.impl;
+
+import com.retailstore.analytics.BillSnapshot;
+import com.retailstore.analytics.BillSnapshotLoader;
+import com.retailstore.analytics.DiscountCounters;
+import com.retailstore.analytics.DiscountTotals;
+import com.retailstore.analytics.SimulationTotals;
+import com.retailstore.constant.UserType;
+import com.retailstore.model.response.BillReportLine;
+import com.retailstore.model.response.BillSnapshotResponse;
+import com.retailstore.model.response.DiscountCounterLine;
+import com.retailstore.model.response.DiscountCounterReport;
+import com.retailstore.model.response.DiscountSimulationReport;
+import com.retailstore.pricing.rule.DiscountRuleDefinition;
+import com.retailstore.pricing.rule.DiscountRuleEngine;
+import com.retailstore.pricing.rule.DiscountRuleTable;
+import com.retailstore.service.BillAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class BillAnalyticsServiceImpl implements BillAnalyticsService {
+
+    private final BillSnapshotLoader billSnapshotLoader;
+    private final DiscountRuleEngine discountRuleEngine;
+    private final DiscountCounters discountCounters;
+
+    // Loaded on first use, a refresh replaces it while running scans keep the one they started with.
+    private volatile BillSnapshot snapshot;
+
+    @Override
+    public BillSnapshotResponse getSnapshot() {
+        return response(snapshot());
+    }
+
+    @Override
+    public synchronized BillSnapshotResponse refreshSnapshot() {
+        snapshot = billSnapshotLoader.load();
+        return response(snapshot);
+    }
+
+    @Override
+    public DiscountSimulationReport simulate(List<DiscountRuleDefinition> rules, LocalDate date) {
+        DiscountRuleTable table = rules == null || rules.isEmpty()
+                ? discountRuleEngine.getTable()
+                : DiscountRuleTable.compile(0, rules);
+        BillSnapshot bills = snapshot();
+
+        long start = System.nanoTime();
+        SimulationTotals totals = bills.simulate(table, date);
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        List<BillReportLine> lines = new ArrayList<>();
+        for (UserType userType : UserType.values()) {
+            long grossAmount = totals.grossAmount(userType);
+            long netPayableAmount = totals.netPayableAmount(userType);
+            lines.add(BillReportLine.total(userType, totals.bills(userType), grossAmount,
+                    totals.groceryAmount(userType), grossAmount - netPayableAmount, netPayableAmount));
+        }
+        return new DiscountSimulationReport(bills.getLoadedAt(), bills.getBillCount(), totals.getUnpriced(),
+                elapsedMillis, lines);
+    }
+
+    @Override
+    public DiscountCounterReport getDiscountCounters(Duration window) {
+        DiscountTotals totals = discountCounters.totals(window);
+        List<DiscountCounterLine> lines = new ArrayList<>();
+        for (UserType userType : UserType.values()) {
+            lines.add(DiscountCounterLine.total(userType, totals.bills(userType), totals.totalAmount(userType),
+                    totals.discountAmount(userType)));
+            totals.rules(userType).forEach((rule, total) ->
+                    lines.add(DiscountCounterLine.rule(userType, rule, total.bills(), total.discountAmount())));
+        }
+        return new DiscountCounterReport(totals.getFrom(), totals.getTo(), lines);
+    }
+
+    private BillSnapshot snapshot() {
+        BillSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = billSnapshotLoader.load();
+            }
+            return snapshot;
+        }
+    }
+
+    private static BillSnapshotResponse response(BillSnapshot snapshot) {
+        return new BillSnapshotResponse(snapshot.getBillCount(), snapshot.getItemCount(), snapshot.getSizeInBytes(),
+                snapshot.getLoadedAt());
+    }
+}
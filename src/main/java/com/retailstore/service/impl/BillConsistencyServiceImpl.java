@@ -0,0 +1,75 @@
+package com.retailstore.service.impl;
+
+import com.retailstore.cache.PayableResultCache;
+import com.retailstore.config.BillConsistencyProperties;
+import com.retailstore.entity.BillTotalsDrift;
+import com.retailstore.model.response.BillConsistencyReport;
+import com.retailstore.repository.BillRepository;
+import com.retailstore.service.BillConsistencyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class BillConsistencyServiceImpl implements BillConsistencyService {
+
+    private final BillRepository billRepository;
+    private final PayableResultCache payableResultCache;
+    private final BillConsistencyProperties properties;
+
+    // Compares the stored totals of every bill with the sums of its items inside Mongo.
+    @Override
+    public BillConsistencyReport check(int limit) {
+        return scan(limit, false);
+    }
+
+    // Same as check, and recomputes the stored totals of the drifted bills from their items.
+    @Override
+    public BillConsistencyReport repair(int limit) {
+        return scan(limit, true);
+    }
+
+    private BillConsistencyReport scan(int limit, boolean repair) {
+        long drifted = 0;
+        long repaired = 0;
+        List<BillTotalsDrift> drifts = new ArrayList<>();
+        List<Long> batch = new ArrayList<>(properties.getBatchSize());
+        try (Stream<BillTotalsDrift> stream = billRepository.streamTotalsDrift(properties.getBatchSize())) {
+            Iterator<BillTotalsDrift> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                BillTotalsDrift drift = iterator.next();
+                drifted++;
+                if (drifts.size() < limit) {
+                    drifts.add(drift);
+                }
+                if (repair) {
+                    batch.add(drift.id());
+                    if (batch.size() == properties.getBatchSize()) {
+                        repaired += billRepository.storeTotals(List.copyOf(batch));
+                        batch.clear();
+                    }
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            repaired += billRepository.storeTotals(List.copyOf(batch));
+        }
+        if (repaired > 0) {
+            payableResultCache.invalidateAll();
+        }
+
+        if (drifted > 0) {
+            log.warn("{} bills have stored totals that differ from their items, {} repaired", drifted, repaired);
+        }
+        return new BillConsistencyReport(drifted, repaired, drifts);
+    }
+}
@@ -1,84 +1,343 @@
 package com.retailstore.service.impl;
 
+import com.retailstore.analytics.DiscountCounters;
+import com.retailstore.cache.BillIdFilter;
+import com.retailstore.cache.PayableResult;
+import com.retailstore.cache.PayableResultCache;
+import com.retailstore.concurrent.FetchExecutor;
+import com.retailstore.concurrent.SingleFlight;
+import com.retailstore.config.BillLoadProperties;
+import com.retailstore.constant.BillLoadMode;
+import com.retailstore.constant.UserType;
 import com.retailstore.entity.Bill;
+import com.retailstore.entity.BillTotals;
 import com.retailstore.entity.Item;
 import com.retailstore.entity.User;
+import com.retailstore.exception.BillNotFoundException;
+import com.retailstore.metrics.BillingMetrics;
+import com.retailstore.model.request.BillAmountRequest;
+import com.retailstore.model.request.CreateBillRequest;
+import com.retailstore.model.request.QuoteRequest;
+import com.retailstore.model.response.BillPayableResponse;
+import com.retailstore.model.response.BillTotalsResponse;
+import com.retailstore.pricing.DiscountBreakdown;
+import com.retailstore.pricing.Payable;
+import com.retailstore.pricing.PayableVersion;
+import com.retailstore.pricing.PricedBillListener;
+import com.retailstore.pricing.PricingKernel;
+import com.retailstore.pricing.rule.DiscountRuleEngine;
+import com.retailstore.pricing.rule.DiscountRuleTable;
+import com.retailstore.pricing.rule.DiscountSchedule;
 import com.retailstore.repository.BillRepository;
 import com.retailstore.service.BillService;
 import com.retailstore.service.UserService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
-import static com.retailstore.constant.ItemType.GROCERY;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
-public class BillServiceImpl implements BillService {
+public class BillServiceImpl implements BillService, MeterBinder {
 
     private final BillRepository billRepository;
     private final UserService userService;
+    private final PayableResultCache payableResultCache;
+    private final BillIdFilter billIdFilter;
+    private final DiscountRuleEngine discountRuleEngine;
+    private final FetchExecutor fetchExecutor;
+    private final BillLoadProperties billLoadProperties;
+    private final BillingMetrics billingMetrics;
+    private final DiscountCounters discountCounters;
+    private final SingleFlight<PayableKey, Computed> payableComputations = new SingleFlight<>();
+    private final PricedBillListener pricedBill = this::priced;
 
     public Bill get(long id, long userId) {
+        if (!billIdFilter.mightContain(id)) {
+            throw new BillNotFoundException();
+        }
         return billRepository.findByIdAndUserId(id, userId)
-                .orElseThrow(() -> new RuntimeException("Bill not found"));
+                .orElseThrow(BillNotFoundException::new);
     }
 
     @Override
-    public double calculateNetPayableAmount(long billId, long userId) {
-        Bill bill = get(billId, userId);
+    public long calculateNetPayableAmount(long billId, long userId) {
+        return calculatePayable(billId, userId).netPayableAmount();
+    }
+
+    @Override
+    public Payable calculatePayable(long billId, long userId) {
+        Timer.Sample sample = billingMetrics.start();
+        String outcome = BillingMetrics.ERROR;
+        try {
+            if (!billIdFilter.mightContain(billId)) {
+                throw new BillNotFoundException();
+            }
+            DiscountRuleTable rules = discountRuleEngine.getTable();
+            PayableResult cached = payableResultCache.get(billId, userId);
+            if (cached != null) {
+                User user = userService.get(userId);
+                if (cached.isValidFor(user, rules.getVersion())) {
+                    outcome = BillingMetrics.CACHED;
+                    return new Payable(cached.netPayableAmount(), version(billId, cached.billVersion(),
+                            cached.contentHash(), user, rules, cached.validUntil()));
+                }
+            }
+
+            // Retried requests for the same bill share one computation, unless an invalidation came in between.
+            long stamp = payableResultCache.stamp();
+            Computed computed = payableComputations.execute(new PayableKey(billId, userId, stamp, rules.getVersion()),
+                    () -> compute(billId, userId, rules, stamp));
+            outcome = BillingMetrics.COMPUTED;
+            return new Payable(computed.netPayableAmount(), version(billId, computed.billVersion(),
+                    computed.contentHash(), computed.user(), rules, computed.validUntil()));
+        } finally {
+            billingMetrics.stopPayable(sample, outcome);
+        }
+    }
+
+    private Computed compute(long billId, long userId, DiscountRuleTable rules, long stamp) {
+        Fetched fetched = billingMetrics.timeFetch(() -> fetch(billId, userId));
+        User user = fetched.user();
+
+        // Summed up front, the entity tag needs the sums as well as the amount. Both count as pricing.
+        LocalDate today = LocalDate.now();
+        Timer.Sample pricing = billingMetrics.start();
+        BillTotals bill = PricingKernel.sum(fetched.bill());
+        long netPayableAmount = PricingKernel.netPayableAmount(bill, user, rules, today, pricedBill);
+        billingMetrics.stopDiscount(pricing);
+        LocalDate validUntil = rules.nextChangeDate(user.getType(), user.getCreatedAt(), today);
+        long contentHash = PayableVersion.contentHash(bill.totalAmount(), bill.groceryAmount());
+        payableResultCache.put(stamp, bill.id(), bill.version(), contentHash, user, rules.getVersion(),
+                netPayableAmount, validUntil);
+        return new Computed(bill.version(), contentHash, user, netPayableAmount, validUntil);
+    }
+
+    @Override
+    public PayableVersion findPayableVersion(long billId, long userId) {
+        if (!billIdFilter.mightContain(billId)) {
+            return null;
+        }
+        DiscountRuleTable rules = discountRuleEngine.getTable();
         User user = userService.get(userId);
-        List<Item> items = bill.getItems();
+        PayableResult cached = payableResultCache.get(billId, userId);
+        if (cached != null && cached.isValidFor(user, rules.getVersion())) {
+            return version(billId, cached.billVersion(), cached.contentHash(), user, rules, cached.validUntil());
+        }
+        // A bill written before the totals were stored has no sums to compare, it is priced instead.
+        return billRepository.findVersionByIdAndUserId(billId, userId)
+                .filter(bill -> bill.getTotalAmount() != null && bill.getGroceryAmount() != null)
+                .map(bill -> version(billId, bill.getVersion(),
+                        PayableVersion.contentHash(bill.getTotalAmount(), bill.getGroceryAmount()), user, rules,
+                        rules.nextChangeDate(user.getType(), user.getCreatedAt(), LocalDate.now())))
+                .orElse(null);
+    }
 
+    private static PayableVersion version(long billId, Long billVersion, long contentHash, User user,
+                                          DiscountRuleTable rules, LocalDate validUntil) {
+        return new PayableVersion(billId, billVersion, contentHash, user.getId(), user.getVersion(),
+                rules.getFingerprint(), validUntil);
+    }
+
+    @Override
+    public List<BillPayableResponse> calculateNetPayableAmounts(List<BillAmountRequest> requests) {
+        Set<Long> billIds = requests.stream()
+                .map(BillAmountRequest::getBillId)
+                .filter(billIdFilter::mightContain)
+                .collect(toSet());
+        Map<Long, BillTotals> bills = billIds.isEmpty() ? Map.of() : findTotalsByIdIn(billIds).stream()
+                .collect(toMap(BillTotals::id, Function.identity()));
 
-        double totalAmount = calculateTotalAmount(items);
-        double groceryAmount = calculateGroceryAmount(items);
+        // Only users owning one of the requested bills need to be loaded.
+        Set<Long> userIds = requests.stream()
+                .filter(request -> isOwnedBy(bills.get(request.getBillId()), request.getUserId()))
+                .map(BillAmountRequest::getUserId)
+                .collect(toSet());
+        Map<Long, User> users = userIds.isEmpty() ? Map.of() : userService.getAll(userIds).stream()
+                .collect(toMap(User::getId, Function.identity()));
 
-        // The percentage based discounts do not apply on groceries.
-        double nonGroceryAmount = totalAmount - groceryAmount;
-        double percentageDiscount = calculatePercentageDiscount(user, nonGroceryAmount);
+        DiscountRuleTable rules = discountRuleEngine.getTable();
+        LocalDate today = LocalDate.now();
+        return requests.stream()
+                .map(request -> calculateNetPayableAmount(request, bills, users, rules, today))
+                .toList();
+    }
 
-        //  Every $100 on the bill, there would be a $ 5 discount.
-        double additionalDiscount = calculateAdditionalDiscount(totalAmount);
+    private BillPayableResponse calculateNetPayableAmount(BillAmountRequest request, Map<Long, BillTotals> bills,
+                                                          Map<Long, User> users, DiscountRuleTable rules,
+                                                          LocalDate today) {
+        long billId = request.getBillId();
+        long userId = request.getUserId();
 
-        return totalAmount - percentageDiscount - additionalDiscount;
+        BillTotals bill = bills.get(billId);
+        if (!isOwnedBy(bill, userId)) {
+            billingMetrics.countBatchResult(false);
+            return BillPayableResponse.failure(billId, userId, "Bill not found");
+        }
+
+        User user = users.get(userId);
+        if (user == null) {
+            billingMetrics.countBatchResult(false);
+            return BillPayableResponse.failure(billId, userId, "User not found");
+        }
+
+        billingMetrics.countBatchResult(true);
+        return BillPayableResponse.success(billId, userId, price(bill, user, rules, today));
     }
 
-    private double calculateTotalAmount(List<Item> items) {
-        return items.stream()
-                .mapToDouble(Item::getPrice)
-                .sum();
+    // The same schedule a stored bill of the user would be priced with. Served from the user cache, nothing is
+    // written and the items were already summed while the request was read.
+    @Override
+    public DiscountBreakdown quote(QuoteRequest request) {
+        User user = userService.get(request.getUserId());
+        return discountRuleEngine.getTable()
+                .schedule(user.getType(), user.getCreatedAt(), LocalDate.now())
+                .breakdown(request.getTotalAmount(), request.getGroceryAmount());
     }
 
-    private double calculateGroceryAmount(List<Item> items) {
-        return items.stream()
-                .filter(item -> GROCERY.equals(item.getType()))
-                .mapToDouble(Item::getPrice)
-                .sum();
+    // The totals of a new bill are stored with it by BillTotalsCallback.
+    @Override
+    public BillTotalsResponse createBill(CreateBillRequest request) {
+        List<Item> items = request.getItems() != null ? request.getItems() : List.of();
+        Set<Long> itemIds = new HashSet<>();
+        for (Item item : items) {
+            validate(item);
+            if (!itemIds.add(item.getId())) {
+                throw new IllegalArgumentException("Duplicate item " + item.getId());
+            }
+        }
+        // Added before the insert, so the new bill is never turned away by the filter.
+        billIdFilter.add(request.getId());
+        Bill bill = billRepository.insert(new Bill(request.getId(), request.getUserId(), items));
+        return BillTotalsResponse.of(BillTotals.stored(bill));
     }
 
-    private double calculatePercentageDiscount(User user, double nonGroceryAmount) {
-        return switch (user.getType()) {
-            case EMPLOYEE -> 0.30 * nonGroceryAmount;
-            case AFFILIATE -> 0.10 * nonGroceryAmount;
-            case CUSTOMER -> {
-                if (user.getCreatedAt().isBefore(LocalDate.now().minusYears(2))) {
-                    yield 0.05 * nonGroceryAmount;
-                }
-                yield 0;
+    @Override
+    public BillTotalsResponse addItem(long billId, long userId, Item item) {
+        validate(item);
+        if (!billIdFilter.mightContain(billId)) {
+            throw new BillNotFoundException();
+        }
+        Optional<BillTotals> bill = billRepository.pushItem(billId, userId, item);
+        if (bill.isEmpty() && billRepository.storeMissingTotals(billId, userId)) {
+            bill = billRepository.pushItem(billId, userId, item);
+        }
+        return mutated(bill, billId, userId, "Item " + item.getId() + " is already on the bill");
+    }
+
+    @Override
+    public BillTotalsResponse removeItem(long billId, long userId, long itemId) {
+        if (!billIdFilter.mightContain(billId)) {
+            throw new BillNotFoundException();
+        }
+        Optional<BillTotals> bill = billRepository.pullItem(billId, userId, itemId);
+        if (bill.isEmpty() && billRepository.storeMissingTotals(billId, userId)) {
+            bill = billRepository.pullItem(billId, userId, itemId);
+        }
+        return mutated(bill, billId, userId, "Item " + itemId + " is not on the bill");
+    }
+
+    // Item updates bypass the mapping events, so the cached result is dropped here.
+    private BillTotalsResponse mutated(Optional<BillTotals> bill, long billId, long userId, String itemError) {
+        if (bill.isEmpty()) {
+            if (!billRepository.existsByIdAndUserId(billId, userId)) {
+                throw new BillNotFoundException();
             }
-        };
+            throw new IllegalArgumentException(itemError);
+        }
+        payableResultCache.invalidate(billId);
+        return BillTotalsResponse.of(bill.get());
     }
 
-    private double calculateAdditionalDiscount(double totalAmount) {
-        return BigDecimal.valueOf(totalAmount)
-                .divide(BigDecimal.valueOf(100), RoundingMode.DOWN)
-                .multiply(BigDecimal.valueOf(5))
-                .doubleValue();
+    private void validate(Item item) {
+        if (item.getType() == null || item.getPrice() < 0) {
+            throw new IllegalArgumentException("Item " + item.getId() + " needs a type and a non-negative price");
+        }
+    }
+
+    private Fetched fetch(long billId, long userId) {
+        CompletableFuture<BillTotals> billFetch = fetchExecutor.fork(() -> getTotals(billId, userId));
+        User user;
+        try {
+            user = userService.get(userId);
+        } catch (RuntimeException e) {
+            // A missing bill is reported before a missing user.
+            FetchExecutor.join(billFetch);
+            throw e;
+        }
+        return new Fetched(FetchExecutor.join(billFetch), user);
+    }
+
+    private long price(BillTotals bill, User user, DiscountRuleTable rules, LocalDate today) {
+        return billingMetrics.timeDiscount(() -> PricingKernel.netPayableAmount(bill, user, rules, today, pricedBill));
+    }
+
+    // Results served from the payable cache are not priced, a version priced again is skipped by the counters.
+    private void priced(long billId, Long billVersion, UserType userType, DiscountSchedule schedule, int itemCount,
+                        long totalAmount, long groceryAmount, long netPayableAmount) {
+        billingMetrics.recordBill(userType, itemCount, totalAmount - netPayableAmount);
+        discountCounters.priced(billId, billVersion, userType, schedule, itemCount, totalAmount, groceryAmount,
+                netPayableAmount);
     }
-}
 
+    private boolean isOwnedBy(BillTotals bill, long userId) {
+        return bill != null && bill.userId() == userId;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("retailstore.coalesced.calls", payableComputations, SingleFlight::coalesced)
+                .description("Calls answered by a concurrent identical call already in flight")
+                .tag("operation", "payable")
+                .register(registry);
+    }
+
+    private BillTotals getTotals(long billId, long userId) {
+        BillLoadMode mode = billLoadProperties.getMode();
+        if (mode == BillLoadMode.FULL) {
+            return BillTotals.of(get(billId, userId));
+        }
+        return billRepository.findTotalsByIdAndUserId(billId, userId, minAggregatedItems(mode))
+                .orElseThrow(BillNotFoundException::new);
+    }
+
+    private List<BillTotals> findTotalsByIdIn(Set<Long> billIds) {
+        BillLoadMode mode = billLoadProperties.getMode();
+        if (mode == BillLoadMode.FULL) {
+            return billRepository.findByIdIn(billIds).stream()
+                    .map(BillTotals::of)
+                    .toList();
+        }
+        return billRepository.findTotalsByIdIn(billIds, minAggregatedItems(mode));
+    }
+
+    private int minAggregatedItems(BillLoadMode mode) {
+        return mode == BillLoadMode.AUTO ? billLoadProperties.getAggregateMinItems() : 0;
+    }
+
+    private record Fetched(BillTotals bill, User user) {
+    }
+
+    private record PayableKey(long billId, long userId, long stamp, long rulesVersion) {
+    }
+
+    private record Computed(Long billVersion, long contentHash, User user, long netPayableAmount,
+                            LocalDate validUntil) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.retailstore.service.impl;
+
+import com.retailstore.analytics.DiscountCounters;
+import com.retailstore.cache.BillIdFilter;
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.BillTotals;
+import com.retailstore.entity.User;
+import com.retailstore.exception.BillNotFoundException;
+import com.retailstore.model.request.BillAmountRequest;
+import com.retailstore.model.response.BillPayableResponse;
+import com.retailstore.pricing.PricingKernel;
+import com.retailstore.pricing.rule.DiscountRuleEngine;
+import com.retailstore.pricing.rule.DiscountRuleTable;
+import com.retailstore.repository.ReactiveBillRepository;
+import com.retailstore.repository.ReactiveUserRepository;
+import com.retailstore.service.ReactiveBillService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toSet;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveBillServiceImpl implements ReactiveBillService {
+
+    private final ReactiveBillRepository billRepository;
+    private final ReactiveUserRepository userRepository;
+    private final DiscountRuleEngine discountRuleEngine;
+    private final BillIdFilter billIdFilter;
+    private final DiscountCounters discountCounters;
+
+    @Override
+    public Mono<Long> calculateNetPayableAmount(long billId, long userId) {
+        if (!billIdFilter.mightContain(billId)) {
+            return Mono.error(new BillNotFoundException());
+        }
+        // Both lookups run at once, an empty result is only turned into an error once both are back,
+        // so a missing bill is reported before a missing user as in BillServiceImpl.
+        return Mono.zip(
+                        billRepository.findByIdAndUserId(billId, userId).map(Optional::of).defaultIfEmpty(Optional.empty()),
+                        userRepository.findById(userId).map(Optional::of).defaultIfEmpty(Optional.empty()))
+                .map(found -> {
+                    Bill bill = found.getT1().orElseThrow(BillNotFoundException::new);
+                    User user = found.getT2().orElseThrow(() -> new RuntimeException("User not found"));
+                    return PricingKernel.netPayableAmount(BillTotals.of(bill), user, discountRuleEngine.getTable(),
+                            LocalDate.now(), discountCounters);
+                });
+    }
+
+    @Override
+    public Flux<BillPayableResponse> calculateNetPayableAmounts(List<BillAmountRequest> requests) {
+        Set<Long> billIds = requests.stream()
+                .map(BillAmountRequest::getBillId)
+                .filter(billIdFilter::mightContain)
+                .collect(toSet());
+
+        return (billIds.isEmpty() ? Flux.<Bill>empty() : billRepository.findByIdIn(billIds))
+                .collectMap(Bill::getId)
+                .flatMap(bills -> {
+                    // Only users owning one of the requested bills need to be loaded.
+                    Set<Long> userIds = requests.stream()
+                            .filter(request -> isOwnedBy(bills.get(request.getBillId()), request.getUserId()))
+                            .map(BillAmountRequest::getUserId)
+                            .collect(toSet());
+                    Mono<Map<Long, User>> users = userIds.isEmpty()
+                            ? Mono.just(Map.of())
+                            : userRepository.findAllById(userIds).collectMap(User::getId);
+                    return users.map(found -> {
+                        DiscountRuleTable rules = discountRuleEngine.getTable();
+                        LocalDate today = LocalDate.now();
+                        return requests.stream()
+                                .map(request -> calculateNetPayableAmount(request, bills, found, rules, today))
+                                .toList();
+                    });
+                })
+                .flatMapIterable(responses -> responses);
+    }
+
+    private BillPayableResponse calculateNetPayableAmount(BillAmountRequest request, Map<Long, Bill> bills,
+                                                          Map<Long, User> users, DiscountRuleTable rules,
+                                                          LocalDate today) {
+        long billId = request.getBillId();
+        long userId = request.getUserId();
+
+        Bill bill = bills.get(billId);
+        if (!isOwnedBy(bill, userId)) {
+            return BillPayableResponse.failure(billId, userId, "Bill not found");
+        }
+
+        User user = users.get(userId);
+        if (user == null) {
+            return BillPayableResponse.failure(billId, userId, "User not found");
+        }
+
+        return BillPayableResponse.success(billId, userId,
+                PricingKernel.netPayableAmount(BillTotals.of(bill), user, rules, today, discountCounters));
+    }
+
+    private boolean isOwnedBy(Bill bill, long userId) {
+        return bill != null && bill.getUserId() == userId;
+    }
+}
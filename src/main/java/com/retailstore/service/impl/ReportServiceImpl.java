@@ -0,0 +1,119 @@
+package com.retailstore.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retailstore.config.MoneyProperties;
+import com.retailstore.config.ReportProperties;
+import com.retailstore.constant.ReportFormat;
+import com.retailstore.constant.UserType;
+import com.retailstore.entity.BillTotals;
+import com.retailstore.entity.User;
+import com.retailstore.model.response.BillReportLine;
+import com.retailstore.pricing.PricingKernel;
+import com.retailstore.pricing.rule.DiscountRuleEngine;
+import com.retailstore.pricing.rule.DiscountRuleTable;
+import com.retailstore.report.ReportWriter;
+import com.retailstore.repository.BillRepository;
+import com.retailstore.service.ReportService;
+import com.retailstore.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class ReportServiceImpl implements ReportService {
+
+    private final BillRepository billRepository;
+    private final UserService userService;
+    private final DiscountRuleEngine discountRuleEngine;
+    private final ReportProperties reportProperties;
+    private final MoneyProperties moneyProperties;
+    private final ObjectMapper objectMapper;
+
+    // Bills are read from a cursor in batches and written out as they are priced, so memory does not grow
+    // with the number of bills. A slow client blocks the writes, which in turn stops the cursor from fetching.
+    @Override
+    public void writeBillReport(LocalDate date, ReportFormat format, OutputStream output) throws IOException {
+        DiscountRuleTable rules = discountRuleEngine.getTable();
+        Map<UserType, Totals> totals = new EnumMap<>(UserType.class);
+        int batchSize = reportProperties.getBatchSize();
+
+        try (Stream<BillTotals> bills = billRepository.streamAllTotals(batchSize);
+             ReportWriter writer = ReportWriter.of(format, output, objectMapper,
+                     moneyProperties.getFormat())) {
+            Iterator<BillTotals> cursor = bills.iterator();
+            List<BillTotals> batch = new ArrayList<>(batchSize);
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == batchSize || !cursor.hasNext()) {
+                    writeBatch(batch, rules, date, totals, writer);
+                    batch.clear();
+                }
+            }
+
+            for (Map.Entry<UserType, Totals> total : totals.entrySet()) {
+                writer.write(total.getValue().line(total.getKey()));
+            }
+        }
+    }
+
+    private void writeBatch(List<BillTotals> batch, DiscountRuleTable rules, LocalDate date,
+                            Map<UserType, Totals> totals, ReportWriter writer) throws IOException {
+        Set<Long> userIds = batch.stream()
+                .map(BillTotals::userId)
+                .collect(toSet());
+        Map<Long, User> users = userService.getAll(userIds).stream()
+                .collect(toMap(User::getId, Function.identity()));
+
+        for (BillTotals bill : batch) {
+            // Bills of unknown users cannot be priced and are left out of the report.
+            User user = users.get(bill.userId());
+            if (user == null) {
+                continue;
+            }
+            long netPayableAmount = PricingKernel.netPayableAmount(bill, user, rules, date);
+            BillReportLine line = BillReportLine.bill(bill.id(), user.getId(), user.getType(),
+                    bill.totalAmount(), bill.groceryAmount(), netPayableAmount);
+            totals.computeIfAbsent(user.getType(), type -> new Totals()).add(line);
+            writer.write(line);
+        }
+    }
+
+    private static class Totals {
+
+        // Minor units, the totals stay exact over millions of bills.
+        private long bills;
+        private long gross;
+        private long grocery;
+        private long discount;
+        private long net;
+
+        private void add(BillReportLine line) {
+            bills++;
+            gross += line.getGrossAmount();
+            grocery += line.getGroceryAmount();
+            discount += line.getDiscountAmount();
+            net += line.getNetPayableAmount();
+        }
+
+        private BillReportLine line(UserType userType) {
+            return BillReportLine.total(userType, bills, gross, grocery, discount, net);
+        }
+    }
+}
@@ -1,20 +1,96 @@
 package com.retailstore.service.impl;
 
+import com.retailstore.cache.UserCache;
+import com.retailstore.concurrent.SingleFlight;
 import com.retailstore.entity.User;
 import com.retailstore.repository.UserRepository;
 import com.retailstore.service.UserService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
-public class UserServiceImpl implements UserService {
+public class UserServiceImpl implements UserService, MeterBinder {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final SingleFlight<UserLoad, User> userLoads = new SingleFlight<>();
 
+    // Cache hits are answered directly, concurrent misses for a user share one load, also across different bills.
     @Override
     public User get(long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userCache.getIfPresent(userId);
+        if (user == null) {
+            long stamp = userCache.stamp();
+            user = userLoads.execute(new UserLoad(userId, stamp), () -> load(userId, stamp));
+        }
+        if (user == null) {
+            throw new RuntimeException("User not found");
+        }
+        return user;
+    }
+
+    // Cache hits are answered directly, the missing users are read in one query and cached like single loads.
+    @Override
+    public List<User> getAll(Collection<Long> userIds) {
+        Map<Long, User> users = new LinkedHashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long userId : userIds) {
+            User user = userCache.getIfPresent(userId);
+            if (user != null) {
+                users.put(userId, user);
+            } else {
+                missing.add(userId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long stamp = userCache.stamp();
+            for (User user : userRepository.findAllById(missing)) {
+                userCache.put(stamp, user);
+                users.put(user.getId(), user);
+            }
+        }
+        return List.copyOf(users.values());
+    }
+
+    @Override
+    public void evict(long userId) {
+        userCache.invalidate(userId);
+    }
+
+    @Override
+    public void evictAll() {
+        userCache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("retailstore.coalesced.calls", userLoads, SingleFlight::coalesced)
+                .description("Calls answered by a concurrent identical call already in flight")
+                .tag("operation", "user")
+                .register(registry);
+    }
+
+    private User load(long userId, long stamp) {
+        User user = userRepository.findById(userId).orElse(null);
+        if (user != null) {
+            userCache.put(stamp, user);
+        }
+        return user;
+    }
+
+    private record UserLoad(long userId, long stamp) {
     }
 }
@@ -0,0 +1,95 @@
+package com.retailstore.admission;
+
+import com.retailstore.config.AdmissionProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveLimitTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    private static AdmissionProperties properties() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setInitialLimit(10);
+        properties.setMinLimit(2);
+        properties.setMaxLimit(20);
+        properties.setTargetLatency(Duration.ofMillis(100));
+        properties.setBackoffRatio(0.5);
+        properties.setMaxQueue(0);
+        return properties;
+    }
+
+    @Test
+    public void testLimitGrowsWithFastRequestsAndHalvesOncePerOverload() throws InterruptedException {
+        AdaptiveLimit limit = new AdaptiveLimit(properties());
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limit.acquire());
+            limit.release(System.nanoTime(), FAST);
+        }
+        assertEquals(11, limit.getLimit());
+
+        // Both requests were admitted before the first one reported the overload, only one backoff is applied.
+        long started = System.nanoTime();
+        assertTrue(limit.acquire());
+        assertTrue(limit.acquire());
+        limit.release(started, SLOW);
+        limit.release(started, SLOW);
+        assertEquals(5, limit.getLimit());
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limit.acquire());
+            limit.release(System.nanoTime(), SLOW);
+        }
+        assertEquals(2, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    public void testRequestsOverTheLimitAreRejectedWhenTheQueueIsFull() throws InterruptedException {
+        AdmissionProperties properties = properties();
+        properties.setInitialLimit(2);
+        AdaptiveLimit limit = new AdaptiveLimit(properties);
+
+        assertTrue(limit.acquire());
+        assertTrue(limit.acquire());
+        assertFalse(limit.acquire());
+
+        limit.release(System.nanoTime(), FAST);
+        assertTrue(limit.acquire());
+    }
+
+    @Test
+    public void testQueuedRequestIsAdmittedWhenASlotFrees() throws Exception {
+        AdmissionProperties properties = properties();
+        properties.setInitialLimit(2);
+        properties.setMaxQueue(1);
+        properties.setMaxWait(Duration.ofSeconds(10));
+        AdaptiveLimit limit = new AdaptiveLimit(properties);
+        assertTrue(limit.acquire());
+        assertTrue(limit.acquire());
+
+        boolean[] admitted = new boolean[1];
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try {
+                admitted[0] = limit.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        while (limit.getWaiting() == 0) {
+            Thread.onSpinWait();
+        }
+        assertFalse(limit.acquire());
+
+        limit.release(System.nanoTime(), FAST);
+        waiter.join();
+        assertTrue(admitted[0]);
+        assertEquals(0, limit.getWaiting());
+    }
+}
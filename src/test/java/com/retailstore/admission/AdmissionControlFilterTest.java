@@ -0,0 +1,79 @@
+package com.retailstore.admission;
+
+import com.retailstore.config.AdmissionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AdmissionControlFilterTest {
+
+    private SimpleMeterRegistry registry;
+
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setInitialLimit(4);
+        properties.setMinLimit(1);
+        properties.setMaxQueue(0);
+        properties.setUserShare(0.5);
+        properties.setRetryAfter(Duration.ofSeconds(2));
+        registry = new SimpleMeterRegistry();
+        filter = new AdmissionControlFilter(properties, registry);
+    }
+
+    @Test
+    public void testUserOverItsQuotaGetsTooManyRequests() throws Exception {
+        // The request of user 1 reaches the chain while two more of its requests are already in flight.
+        MockHttpServletResponse nested = new MockHttpServletResponse();
+        filter.doFilter(request(1), new MockHttpServletResponse(), (request, response) ->
+                filter.doFilter(request(1), new MockHttpServletResponse(), (inner, innerResponse) ->
+                        filter.doFilter(request(1), nested, new MockFilterChain())));
+
+        assertEquals(429, nested.getStatus());
+        assertEquals("2", nested.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, registry.get("retailstore.admission.rejected").tag("reason", "user_quota").counter().count());
+    }
+
+    @Test
+    public void testSaturatedLimitGetsServiceUnavailable() throws Exception {
+        AdaptiveLimit limit = filter.getLimit();
+        for (int i = 0; i < limit.getLimit(); i++) {
+            limit.acquire();
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/bill/amounts"), response, new MockFilterChain());
+
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(4, registry.get("retailstore.admission.in.flight").gauge().value());
+        assertEquals(1, registry.get("retailstore.admission.rejected").tag("reason", "saturated").counter().count());
+    }
+
+    @Test
+    public void testAdmittedRequestReleasesItsSlots() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request(1), response, new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+        assertEquals(0, filter.getLimit().getInFlight());
+    }
+
+    private static MockHttpServletRequest request(long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bill/amount");
+        request.setParameter("billId", "1");
+        request.setParameter("userId", Long.toString(userId));
+        return request;
+    }
+}
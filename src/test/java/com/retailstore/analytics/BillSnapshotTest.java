@@ -0,0 +1,90 @@
+package com.retailstore.analytics;
+
+import com.retailstore.constant.ItemType;
+import com.retailstore.constant.UserType;
+import com.retailstore.entity.Item;
+import com.retailstore.pricing.PricingKernel;
+import com.retailstore.pricing.rule.DefaultDiscountRules;
+import com.retailstore.pricing.rule.DiscountRuleTable;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BillSnapshotTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+
+    private final DiscountRuleTable rules = DiscountRuleTable.compile(1, DefaultDiscountRules.get());
+
+    @Test
+    public void testParallelScanMatchesKernel() {
+        Random random = new Random(17);
+        BillSnapshot.Builder builder = BillSnapshot.builder();
+        Map<UserType, long[]> expected = new EnumMap<>(UserType.class);
+        int unpriced = 0;
+
+        // More bills than one scan chunk and than the initial column capacity.
+        for (int bill = 0; bill < 40_000; bill++) {
+            UserType userType = random.nextInt(10) == 0 ? null : UserType.values()[random.nextInt(3)];
+            LocalDate createdAt = random.nextBoolean() ? TODAY.minusYears(3) : TODAY.minusMonths(1);
+            builder.bill(bill, bill % 100, userType, createdAt);
+
+            List<Item> items = new ArrayList<>();
+            for (int i = random.nextInt(20); i > 0; i--) {
+                ItemType type = random.nextBoolean() ? ItemType.GROCERY : ItemType.OTHER;
+                Item item = new Item(i, random.nextInt(50_000), type);
+                items.add(item);
+                builder.item(item.getPrice(), item.getType());
+            }
+
+            if (userType == null) {
+                unpriced++;
+                continue;
+            }
+            long[] sums = expected.computeIfAbsent(userType, type -> new long[2]);
+            sums[0]++;
+            sums[1] += PricingKernel.netPayableAmount(items, rules.schedule(userType, createdAt, TODAY));
+        }
+
+        BillSnapshot snapshot = builder.build(Instant.EPOCH);
+        SimulationTotals totals = snapshot.simulate(rules, TODAY);
+
+        assertEquals(40_000, snapshot.getBillCount());
+        assertEquals(unpriced, totals.getUnpriced());
+        for (UserType userType : UserType.values()) {
+            assertEquals(expected.get(userType)[0], totals.bills(userType));
+            assertEquals(expected.get(userType)[1], totals.netPayableAmount(userType));
+        }
+    }
+
+    @Test
+    public void testColumnsKeepItemsWithTheirBill() {
+        BillSnapshot snapshot = BillSnapshot.builder()
+                .bill(7, 1, UserType.EMPLOYEE, TODAY)
+                .item(30_000, ItemType.GROCERY)
+                .item(50_000, ItemType.OTHER)
+                .bill(8, 2, UserType.CUSTOMER, null)
+                .bill(9, 2, UserType.CUSTOMER, null)
+                .item(10_000, null)
+                .build(Instant.EPOCH);
+
+        SimulationTotals totals = snapshot.simulate(rules, TODAY);
+
+        assertEquals(3, snapshot.getBillCount());
+        assertEquals(3, snapshot.getItemCount());
+        assertEquals(9, snapshot.billId(2));
+        assertEquals(80_000, totals.grossAmount(UserType.EMPLOYEE));
+        assertEquals(30_000, totals.groceryAmount(UserType.EMPLOYEE));
+        assertEquals(61_000, totals.netPayableAmount(UserType.EMPLOYEE));
+        assertEquals(2, totals.bills(UserType.CUSTOMER));
+        assertEquals(9_500, totals.netPayableAmount(UserType.CUSTOMER));
+    }
+}
@@ -0,0 +1,184 @@
+package com.retailstore.analytics;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.retailstore.config.DiscountCounterProperties;
+import com.retailstore.constant.UserType;
+import com.retailstore.pricing.rule.DefaultDiscountRules;
+import com.retailstore.pricing.rule.DiscountRuleTable;
+import com.retailstore.pricing.rule.DiscountSchedule;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DiscountCountersTest {
+
+    private static final Instant START = Instant.parse("2024-06-01T10:00:00Z");
+
+    private Clock clock;
+
+    private DiscountCounterProperties properties;
+
+    private DiscountSchedule employee;
+
+    @BeforeEach
+    public void setup() {
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(START.toEpochMilli());
+        properties = new DiscountCounterProperties();
+
+        LocalDate today = LocalDate.of(2024, 6, 1);
+        employee = DiscountRuleTable.compile(1, DefaultDiscountRules.get())
+                .schedule(UserType.EMPLOYEE, today, today);
+    }
+
+    @Test
+    public void testWindowsSumTheirBucketsAndOlderBucketsRollOff() {
+        DiscountCounters discountCounters = new DiscountCounters(properties, clock);
+        discountCounters.record(UserType.EMPLOYEE, employee, 80_000, 30_000);
+        advance(Duration.ofMinutes(30));
+        discountCounters.record(UserType.EMPLOYEE, employee, 10_000, 0);
+
+        DiscountTotals lastTenMinutes = discountCounters.totals(Duration.ofMinutes(10));
+        assertEquals(1, lastTenMinutes.bills(UserType.EMPLOYEE));
+        assertEquals(3_500, lastTenMinutes.discountAmount(UserType.EMPLOYEE));
+        assertEquals(START.plus(Duration.ofMinutes(21)), lastTenMinutes.getFrom());
+
+        DiscountTotals retention = discountCounters.totals(null);
+        assertEquals(2, retention.bills(UserType.EMPLOYEE));
+        assertEquals(90_000, retention.totalAmount(UserType.EMPLOYEE));
+        assertEquals(22_500, retention.discountAmount(UserType.EMPLOYEE));
+        assertEquals(new DiscountTotals.RuleTotal(2, 18_000),
+                retention.rules(UserType.EMPLOYEE).get(DefaultDiscountRules.EMPLOYEE_RULE));
+        assertEquals(new DiscountTotals.RuleTotal(2, 4_500),
+                retention.rules(UserType.EMPLOYEE).get(DefaultDiscountRules.BULK_RULE));
+
+        // The first bucket leaves the window after the retention, its slot is reused by the next bill.
+        advance(Duration.ofMinutes(31));
+        discountCounters.record(UserType.EMPLOYEE, employee, 10_000, 0);
+        assertEquals(2, discountCounters.totals(null).bills(UserType.EMPLOYEE));
+        // The replaced bucket is kept until it is flushed.
+        assertEquals(3, discountCounters.unflushed().stream()
+                .mapToLong(bucket -> bucket.get(UserType.EMPLOYEE).bills().count())
+                .sum());
+    }
+
+    @Test
+    public void testEachBillVersionIsCountedOnce() {
+        DiscountCounters discountCounters = new DiscountCounters(properties, clock);
+        discountCounters.priced(1, 1L, UserType.EMPLOYEE, employee, 3, 80_000, 30_000, 61_000);
+        discountCounters.priced(1, 1L, UserType.EMPLOYEE, employee, 3, 80_000, 30_000, 61_000);
+        discountCounters.priced(2, null, UserType.EMPLOYEE, employee, 1, 10_000, 0, 6_500);
+        discountCounters.priced(2, null, UserType.EMPLOYEE, employee, 1, 10_000, 0, 6_500);
+        assertEquals(2, discountCounters.totals(null).bills(UserType.EMPLOYEE));
+
+        // A changed bill is a new version and counted again.
+        discountCounters.priced(1, 2L, UserType.EMPLOYEE, employee, 2, 70_000, 20_000, 51_500);
+        DiscountTotals totals = discountCounters.totals(null);
+        assertEquals(3, totals.bills(UserType.EMPLOYEE));
+        assertEquals(160_000, totals.totalAmount(UserType.EMPLOYEE));
+        assertEquals(19_000 + 3_500 + 18_500, totals.discountAmount(UserType.EMPLOYEE));
+    }
+
+    @Test
+    public void testConcurrentRecordsAreAllCounted() throws Exception {
+        DiscountCounters discountCounters = new DiscountCounters(properties, clock);
+        try (ExecutorService cashiers = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                cashiers.submit(() -> {
+                    for (int bill = 0; bill < 10_000; bill++) {
+                        discountCounters.record(UserType.EMPLOYEE, employee, 80_000, 30_000);
+                    }
+                });
+            }
+        }
+
+        DiscountTotals totals = discountCounters.totals(null);
+        assertEquals(80_000, totals.bills(UserType.EMPLOYEE));
+        assertEquals(80_000L * 19_000, totals.discountAmount(UserType.EMPLOYEE));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlushUpsertsOnlyWhatWasCountedSinceTheLastFlush() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        BulkOperations bulkOperations = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), anyString())).thenReturn(bulkOperations);
+        when(bulkOperations.upsert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.unacknowledged());
+
+        DiscountCounters discountCounters = new DiscountCounters(properties, clock);
+        DiscountCounterFlusher flusher = new DiscountCounterFlusher(discountCounters, mongoTemplate, properties);
+        discountCounters.record(UserType.EMPLOYEE, employee, 80_000, 30_000);
+        discountCounters.record(UserType.EMPLOYEE, employee, 80_000, 30_000);
+
+        assertEquals(1, flusher.flush());
+        assertEquals(0, flusher.flush());
+        discountCounters.record(UserType.EMPLOYEE, employee, 10_000, 0);
+        assertEquals(1, flusher.flush());
+
+        ArgumentCaptor<List<Pair<Query, Update>>> upserts = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations, times(2)).upsert(upserts.capture());
+        Pair<Query, Update> first = upserts.getAllValues().get(0).get(0);
+        assertEquals("2024-06-01T10:00:00Z/EMPLOYEE", first.getFirst().getQueryObject().get("_id"));
+        assertEquals(new Document("bills", 2L).append("totalCents", 160_000L)
+                        .append("rules.bulk.bills", 2L).append("rules.bulk.discountCents", 8_000L)
+                        .append("rules.employee.bills", 2L).append("rules.employee.discountCents", 30_000L)
+                        .append("discountCents", 38_000L),
+                first.getSecond().getUpdateObject().get("$inc", Document.class));
+
+        Document second = upserts.getAllValues().get(1).get(0).getSecond().getUpdateObject();
+        assertEquals(new Document("bills", 1L).append("totalCents", 10_000L)
+                        .append("rules.bulk.bills", 1L).append("rules.bulk.discountCents", 500L)
+                        .append("rules.employee.bills", 1L).append("rules.employee.discountCents", 3_000L)
+                        .append("discountCents", 3_500L),
+                second.get("$inc", Document.class));
+    }
+
+    @Test
+    public void testFailedFlushIsRetried() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        BulkOperations bulkOperations = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), anyString())).thenReturn(bulkOperations);
+        when(bulkOperations.upsert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute())
+                .thenThrow(new IllegalStateException("Mongo is down"))
+                .thenReturn(BulkWriteResult.unacknowledged());
+
+        DiscountCounters discountCounters = new DiscountCounters(properties, clock);
+        DiscountCounterFlusher flusher = new DiscountCounterFlusher(discountCounters, mongoTemplate, properties);
+        discountCounters.record(UserType.EMPLOYEE, employee, 80_000, 30_000);
+
+        assertThrows(IllegalStateException.class, flusher::flush);
+        assertEquals(1, flusher.flush());
+        assertEquals(0, flusher.flush());
+    }
+
+    private void advance(Duration duration) {
+        long now = clock.millis();
+        when(clock.millis()).thenReturn(now + duration.toMillis());
+    }
+}
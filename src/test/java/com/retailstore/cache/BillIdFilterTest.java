@@ -0,0 +1,78 @@
+package com.retailstore.cache;
+
+import com.retailstore.config.BillIdFilterProperties;
+import com.retailstore.repository.BillRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BillIdFilterTest {
+
+    private static final int BILLS = 100_000;
+
+    private BillRepository billRepository;
+
+    private BillIdFilterProperties properties;
+
+    @BeforeEach
+    public void setup() {
+        billRepository = mock(BillRepository.class);
+        when(billRepository.count()).thenReturn((long) BILLS);
+        when(billRepository.streamAllIds(anyInt())).thenAnswer(invocation -> LongStream.rangeClosed(1, BILLS));
+
+        properties = new BillIdFilterProperties();
+        properties.setExpectedBills(BILLS);
+    }
+
+    @Test
+    public void testStoredBillsPassAndUnknownIdsAreRejectedAtTheConfiguredRate() {
+        BillIdFilter billIdFilter = new BillIdFilter(billRepository, properties);
+        billIdFilter.rebuild();
+
+        for (long id = 1; id <= BILLS; id++) {
+            assertTrue(billIdFilter.mightContain(id));
+        }
+        long passed = LongStream.rangeClosed(BILLS + 1, 2 * BILLS).filter(billIdFilter::mightContain).count();
+        assertTrue(passed < BILLS * properties.getFalsePositiveRate() * 2, passed + " unknown ids passed");
+        assertTrue(billIdFilter.falsePositiveRate() < properties.getFalsePositiveRate() * 2);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        billIdFilter.bindTo(meterRegistry);
+        assertEquals(BILLS - passed, meterRegistry.get("retailstore.bill.id.filter.rejected")
+                .functionCounter().count());
+        assertEquals(billIdFilter.falsePositiveRate(),
+                meterRegistry.get("retailstore.bill.id.filter.false.positive.rate").gauge().value());
+    }
+
+    @Test
+    public void testCreatedBillPassesWithoutRebuild() {
+        BillIdFilter billIdFilter = new BillIdFilter(billRepository, properties);
+        billIdFilter.rebuild();
+        long created = LongStream.iterate(BILLS + 1, id -> id + 1)
+                .filter(id -> !billIdFilter.mightContain(id))
+                .findFirst()
+                .orElseThrow();
+
+        billIdFilter.add(created);
+
+        assertTrue(billIdFilter.mightContain(created));
+    }
+
+    @Test
+    public void testEveryIdPassesUntilBuiltOrWhenDisabled() {
+        assertTrue(new BillIdFilter(billRepository, properties).mightContain(-1));
+
+        properties.setEnabled(false);
+        BillIdFilter disabled = new BillIdFilter(billRepository, properties);
+        disabled.rebuild();
+        assertTrue(disabled.mightContain(-1));
+    }
+}
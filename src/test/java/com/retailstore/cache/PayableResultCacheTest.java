@@ -0,0 +1,74 @@
+package com.retailstore.cache;
+
+import com.retailstore.config.PayableCacheProperties;
+import com.retailstore.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class PayableResultCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final LocalDate today = LocalDate.of(2026, 3, 1);
+
+    private PayableResultCache payableResultCache;
+
+    private User user;
+
+    @BeforeEach
+    public void setup() {
+        Clock clock = Clock.fixed(today.atTime(23, 59).toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        payableResultCache = new PayableResultCache(new PayableCacheProperties(), clock, nanos::get);
+
+        user = new User();
+        user.setId(1);
+        user.setVersion(0L);
+    }
+
+    @Test
+    public void testResultExpiresWhenDiscountChanges() {
+        payableResultCache.put(payableResultCache.stamp(), 1, 0L, 0, user, 1, 76000, today.plusDays(1));
+        assertNotNull(payableResultCache.get(1, 1));
+
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+
+        assertNull(payableResultCache.get(1, 1));
+    }
+
+    @Test
+    public void testResultWithoutChangeDateUsesTtl() {
+        payableResultCache.put(payableResultCache.stamp(), 1, 0L, 0, user, 1, 61000, null);
+
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        assertEquals(61000, payableResultCache.get(1, 1).netPayableAmount());
+
+        nanos.addAndGet(Duration.ofMinutes(5).toNanos());
+        assertNull(payableResultCache.get(1, 1));
+    }
+
+    @Test
+    public void testResultIsNotSharedWithOtherUsers() {
+        payableResultCache.put(payableResultCache.stamp(), 1, 0L, 0, user, 1, 61000, null);
+
+        assertNull(payableResultCache.get(1, 2));
+    }
+
+    @Test
+    public void testPutAfterInvalidationIsDropped() {
+        long stamp = payableResultCache.stamp();
+        payableResultCache.invalidate(1);
+        payableResultCache.put(stamp, 1, 0L, 0, user, 1, 61000, null);
+
+        assertNull(payableResultCache.get(1, 1));
+    }
+}
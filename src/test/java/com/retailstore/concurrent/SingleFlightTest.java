@@ -0,0 +1,93 @@
+package com.retailstore.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    public void testConcurrentCallsShareOneExecution() throws Exception {
+        SingleFlight<Long, String> flights = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(callers.submit(() -> flights.execute(1L, () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return "bill 1";
+                })));
+            }
+            // The first caller holds the flight open until every other caller has joined it.
+            awaitCoalesced(flights, CALLERS - 1);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("bill 1", result.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(1, executions.get());
+        assertEquals(CALLERS - 1, flights.coalesced());
+        assertEquals(0, flights.inFlight());
+
+        // A completed call is not reused.
+        assertEquals("bill 1 again", flights.execute(1L, () -> "bill 1 again"));
+    }
+
+    @Test
+    public void testExceptionIsThrownToEveryWaiter() throws Exception {
+        SingleFlight<Long, String> flights = new SingleFlight<>();
+        RuntimeException notFound = new RuntimeException("Bill not found");
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(callers.submit(() -> flights.execute(2L, () -> {
+                    await(release);
+                    throw notFound;
+                })));
+            }
+            awaitCoalesced(flights, CALLERS - 1);
+            release.countDown();
+            for (Future<String> result : results) {
+                Exception thrown = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertSame(notFound, thrown.getCause());
+            }
+        }
+        assertEquals(0, flights.inFlight());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitCoalesced(SingleFlight<?, ?> flights, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flights.coalesced() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, flights.coalesced());
+    }
+}
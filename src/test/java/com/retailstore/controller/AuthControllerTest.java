@@ -0,0 +1,85 @@
+package com.retailstore.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retailstore.constant.UserType;
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.User;
+import com.retailstore.repository.BillRepository;
+import com.retailstore.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The bill repository is a mock, a bill id filter built from it would turn every bill away.
+@SpringBootTest(properties = {"retailstore.security.mode=TOKEN", "retailstore.cache.bill-ids.enabled=false"})
+@AutoConfigureMockMvc
+public class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private BillRepository billRepository;
+
+    @MockBean
+    private UserService userService;
+
+    @Test
+    public void testTokenAuthenticatesBillRequests() throws Exception {
+        User customerUser = new User();
+        customerUser.setId(1);
+        customerUser.setType(UserType.CUSTOMER);
+        customerUser.setCreatedAt(LocalDate.now());
+
+        when(userService.get(1)).thenReturn(customerUser);
+        when(billRepository.findByIdAndUserId(1, 1)).thenReturn(Optional.of(new Bill(1, 1, List.of())));
+
+        String response = mockMvc.perform(post("/api/auth/token").with(httpBasic("admin", "password")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tokenType", is("Bearer")))
+                .andExpect(jsonPath("$.expiresIn", is(900)))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode token = objectMapper.readTree(response);
+
+        mockMvc.perform(get("/api/bill/amount?billId=1&userId=1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token.get("accessToken").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.netPayableAmount", is(0.0)));
+    }
+
+    @Test
+    public void testLoginRejectsWrongPassword() throws Exception {
+        mockMvc.perform(post("/api/auth/token").with(httpBasic("admin", "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void testBasicAndInvalidTokensAreRejectedOnApi() throws Exception {
+        mockMvc.perform(get("/api/bill/amount?billId=1&userId=1").with(httpBasic("admin", "password")))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/api/bill/amount?billId=1&userId=1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer invalid"))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -1,19 +1,30 @@
 package com.retailstore.controller;
 
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.retailstore.cache.PayableResultCache;
 import com.retailstore.constant.ItemType;
 import com.retailstore.constant.UserType;
 import com.retailstore.entity.Bill;
 import com.retailstore.entity.Item;
 import com.retailstore.entity.User;
+import com.retailstore.mongo.MoneyMigration;
 import com.retailstore.repository.BillRepository;
+import com.retailstore.repository.BillTotalsCallback;
+import com.retailstore.repository.ReactiveBillRepository;
 import com.retailstore.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
@@ -24,16 +35,29 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+// The bill repository is a mock, a bill id filter built from it would turn every bill away.
+@SpringBootTest(properties = {"retailstore.cache.bill-ids.enabled=false", "retailstore.bill.batch.max-size=2"})
 @ExtendWith(SpringExtension.class)
 @AutoConfigureMockMvc
+@AutoConfigureObservability
 public class BillControllerTest {
 
     @Autowired
@@ -45,19 +69,36 @@ public class BillControllerTest {
     @MockBean
     private UserService userService;
 
+    @Autowired
+    private PayableResultCache payableResultCache;
+
+    @Autowired
+    private ApplicationContext context;
+
     private List<Item> items;
 
     @BeforeEach
     public void setup() {
         items = Arrays.asList(
-                new Item(1, 200.0, ItemType.GROCERY),
-                new Item(2, 100.0, ItemType.GROCERY),
-                new Item(3, 150.0, ItemType.OTHER),
-                new Item(4, 50.0, ItemType.OTHER),
-                new Item(5, 300.0, ItemType.OTHER)
+                new Item(1, 20000, ItemType.GROCERY),
+                new Item(2, 10000, ItemType.GROCERY),
+                new Item(3, 15000, ItemType.OTHER),
+                new Item(4, 5000, ItemType.OTHER),
+                new Item(5, 30000, ItemType.OTHER)
         );
     }
 
+    @Test
+    public void testReactiveMongoIsNotWired() {
+        assertEquals(0, context.getBeanNamesForType(ReactiveMongoTemplate.class).length);
+        assertEquals(0, context.getBeanNamesForType(ReactiveBillRepository.class).length);
+    }
+
+    @Test
+    public void testMoneyMigrationIsOffByDefault() {
+        assertEquals(0, context.getBeanNamesForType(MoneyMigration.class).length);
+    }
+
     @Test
     @WithMockUser(username = "admin", roles = "ADMIN")
     public void testNetPayableAmountForEmployee() throws Exception {
@@ -177,7 +218,7 @@ public class BillControllerTest {
         customerUser.setType(UserType.CUSTOMER);
         customerUser.setCreatedAt(LocalDate.now());
 
-        Bill customerUserBill = new Bill(6, 6, List.of(new Item(1, 200.0, ItemType.GROCERY)));
+        Bill customerUserBill = new Bill(6, 6, List.of(new Item(1, 20000, ItemType.GROCERY)));
 
         when(userService.get(6)).thenReturn(customerUser);
         when(billRepository.findByIdAndUserId(6, 6)).thenReturn(Optional.of(customerUserBill));
@@ -189,4 +230,260 @@ public class BillControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.netPayableAmount").value(190.0));
     }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void testNetPayableAmountsInBatch() throws Exception {
+
+        User employeeUser = new User();
+        employeeUser.setId(7);
+        employeeUser.setType(UserType.EMPLOYEE);
+        employeeUser.setCreatedAt(LocalDate.now().minusYears(3));
+
+        when(billRepository.findByIdIn(anyCollection())).thenReturn(List.of(new Bill(7, 7, items)));
+        when(userService.getAll(anyCollection())).thenReturn(List.of(employeeUser));
+
+        mockMvc.perform(post("/api/bill/amounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"billId\":7,\"userId\":7},{\"billId\":8,\"userId\":7}]"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].billId").value(7))
+                .andExpect(jsonPath("$[0].netPayableAmount").value(610.0))
+                .andExpect(jsonPath("$[1].billId").value(8))
+                .andExpect(jsonPath("$[1].error").value("Bill not found"));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void testBatchOverMaxSizeIsRejected() throws Exception {
+
+        mockMvc.perform(post("/api/bill/amounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"billId\":7,\"userId\":7},{\"billId\":8,\"userId\":7},"
+                                + "{\"billId\":9,\"userId\":7}]"))
+                .andExpect(status().isBadRequest());
+
+        verify(billRepository, times(0)).findByIdIn(anyCollection());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void testQuoteIsPricedWithoutStoringABill() throws Exception {
+
+        User employeeUser = new User();
+        employeeUser.setId(20);
+        employeeUser.setType(UserType.EMPLOYEE);
+        employeeUser.setCreatedAt(LocalDate.now().minusYears(3));
+
+        when(userService.get(20)).thenReturn(employeeUser);
+
+        mockMvc.perform(post("/api/bill/quote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\":20,\"items\":[{\"type\":\"GROCERY\",\"price\":200},"
+                                + "{\"type\":\"GROCERY\",\"price\":100.00},{\"id\":3,\"type\":\"OTHER\","
+                                + "\"price\":\"150\"},{\"type\":\"OTHER\",\"price\":50},"
+                                + "{\"type\":\"OTHER\",\"price\":3e2}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(20))
+                .andExpect(jsonPath("$.itemCount").value(5))
+                .andExpect(jsonPath("$.totalAmount").value(800.0))
+                .andExpect(jsonPath("$.percentageDiscount").value(150.0))
+                .andExpect(jsonPath("$.stepDiscount").value(40.0))
+                .andExpect(jsonPath("$.netPayableAmount").value(610.0));
+
+        verify(billRepository, times(0)).insert(any(Bill.class));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void testQuoteRejectsItemWithoutPrice() throws Exception {
+
+        mockMvc.perform(post("/api/bill/quote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\":20,\"items\":[{\"type\":\"GROCERY\"}]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void testUnknownBillIsNotFound() throws Exception {
+
+        when(billRepository.findByIdAndUserId(99, 99)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/bill/amount?billId=99&userId=99"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void testUnchangedAmountIsNotModified() throws Exception {
+
+        User employeeUser = new User();
+        employeeUser.setId(21);
+        employeeUser.setType(UserType.EMPLOYEE);
+        employeeUser.setCreatedAt(LocalDate.now().minusYears(3));
+        employeeUser.setVersion(1L);
+
+        Bill bill = new Bill(21, 21, items);
+        bill.setVersion(4L);
+        when(userService.get(21)).thenReturn(employeeUser);
+        when(billRepository.findByIdAndUserId(21, 21)).thenReturn(Optional.of(bill));
+
+        String etag = mockMvc.perform(get("/api/bill/amount")
+                        .param("billId", "21")
+                        .param("userId", "21"))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/bill/amount")
+                        .param("billId", "21")
+                        .param("userId", "21")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        verify(billRepository, times(1)).findByIdAndUserId(21, 21);
+
+        // A new user version, e.g. a changed user type, is a new entity tag.
+        employeeUser.setVersion(2L);
+        when(billRepository.findVersionByIdAndUserId(21, 21)).thenReturn(Optional.of(bill));
+        mockMvc.perform(get("/api/bill/amount")
+                        .param("billId", "21")
+                        .param("userId", "21")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.netPayableAmount").value(610.0));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void testUnchangedBillIsNotModifiedWithoutPricing() throws Exception {
+
+        User employeeUser = new User();
+        employeeUser.setId(22);
+        employeeUser.setType(UserType.EMPLOYEE);
+        employeeUser.setCreatedAt(LocalDate.now().minusYears(3));
+        employeeUser.setVersion(1L);
+
+        Bill bill = new BillTotalsCallback().onBeforeConvert(new Bill(22, 22, items), "bills");
+        bill.setVersion(4L);
+        when(userService.get(22)).thenReturn(employeeUser);
+        when(billRepository.findByIdAndUserId(22, 22)).thenReturn(Optional.of(bill));
+        when(billRepository.findVersionByIdAndUserId(22, 22)).thenReturn(Optional.of(bill));
+
+        String etag = mockMvc.perform(get("/api/bill/amount")
+                        .param("billId", "22")
+                        .param("userId", "22"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        payableResultCache.invalidateAll();
+
+        mockMvc.perform(get("/api/bill/amount")
+                        .param("billId", "22")
+                        .param("userId", "22")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verify(billRepository, times(1)).findByIdAndUserId(22, 22);
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void testReseededBillWithResetVersionIsModified() throws Exception {
+
+        User employeeUser = new User();
+        employeeUser.setId(24);
+        employeeUser.setType(UserType.EMPLOYEE);
+        employeeUser.setCreatedAt(LocalDate.now().minusYears(3));
+        employeeUser.setVersion(1L);
+
+        Bill bill = new BillTotalsCallback().onBeforeConvert(new Bill(24, 24, items), "bills");
+        bill.setVersion(0L);
+        when(userService.get(24)).thenReturn(employeeUser);
+        when(billRepository.findByIdAndUserId(24, 24)).thenReturn(Optional.of(bill));
+
+        String etag = mockMvc.perform(get("/api/bill/amount")
+                        .param("billId", "24")
+                        .param("userId", "24"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // A restart re-imports the bill with other items, its version starts over at the same number.
+        Bill reseeded = new BillTotalsCallback().onBeforeConvert(new Bill(24, 24, items.subList(0, 2)), "bills");
+        reseeded.setVersion(0L);
+        when(billRepository.findByIdAndUserId(24, 24)).thenReturn(Optional.of(reseeded));
+        when(billRepository.findVersionByIdAndUserId(24, 24)).thenReturn(Optional.of(reseeded));
+        payableResultCache.invalidateAll();
+
+        mockMvc.perform(get("/api/bill/amount")
+                        .param("billId", "24")
+                        .param("userId", "24")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.netPayableAmount").value(285.0));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void testBinaryFormats() throws Exception {
+
+        User employeeUser = new User();
+        employeeUser.setId(23);
+        employeeUser.setType(UserType.EMPLOYEE);
+        employeeUser.setCreatedAt(LocalDate.now().minusYears(3));
+
+        when(userService.get(23)).thenReturn(employeeUser);
+        when(userService.getAll(anyCollection())).thenReturn(List.of(employeeUser));
+        when(billRepository.findByIdAndUserId(23, 23)).thenReturn(Optional.of(new Bill(23, 23, items)));
+        when(billRepository.findByIdIn(anyCollection())).thenReturn(List.of(new Bill(23, 23, items)));
+
+        byte[] smile = mockMvc.perform(get("/api/bill/amount")
+                        .param("billId", "23")
+                        .param("userId", "23")
+                        .accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(610.0, new SmileMapper().readTree(smile).get("netPayableAmount").asDouble());
+
+        byte[] cbor = mockMvc.perform(post("/api/bill/amounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content("[{\"billId\":23,\"userId\":23}]"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(610.0, new CBORMapper().readTree(cbor).get(0).get("netPayableAmount").asDouble());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void testBillingMetricsArePublishedForPrometheus() throws Exception {
+
+        User employeeUser = new User();
+        employeeUser.setId(9);
+        employeeUser.setType(UserType.EMPLOYEE);
+        employeeUser.setCreatedAt(LocalDate.now().minusYears(3));
+
+        when(userService.get(9)).thenReturn(employeeUser);
+        when(billRepository.findByIdAndUserId(9, 9)).thenReturn(Optional.of(new Bill(9, 9, items)));
+
+        mockMvc.perform(get("/api/bill/amount")
+                        .param("billId", "9")
+                        .param("userId", "9"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "retailstore_bill_payable_seconds_count{outcome=\"computed\"")))
+                .andExpect(content().string(containsString(
+                        "retailstore_bill_controller_seconds_count{endpoint=\"amount\"")))
+                .andExpect(content().string(containsString(
+                        "retailstore_bill_discount_amount_sum{userType=\"EMPLOYEE\"")))
+                .andExpect(content().string(containsString("retailstore_bill_payable_seconds_bucket{")))
+                .andExpect(content().string(containsString("retailstore_bill_discount_seconds_bucket{")))
+                .andExpect(content().string(not(containsString("retailstore_bill_fetch_seconds_bucket{"))))
+                .andExpect(content().string(not(containsString("retailstore_bill_items_bucket{"))));
+    }
 }
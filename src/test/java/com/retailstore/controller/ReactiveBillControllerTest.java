@@ -0,0 +1,131 @@
+package com.retailstore.controller;
+
+import com.retailstore.cache.PayableResultCache;
+import com.retailstore.constant.ItemType;
+import com.retailstore.constant.UserType;
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.Item;
+import com.retailstore.entity.User;
+import com.retailstore.repository.ReactiveBillRepository;
+import com.retailstore.repository.ReactiveUserRepository;
+import com.retailstore.service.BillService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// The bill repository is a mock, a bill id filter built from it would turn every bill away.
+@SpringBootTest(properties = {"retailstore.cache.bill-ids.enabled=false", "retailstore.bill.batch.max-size=2"})
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+public class ReactiveBillControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @MockBean
+    private ReactiveBillRepository billRepository;
+
+    @MockBean
+    private ReactiveUserRepository userRepository;
+
+    private final List<Item> items = List.of(
+            new Item(1, 20000, ItemType.GROCERY),
+            new Item(2, 10000, ItemType.GROCERY),
+            new Item(3, 15000, ItemType.OTHER),
+            new Item(4, 5000, ItemType.OTHER),
+            new Item(5, 30000, ItemType.OTHER)
+    );
+
+    @Test
+    public void testOnlyTheReactiveStackIsWired() {
+        assertEquals(1, context.getBeanNamesForType(ReactiveMongoTemplate.class).length);
+        assertEquals(0, context.getBeanNamesForType(BillService.class).length);
+        assertEquals(0, context.getBeanNamesForType(PayableResultCache.class).length);
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void testNetPayableAmountForEmployee() {
+        User employeeUser = new User();
+        employeeUser.setId(1);
+        employeeUser.setType(UserType.EMPLOYEE);
+        employeeUser.setCreatedAt(LocalDate.now().minusYears(3));
+
+        when(billRepository.findByIdAndUserId(1, 1)).thenReturn(Mono.just(new Bill(1, 1, items)));
+        when(userRepository.findById(1L)).thenReturn(Mono.just(employeeUser));
+
+        webTestClient.get()
+                .uri("/api/bill/amount?billId=1&userId=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.netPayableAmount").isEqualTo(610.0);
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void testNetPayableAmountsInBatch() {
+        User employeeUser = new User();
+        employeeUser.setId(7);
+        employeeUser.setType(UserType.EMPLOYEE);
+        employeeUser.setCreatedAt(LocalDate.now().minusYears(3));
+
+        when(billRepository.findByIdIn(anyCollection())).thenReturn(Flux.just(new Bill(7, 7, items)));
+        when(userRepository.findAllById(anyCollection())).thenReturn(Flux.just(employeeUser));
+
+        webTestClient.post()
+                .uri("/api/bill/amounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[{\"billId\":7,\"userId\":7},{\"billId\":8,\"userId\":7}]")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].billId").isEqualTo(7)
+                .jsonPath("$[0].netPayableAmount").isEqualTo(610.0)
+                .jsonPath("$[1].billId").isEqualTo(8)
+                .jsonPath("$[1].error").isEqualTo("Bill not found");
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void testBatchOverMaxSizeIsRejected() {
+        webTestClient.post()
+                .uri("/api/bill/amounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[{\"billId\":7,\"userId\":7},{\"billId\":8,\"userId\":7},{\"billId\":9,\"userId\":7}]")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(billRepository, never()).findByIdIn(anyCollection());
+    }
+
+    @Test
+    public void testRequiresAuthentication() {
+        webTestClient.get()
+                .uri("/api/bill/amount?billId=1&userId=1")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+}
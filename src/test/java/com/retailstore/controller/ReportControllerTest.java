@@ -0,0 +1,70 @@
+package com.retailstore.controller;
+
+import com.retailstore.constant.UserType;
+import com.retailstore.entity.BillTotals;
+import com.retailstore.entity.User;
+import com.retailstore.repository.BillRepository;
+import com.retailstore.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ReportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BillRepository billRepository;
+
+    @MockBean
+    private UserService userService;
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void testCsvBillReport() throws Exception {
+        User employeeUser = new User();
+        employeeUser.setId(1);
+        employeeUser.setType(UserType.EMPLOYEE);
+        employeeUser.setCreatedAt(LocalDate.of(2020, 1, 1));
+
+        when(billRepository.streamAllTotals(anyInt()))
+                .thenReturn(Stream.of(new BillTotals(1, 1, 1L, 5, 80000, 30000, null)));
+        when(userService.getAll(anyCollection())).thenReturn(List.of(employeeUser));
+
+        MvcResult result = mockMvc.perform(get("/api/report/bills")
+                        .param("format", "CSV")
+                        .param("date", "2024-06-01"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string("""
+                        record,billId,userId,userType,bills,grossAmount,groceryAmount,discountAmount,netPayableAmount
+                        bill,1,1,EMPLOYEE,,800.0,300.0,190.0,610.0
+                        total,,,EMPLOYEE,1,800.0,300.0,190.0,610.0
+                        """));
+    }
+}
@@ -0,0 +1,170 @@
+package com.retailstore.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mongodb.bulk.BulkWriteResult;
+import com.retailstore.config.SeedProperties;
+import com.retailstore.constant.ImportMode;
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.User;
+import com.retailstore.mongo.IndexManager;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BulkImporterTest {
+
+    private MongoTemplate mongoTemplate;
+
+    private BulkOperations bulkOperations;
+
+    private SeedProperties properties;
+
+    private IndexManager indexManager;
+
+    private BulkImporter bulkImporter;
+
+    @BeforeEach
+    public void setup() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+
+        mongoTemplate = mock(MongoTemplate.class);
+        bulkOperations = mock(BulkOperations.class);
+        when(mongoTemplate.getConverter())
+                .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+        when(mongoTemplate.getCollectionName(any())).thenReturn("bills");
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Bill.class)).thenReturn(bulkOperations);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class)).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()));
+
+        properties = new SeedProperties();
+        properties.setBatchSize(2);
+        indexManager = mock(IndexManager.class);
+        bulkImporter = new BulkImporter(mongoTemplate, new ObjectMapper().registerModule(new JavaTimeModule()),
+                properties, indexManager);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRestartLeavesStoredBillsUnchanged() throws IOException {
+        // Bill 1 was seeded on an earlier start and has since been changed through the API.
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("bills")))
+                .thenReturn(List.of(new Document("_id", 1L)), List.of());
+        String json = """
+                [
+                  {"id": 1, "userId": 1, "items": [{"id": 1, "type": "OTHER", "price": 200.0}]},
+                  {"id": 2, "userId": 2, "items": []},
+                  {"id": 3, "userId": 3, "items": []}
+                ]
+                """;
+
+        bulkImporter.importDocuments(resource(json.getBytes(StandardCharsets.UTF_8)), Bill.class);
+
+        ArgumentCaptor<List<Bill>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations, times(2)).insert(inserted.capture());
+        assertEquals(List.of(2L, 3L), inserted.getAllValues().stream()
+                .flatMap(List::stream)
+                .map(Bill::getId)
+                .toList());
+        verify(bulkOperations, never()).replaceOne(any(Query.class), any(), any(FindAndReplaceOptions.class));
+        verify(mongoTemplate, never()).dropCollection(Bill.class);
+    }
+
+    @Test
+    public void testSkipsBatchesThatAreAllStored() throws IOException {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("bills")))
+                .thenReturn(List.of(new Document("_id", 1L)));
+
+        ImportResult result = bulkImporter.importDocuments(
+                resource("{\"id\": 1, \"userId\": 1, \"items\": []}".getBytes(StandardCharsets.UTF_8)), Bill.class);
+
+        assertEquals(1, result.documents());
+        assertEquals(0, result.inserted());
+        verify(bulkOperations, never()).execute();
+    }
+
+    @Test
+    public void testUpsertsJsonArrayInBatches() throws IOException {
+        properties.setMode(ImportMode.UPSERT);
+        String json = """
+                [
+                  {"id": 1, "userId": 1, "items": [{"id": 1, "type": "OTHER", "price": 200.0}]},
+                  {"id": 2, "userId": 2, "items": []},
+                  {"id": 3, "userId": 3, "items": []}
+                ]
+                """;
+
+        ImportResult result = bulkImporter.importDocuments(resource(json.getBytes(StandardCharsets.UTF_8)), Bill.class);
+
+        assertEquals(3, result.documents());
+        assertEquals(2, result.batches());
+        verify(bulkOperations, times(3))
+                .replaceOne(any(Query.class), any(Bill.class), any(FindAndReplaceOptions.class));
+        verify(bulkOperations, times(2)).execute();
+        verify(mongoTemplate, never()).dropCollection(Bill.class);
+        verify(indexManager, never()).ensureIndexes(Bill.class);
+    }
+
+    @Test
+    public void testInsertsGzippedNewlineDelimitedJsonAfterDrop() throws IOException {
+        properties.setMode(ImportMode.DROP_AND_INSERT);
+        String ndjson = """
+                {"id": 1, "username": "employee", "type": "EMPLOYEE", "createdAt": "2020-01-01"}
+                {"id": 2, "username": "affiliate", "type": "AFFILIATE", "createdAt": "2021-01-01"}
+                """;
+
+        ImportResult result = bulkImporter.importDocuments(resource(gzip(ndjson)), User.class);
+
+        assertEquals(2, result.documents());
+        assertEquals(1, result.batches());
+        verify(mongoTemplate).dropCollection(User.class);
+        verify(indexManager).ensureIndexes(User.class);
+        verify(bulkOperations).insert(anyList());
+    }
+
+    @Test
+    public void testRejectsInputThatIsNotAnObjectStream() {
+        assertThrows(IOException.class,
+                () -> bulkImporter.importDocuments(resource("[1, 2]".getBytes(StandardCharsets.UTF_8)), Bill.class));
+    }
+
+    private ByteArrayResource resource(byte[] content) {
+        return new ByteArrayResource(content);
+    }
+
+    private byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
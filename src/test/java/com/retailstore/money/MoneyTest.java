@@ -0,0 +1,80 @@
+package com.retailstore.money;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.retailstore.constant.ItemType;
+import com.retailstore.constant.MoneyFormat;
+import com.retailstore.entity.Item;
+import com.retailstore.model.response.PayableResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testDecimalsAreConvertedExactly() {
+        assertEquals(10, Money.ofMajor(0.1));
+        assertEquals(19999, Money.ofMajor(new BigDecimal("199.99")));
+        assertEquals(300_000, Money.partsPerMillion(0.3));
+        assertThrows(ArithmeticException.class, () -> Money.ofMajor(0.001));
+    }
+
+    @Test
+    public void testPlainDecimalsAreParsedWithoutBigDecimal() {
+        assertEquals(19999, parseMajor("199.99"));
+        assertEquals(19990, parseMajor("199.9"));
+        assertEquals(500, parseMajor("5"));
+        assertEquals(-500, parseMajor("-5."));
+        assertEquals(50, parseMajor(".5"));
+        assertEquals(Money.NOT_PLAIN, parseMajor("0.001"));
+        assertEquals(Money.NOT_PLAIN, parseMajor("1e2"));
+        assertEquals(Money.NOT_PLAIN, parseMajor("12345678901234567"));
+        assertEquals(Money.NOT_PLAIN, parseMajor("-"));
+    }
+
+    @Test
+    public void testDecimalScaleIsTheScaleOfTheDouble() {
+        Random random = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            long minorUnits = switch (i % 3) {
+                case 0 -> random.nextInt(1_000_000);
+                case 1 -> random.nextLong(100_000_000_000_000L);
+                default -> random.nextInt(100_000) * (long) Math.pow(10, random.nextInt(11));
+            };
+            assertEquals(BigDecimal.valueOf(Money.toMajor(minorUnits)).scale(), Money.decimalScale(minorUnits),
+                    () -> "minorUnits=" + minorUnits);
+        }
+    }
+
+    private static long parseMajor(String text) {
+        char[] padded = ("[" + text + "]").toCharArray();
+        return Money.parseMajor(padded, 1, text.length());
+    }
+
+    @Test
+    public void testPricesAreReadInMajorUnits() throws Exception {
+        assertEquals(19999, objectMapper.readValue("{\"id\":1,\"price\":199.99,\"type\":\"OTHER\"}", Item.class)
+                .getPrice());
+        assertEquals(10, objectMapper.readValue("{\"id\":1,\"price\":\"0.10\",\"type\":\"OTHER\"}", Item.class)
+                .getPrice());
+        assertThrows(InvalidFormatException.class,
+                () -> objectMapper.readValue("{\"id\":1,\"price\":0.001,\"type\":\"OTHER\"}", Item.class));
+    }
+
+    @Test
+    public void testAmountsAreWrittenInTheConfiguredFormat() throws Exception {
+        assertEquals("{\"id\":1,\"price\":0.3,\"type\":\"GROCERY\"}",
+                objectMapper.writeValueAsString(new Item(1, 30, ItemType.GROCERY)));
+        assertEquals("{\"netPayableAmount\":610.0}", objectMapper.writeValueAsString(new PayableResponse(61000)));
+
+        assertEquals("61000", Money.toString(61000, MoneyFormat.MINOR_UNITS));
+        assertEquals("610.0", Money.toString(61000, MoneyFormat.DECIMAL));
+    }
+}
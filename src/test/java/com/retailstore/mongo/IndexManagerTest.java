@@ -0,0 +1,46 @@
+package com.retailstore.mongo;
+
+import com.retailstore.config.MongoIndexProperties;
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.User;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class IndexManagerTest {
+
+    @Test
+    public void testEnsuresCompoundUserIdIndexOnBills() {
+        MongoIndexProperties properties = new MongoIndexProperties();
+        properties.setVerifyQueryPlans(false);
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        IndexOperations billIndexes = mock(IndexOperations.class);
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        when(mongoTemplate.getConverter())
+                .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+        when(mongoTemplate.indexOps(Bill.class)).thenReturn(billIndexes);
+        when(mongoTemplate.indexOps(User.class)).thenReturn(mock(IndexOperations.class));
+
+        new IndexManager(mongoTemplate, properties).ensureIndexes();
+
+        ArgumentCaptor<IndexDefinition> index = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(billIndexes).ensureIndex(index.capture());
+        assertEquals(new Document("userId", 1).append("_id", 1), index.getValue().getIndexKeys());
+        assertEquals(List.of("userId", "_id"), List.copyOf(index.getValue().getIndexKeys().keySet()));
+    }
+}
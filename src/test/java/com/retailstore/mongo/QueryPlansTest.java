@@ -0,0 +1,55 @@
+package com.retailstore.mongo;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QueryPlansTest {
+
+    @Test
+    public void testIdLookupIsNotACollectionScan() {
+        Document explain = Document.parse("""
+                {"queryPlanner": {"namespace": "retail_store.bills",
+                  "winningPlan": {"stage": "FETCH", "filter": {"userId": {"$eq": 1}},
+                                  "inputStage": {"stage": "IXSCAN", "indexName": "_id_"}},
+                  "rejectedPlans": [{"stage": "COLLSCAN"}]}}
+                """);
+
+        assertFalse(QueryPlans.hasCollectionScan(explain));
+    }
+
+    @Test
+    public void testClassicCollectionScan() {
+        Document explain = Document.parse("""
+                {"queryPlanner": {"winningPlan": {"stage": "COLLSCAN", "filter": {"userId": {"$eq": 1}}},
+                  "rejectedPlans": []}}
+                """);
+
+        assertTrue(QueryPlans.hasCollectionScan(explain));
+    }
+
+    @Test
+    public void testSlotBasedEngineCollectionScan() {
+        Document explain = Document.parse("""
+                {"explainVersion": "2", "queryPlanner": {"winningPlan": {
+                  "queryPlan": {"stage": "COLLSCAN", "planNodeId": 1},
+                  "slotBasedPlan": {"stages": "[1] scan s1 s2"}}}}
+                """);
+
+        assertTrue(QueryPlans.hasCollectionScan(explain));
+    }
+
+    @Test
+    public void testCollectionScanBelowAggregationCursor() {
+        Document explain = Document.parse("""
+                {"stages": [
+                  {"$cursor": {"queryPlanner": {"winningPlan": {"stage": "PROJECTION_DEFAULT",
+                    "inputStage": {"stage": "COLLSCAN"}}}}},
+                  {"$project": {"userId": true}}]}
+                """);
+
+        assertTrue(QueryPlans.hasCollectionScan(explain));
+    }
+}
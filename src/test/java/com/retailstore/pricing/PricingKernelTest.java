@@ -0,0 +1,136 @@
+package com.retailstore.pricing;
+
+import com.retailstore.constant.ItemType;
+import com.retailstore.constant.UserType;
+import com.retailstore.entity.Item;
+import com.retailstore.money.Money;
+import com.retailstore.pricing.rule.DefaultDiscountRules;
+import com.retailstore.pricing.rule.DiscountRuleTable;
+import com.retailstore.pricing.rule.DiscountSchedule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import static com.retailstore.constant.ItemType.GROCERY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PricingKernelTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private final DiscountRuleTable rules = DiscountRuleTable.compile(1, DefaultDiscountRules.get());
+
+    @Test
+    public void testKernelMatchesStreamPipeline() {
+        Random random = new Random(42);
+
+        for (int run = 0; run < 20_000; run++) {
+            List<Item> items = randomItems(random, random.nextInt(run % 100 == 0 ? 5_000 : 50));
+
+            for (UserType userType : UserType.values()) {
+                for (LocalDate createdAt : List.of(TODAY, TODAY.minusYears(3))) {
+                    DiscountSchedule schedule = rules.schedule(userType, createdAt, TODAY);
+                    BigDecimal rate = referenceRate(userType, createdAt);
+                    assertEquals(referenceNetPayableAmount(items, rate), PricingKernel.netPayableAmount(items, schedule),
+                            () -> "items=" + items.size() + " userType=" + userType + " createdAt=" + createdAt);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testKernelHandlesNonRandomAccessLists() {
+        Random random = new Random(7);
+        List<Item> items = new LinkedList<>(randomItems(random, 1_000));
+
+        assertEquals(referenceNetPayableAmount(items, new BigDecimal("0.30")),
+                PricingKernel.netPayableAmount(items, rules.schedule(UserType.EMPLOYEE, TODAY, TODAY)));
+    }
+
+    @Test
+    public void testAmountsAreExactCents() {
+        // 0.10 + 0.20 is 0.30000000000000004 as doubles.
+        List<Item> items = List.of(new Item(1, 10, ItemType.OTHER), new Item(2, 20, ItemType.OTHER));
+
+        assertEquals(30, PricingKernel.netPayableAmount(items, rules.schedule(UserType.CUSTOMER, TODAY, TODAY)));
+    }
+
+    @Test
+    public void testPercentageDiscountIsRoundedHalfUpToTheCent() {
+        DiscountSchedule employee = rules.schedule(UserType.EMPLOYEE, TODAY, TODAY);
+        DiscountSchedule affiliate = rules.schedule(UserType.AFFILIATE, TODAY, TODAY);
+
+        // 30% of 0.05 is 0.015, rounded to 0.02.
+        assertEquals(3, employee.netPayableAmount(5, 0));
+        // 30% of 0.01 is 0.003, rounded to 0.00.
+        assertEquals(1, employee.netPayableAmount(1, 0));
+        // 10% of 99.95 is 9.995, rounded to 10.00.
+        assertEquals(1000, affiliate.breakdown(9995, 0).percentageDiscount());
+    }
+
+    @Test
+    public void testStepDiscountCutsTheHundredsAtTheDecimalsOfTheTotal() {
+        DiscountSchedule customer = rules.schedule(UserType.CUSTOMER, TODAY, TODAY);
+
+        // 850.0 is 8.5 hundreds, 123.45 is 1.23 hundreds and 1.0E7 rounds down to no hundreds at scale -6.
+        assertEquals(85000 - 4250, customer.netPayableAmount(85000, 0));
+        assertEquals(12345 - 615, customer.netPayableAmount(12345, 0));
+        assertEquals(1_000_000_000, customer.netPayableAmount(1_000_000_000, 0));
+        for (long total : new long[]{85000, 12345, 12340, 9999, 1_000_000_000, 1_234_567_891, 1_500_000_000}) {
+            assertEquals(Money.ofMajor(calculateAdditionalDiscount(Money.toMajor(total))),
+                    total - customer.netPayableAmount(total, 0), () -> "total=" + total);
+        }
+    }
+
+    private List<Item> randomItems(Random random, int size) {
+        List<Item> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ItemType type = random.nextBoolean() ? ItemType.GROCERY : ItemType.OTHER;
+            long price = random.nextInt(3) == 0
+                    ? random.nextInt(100) * 100
+                    : random.nextInt(100_000);
+            items.add(new Item(i, price, type));
+        }
+        return items;
+    }
+
+    private BigDecimal referenceRate(UserType userType, LocalDate createdAt) {
+        return switch (userType) {
+            case EMPLOYEE -> new BigDecimal("0.30");
+            case AFFILIATE -> new BigDecimal("0.10");
+            case CUSTOMER -> createdAt.isBefore(TODAY.minusYears(2)) ? new BigDecimal("0.05") : BigDecimal.ZERO;
+        };
+    }
+
+    // The percentage of the non grocery amount rounded half up to the cent, as amounts are minor units, and the step
+    // discount of the original BillServiceImpl, unchanged.
+    private long referenceNetPayableAmount(List<Item> items, BigDecimal rate) {
+        BigDecimal totalAmount = items.stream()
+                .map(item -> BigDecimal.valueOf(item.getPrice(), 2))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal groceryAmount = items.stream()
+                .filter(item -> GROCERY.equals(item.getType()))
+                .map(item -> BigDecimal.valueOf(item.getPrice(), 2))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        BigDecimal percentageDiscount = totalAmount.subtract(groceryAmount).multiply(rate)
+                .setScale(2, RoundingMode.HALF_UP);
+        BigDecimal additionalDiscount = BigDecimal.valueOf(calculateAdditionalDiscount(totalAmount.doubleValue()));
+
+        return totalAmount.subtract(percentageDiscount).subtract(additionalDiscount).movePointRight(2)
+                .longValueExact();
+    }
+
+    private static double calculateAdditionalDiscount(double totalAmount) {
+        return BigDecimal.valueOf(totalAmount)
+                .divide(BigDecimal.valueOf(100), RoundingMode.DOWN)
+                .multiply(BigDecimal.valueOf(5))
+                .doubleValue();
+    }
+}
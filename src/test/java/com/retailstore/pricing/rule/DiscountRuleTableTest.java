@@ -0,0 +1,158 @@
+package com.retailstore.pricing.rule;
+
+import com.retailstore.config.DiscountRuleProperties;
+import com.retailstore.constant.ItemType;
+import com.retailstore.constant.UserType;
+import com.retailstore.pricing.DiscountBreakdown;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DiscountRuleTableTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 2, 28);
+
+    @Test
+    public void testDefaultRules() {
+        DiscountRuleTable rules = DiscountRuleTable.compile(1, DefaultDiscountRules.get());
+
+        assertEquals(61000, rules.schedule(UserType.EMPLOYEE, TODAY, TODAY).netPayableAmount(80000, 30000));
+        assertEquals(71000, rules.schedule(UserType.AFFILIATE, TODAY, TODAY).netPayableAmount(80000, 30000));
+        assertEquals(76000, rules.schedule(UserType.CUSTOMER, TODAY, TODAY).netPayableAmount(80000, 30000));
+        assertEquals(73500,
+                rules.schedule(UserType.CUSTOMER, TODAY.minusYears(3), TODAY).netPayableAmount(80000, 30000));
+        // 850.0 is 8.5 hundreds, see DiscountSchedule.stepDiscount.
+        assertEquals(80750, rules.schedule(UserType.CUSTOMER, TODAY, TODAY).netPayableAmount(85000, 0));
+    }
+
+    @Test
+    public void testBreakdownSplitsTheSameDiscounts() {
+        DiscountRuleTable rules = DiscountRuleTable.compile(1, DefaultDiscountRules.get());
+
+        DiscountBreakdown employee = rules.schedule(UserType.EMPLOYEE, TODAY, TODAY).breakdown(80000, 30000);
+        assertEquals(15000, employee.percentageDiscount());
+        assertEquals(4000, employee.stepDiscount());
+        assertEquals(61000, employee.netPayableAmount());
+
+        for (UserType userType : UserType.values()) {
+            DiscountSchedule schedule = rules.schedule(userType, TODAY.minusYears(3), TODAY);
+            for (long total = 0; total <= 100000; total += 2550) {
+                assertEquals(schedule.netPayableAmount(total, total / 3),
+                        schedule.breakdown(total, total / 3).netPayableAmount());
+            }
+        }
+    }
+
+    @Test
+    public void testTenureBucketChangesAfterTwoYears() {
+        DiscountRuleTable rules = DiscountRuleTable.compile(1, DefaultDiscountRules.get());
+        LocalDate createdAt = LocalDate.of(2024, 2, 29);
+
+        assertEquals(LocalDate.of(2026, 3, 1), rules.nextChangeDate(UserType.CUSTOMER, createdAt, TODAY));
+        assertSame(rules.schedule(UserType.CUSTOMER, TODAY, TODAY),
+                rules.schedule(UserType.CUSTOMER, createdAt, TODAY));
+        assertSame(rules.schedule(UserType.CUSTOMER, TODAY.minusYears(3), TODAY),
+                rules.schedule(UserType.CUSTOMER, createdAt, LocalDate.of(2026, 3, 1)));
+
+        assertNull(rules.nextChangeDate(UserType.CUSTOMER, createdAt, LocalDate.of(2026, 3, 1)));
+        assertNull(rules.nextChangeDate(UserType.EMPLOYEE, createdAt, TODAY));
+    }
+
+    @Test
+    public void testAmountThresholdSelectsTier() {
+        List<DiscountRule> ruleSet = new ArrayList<>(DefaultDiscountRules.get());
+        ruleSet.add(DiscountRuleDefinition.builder()
+                .id("big-basket").userTypes(Set.of(UserType.CUSTOMER)).itemTypes(Set.of(ItemType.GROCERY))
+                .minAmount(1000).percentage(0.02)
+                .build());
+        DiscountSchedule schedule = DiscountRuleTable.compile(1, ruleSet).schedule(UserType.CUSTOMER, TODAY, TODAY);
+
+        assertEquals(76000, schedule.netPayableAmount(80000, 30000));
+        assertEquals(100000 - 1000 - 5000, schedule.netPayableAmount(100000, 50000));
+    }
+
+    @Test
+    public void testRuleCannotBeStepAndPercentage() {
+        DiscountRule rule = DiscountRuleDefinition.builder().id("broken").percentage(0.1).step(100).build();
+
+        assertThrows(IllegalArgumentException.class, () -> DiscountRuleTable.compile(1, List.of(rule)));
+    }
+
+    @Test
+    public void testRuleIdMustBeAFieldName() {
+        DiscountRule rule = DiscountRuleDefinition.builder().id("summer.sale").percentage(0.1).build();
+
+        assertThrows(IllegalArgumentException.class, () -> DiscountRuleTable.compile(1, List.of(rule)));
+    }
+
+    @Test
+    public void testReloadPublishesNewTable() {
+        DiscountRuleEngine engine = new DiscountRuleEngine(DefaultDiscountRules::get);
+        DiscountRuleTable before = engine.getTable();
+
+        engine.reload(List.of(DiscountRuleDefinition.builder()
+                .id("staff-sale").userTypes(Set.of(UserType.EMPLOYEE)).percentage(0.5)
+                .build()));
+
+        assertEquals(before.getVersion() + 1, engine.getTable().getVersion());
+        assertEquals(40000, engine.getTable().schedule(UserType.EMPLOYEE, TODAY, TODAY).netPayableAmount(80000, 30000));
+    }
+
+    @Test
+    public void testFingerprintFollowsRuleContents() {
+        DiscountRuleTable defaults = DiscountRuleTable.compile(1, DefaultDiscountRules.get());
+
+        DiscountRuleTable reloaded = DiscountRuleTable.compile(2, DefaultDiscountRules.get());
+        DiscountRuleTable changed = DiscountRuleTable.compile(1, List.of(DiscountRuleDefinition.builder()
+                .id("staff-sale").userTypes(Set.of(UserType.EMPLOYEE)).percentage(0.5).build()));
+
+        assertEquals(defaults.getFingerprint(), reloaded.getFingerprint());
+        assertNotEquals(defaults.getFingerprint(), changed.getFingerprint());
+    }
+
+    @Test
+    public void testRulesBindFromConfiguration() {
+        MapConfigurationPropertySource source = new MapConfigurationPropertySource(Map.of(
+                "retailstore.discount.rules[0].id", "employee",
+                "retailstore.discount.rules[0].user-types", "EMPLOYEE",
+                "retailstore.discount.rules[0].item-types", "OTHER",
+                "retailstore.discount.rules[0].percentage", "0.25"
+        ));
+        DiscountRuleProperties properties = new Binder(source)
+                .bind("retailstore.discount", DiscountRuleProperties.class)
+                .get();
+
+        DiscountSchedule schedule = DiscountRuleTable.compile(1, properties.getRules())
+                .schedule(UserType.EMPLOYEE, TODAY, TODAY);
+
+        assertEquals(67500, schedule.netPayableAmount(80000, 30000));
+    }
+
+    @Test
+    public void testTenureMatchesLocalDateArithmetic() {
+        DiscountRuleTable rules = DiscountRuleTable.compile(1, DefaultDiscountRules.get());
+        DiscountSchedule loyal = rules.schedule(UserType.CUSTOMER, TODAY.minusYears(3), TODAY);
+
+        LocalDate start = LocalDate.of(2019, 1, 1);
+        for (LocalDate today = start; today.isBefore(LocalDate.of(2030, 1, 1)); today = today.plusDays(7)) {
+            for (LocalDate createdAt = today.minusYears(2).minusDays(3); !createdAt.isAfter(today.minusYears(2).plusDays(3));
+                 createdAt = createdAt.plusDays(1)) {
+                boolean expected = createdAt.isBefore(today.minusYears(2));
+                assertEquals(expected, rules.schedule(UserType.CUSTOMER, createdAt, today) == loyal,
+                        "createdAt=" + createdAt + " today=" + today);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.retailstore.repository;
+
+import com.retailstore.constant.ItemType;
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.Item;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BillTotalsCallbackTest {
+
+    @Test
+    public void testTotalsAreStoredFromItems() {
+        Bill bill = new Bill(1, 1, List.of(
+                new Item(1, 20000, ItemType.GROCERY),
+                new Item(2, 10, ItemType.OTHER),
+                new Item(3, 20, ItemType.OTHER)));
+        bill.setTotalAmount(100L);
+
+        new BillTotalsCallback().onBeforeConvert(bill, "bills");
+
+        assertEquals(3, bill.getItemCount());
+        assertEquals(20030L, bill.getTotalAmount());
+        assertEquals(20000L, bill.getGroceryAmount());
+    }
+}
@@ -0,0 +1,115 @@
+package com.retailstore.repository;
+
+import com.retailstore.constant.ItemType;
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.BillTotals;
+import com.retailstore.entity.Item;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BillTotalsRepositoryImplTest {
+
+    private MongoTemplate mongoTemplate;
+
+    private BillTotalsRepositoryImpl repository;
+
+    private MappingMongoConverter converter;
+
+    private MongoPersistentEntity<?> billEntity;
+
+    @BeforeEach
+    public void setup() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.afterPropertiesSet();
+        billEntity = mappingContext.getRequiredPersistentEntity(Bill.class);
+
+        mongoTemplate = mock(MongoTemplate.class);
+        repository = new BillTotalsRepositoryImpl(mongoTemplate);
+    }
+
+    @Test
+    public void testPushAppendsItemAndIncrementsTotals() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Bill.class))).thenReturn(new Bill(1, 2, null, 3, 45000L, 15000L, 4L));
+
+        Optional<BillTotals> bill = repository.pushItem(1, 2, new Item(9, 15000, ItemType.GROCERY));
+
+        assertEquals(new BillTotals(1, 2, 4L, 3, 45000, 15000, null), bill.orElseThrow());
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class),
+                eq(Bill.class));
+
+        assertEquals(json("{_id: 1, userId: 2, totalCents: {$exists: true}, 'items._id': {$ne: 9}}"),
+                mapQuery(query.getValue()));
+        assertEquals(new Document("items", 0), query.getValue().getFieldsObject());
+        assertEquals(json("{$push: {items: {_id: 9, priceCents: 15000, type: 'GROCERY'}}, "
+                        + "$inc: {itemCount: 1, totalCents: 15000, groceryCents: 15000, version: 1}}"),
+                mapUpdate(update.getValue()));
+    }
+
+    @Test
+    public void testPullSubtractsTheStoredItem() {
+        when(mongoTemplate.findOne(any(Query.class), eq(Bill.class)))
+                .thenReturn(new Bill(1, 2, List.of(new Item(9, 15000, ItemType.OTHER))));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Bill.class))).thenReturn(new Bill(1, 2, null, 1, 30000L, 0L, 5L));
+
+        assertEquals(30000, repository.pullItem(1, 2, 9).orElseThrow().totalAmount());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class),
+                eq(Bill.class));
+
+        assertEquals(json("{_id: 1, userId: 2, totalCents: {$exists: true}, "
+                        + "items: {$elemMatch: {_id: 9, priceCents: 15000, type: 'OTHER'}}}"),
+                mapQuery(query.getValue()));
+        assertEquals(json("{$pull: {items: {_id: 9}}, "
+                        + "$inc: {itemCount: -1, totalCents: -15000, groceryCents: 0, version: 1}}"),
+                mapUpdate(update.getValue()));
+    }
+
+    @Test
+    public void testPullOfMissingItemDoesNotUpdate() {
+        assertEquals(Optional.empty(), repository.pullItem(1, 2, 9));
+    }
+
+    // Compared as relaxed JSON, ids are longs in the mapped document and ints in the parsed one.
+    private String json(String document) {
+        return Document.parse(document).toJson();
+    }
+
+    private String mapQuery(Query query) {
+        return new QueryMapper(converter).getMappedObject(query.getQueryObject(), billEntity).toJson();
+    }
+
+    private String mapUpdate(Update update) {
+        return new UpdateMapper(converter).getMappedObject(update.getUpdateObject(), billEntity).toJson();
+    }
+}
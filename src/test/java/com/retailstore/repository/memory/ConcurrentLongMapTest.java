@@ -0,0 +1,49 @@
+package com.retailstore.repository.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ConcurrentLongMapTest {
+
+    @Test
+    public void testMatchesHashMapUnderRandomUpdates() {
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>(0);
+        Map<Long, Long> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 200_000; i++) {
+            // Few distinct keys, so removals keep shifting entries of long probe sequences.
+            long key = random.nextLong(-2_000, 2_000) * 1_024;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+        assertEquals(expected.size(), map.values().size());
+    }
+
+    @Test
+    public void testComputeIsAtomic() {
+        ConcurrentLongMap<Integer> map = new ConcurrentLongMap<>(16);
+
+        IntStream.range(0, 100_000).parallel()
+                .forEach(i -> map.compute(i % 10, count -> count == null ? 1 : count + 1));
+
+        for (long key = 0; key < 10; key++) {
+            assertEquals(10_000, map.get(key));
+        }
+        assertEquals(10_000, map.putIfAbsent(0, 5));
+        assertNull(map.putIfAbsent(10, 5));
+        assertEquals(11, map.size());
+    }
+}
@@ -0,0 +1,106 @@
+package com.retailstore.repository.memory;
+
+import com.retailstore.config.InMemoryProperties;
+import com.retailstore.constant.ItemType;
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.BillTotals;
+import com.retailstore.entity.Item;
+import com.retailstore.repository.BillTotalsCallback;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class InMemoryBillRepositoryTest {
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private InMemoryBillRepository billRepository;
+
+    @BeforeEach
+    public void setUp() {
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        billRepository = new InMemoryBillRepository(eventPublisher, new BillTotalsCallback(),
+                new InMemoryProperties());
+    }
+
+    @Test
+    public void testBillsAreOnlyFoundForTheirUser() {
+        billRepository.insert(new Bill(1, 7, new ArrayList<>(List.of(new Item(1, 1000, ItemType.GROCERY)))));
+
+        assertTrue(billRepository.findByIdAndUserId(1, 7).isPresent());
+        assertTrue(billRepository.findByIdAndUserId(1, 8).isEmpty());
+        assertFalse(billRepository.existsByIdAndUserId(1, 8));
+
+        BillTotals totals = billRepository.findTotalsByIdAndUserId(1, 7, 0).orElseThrow();
+        assertTrue(totals.isAggregated());
+        assertEquals(1000, totals.totalAmount());
+        assertEquals(1000, totals.groceryAmount());
+        verify(eventPublisher).publishEvent(any(AfterSaveEvent.class));
+    }
+
+    @Test
+    public void testWritesFollowMongoVersioning() {
+        Bill bill = billRepository.insert(new Bill(1, 1, List.of()));
+        assertEquals(0L, bill.getVersion());
+        assertThrows(DuplicateKeyException.class, () -> billRepository.insert(new Bill(1, 1, List.of())));
+
+        billRepository.save(bill);
+        assertEquals(1L, bill.getVersion());
+        bill.setVersion(0L);
+        assertThrows(OptimisticLockingFailureException.class, () -> billRepository.save(bill));
+        verify(eventPublisher, times(2)).publishEvent(any(AfterSaveEvent.class));
+    }
+
+    @Test
+    public void testItemUpdatesKeepStoredTotals() {
+        billRepository.insert(new Bill(1, 1, List.of(new Item(1, 1000, ItemType.OTHER))));
+
+        BillTotals pushed = billRepository.pushItem(1, 1, new Item(2, 500, ItemType.GROCERY)).orElseThrow();
+        assertEquals(2, pushed.itemCount());
+        assertEquals(1500, pushed.totalAmount());
+        assertEquals(500, pushed.groceryAmount());
+        assertEquals(1L, pushed.version());
+        assertTrue(billRepository.pushItem(1, 1, new Item(2, 500, ItemType.GROCERY)).isEmpty());
+        assertTrue(billRepository.pushItem(1, 2, new Item(3, 500, ItemType.GROCERY)).isEmpty());
+
+        BillTotals pulled = billRepository.pullItem(1, 1, 1).orElseThrow();
+        assertEquals(1, pulled.itemCount());
+        assertEquals(500, pulled.totalAmount());
+        assertEquals(2L, pulled.version());
+        assertTrue(billRepository.pullItem(1, 1, 1).isEmpty());
+        assertEquals(0, billRepository.streamTotalsDrift(10).count());
+    }
+
+    @Test
+    public void testMissingTotalsAreStoredOnce() {
+        Bill unstored = new Bill(1, 1, List.of(new Item(1, 1000, ItemType.OTHER)));
+        billRepository.entities.put(1, unstored);
+
+        assertEquals(1, billRepository.streamTotalsDrift(10).count());
+        assertEquals(1, billRepository.findTotalsByIdAndUserId(1, 1, 5).orElseThrow().items().size());
+        assertTrue(billRepository.pushItem(1, 1, new Item(2, 500, ItemType.GROCERY)).isEmpty());
+
+        assertTrue(billRepository.storeMissingTotals(1, 1));
+        assertFalse(billRepository.storeMissingTotals(1, 1));
+        Bill stored = billRepository.findByIdAndUserId(1, 1).orElseThrow();
+        assertEquals(1000L, stored.getTotalAmount());
+        assertEquals(1L, stored.getVersion());
+        assertNull(unstored.getTotalAmount());
+    }
+}
@@ -0,0 +1,80 @@
+package com.retailstore.security;
+
+import com.retailstore.config.AuthProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class TokenServiceTest {
+
+    private final Instant now = Instant.parse("2026-03-01T10:00:00Z");
+
+    private AuthProperties authProperties;
+
+    private Authentication admin;
+
+    @BeforeEach
+    public void setup() {
+        authProperties = new AuthProperties();
+        authProperties.setTokenSecret("test-secret");
+        authProperties.setTokenTtl(Duration.ofMinutes(15));
+        admin = UsernamePasswordAuthenticationToken.authenticated("admin", null,
+                AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+    }
+
+    @Test
+    public void testIssuedTokenAuthenticates() {
+        TokenService tokenService = tokenService(now);
+
+        Authentication authentication = tokenService.authenticate(tokenService.issue(admin));
+
+        assertNotNull(authentication);
+        assertEquals("admin", authentication.getName());
+        assertEquals(AuthorityUtils.createAuthorityList("ROLE_ADMIN"), authentication.getAuthorities());
+    }
+
+    @Test
+    public void testExpiredTokenIsRejected() {
+        String token = tokenService(now).issue(admin);
+
+        assertNotNull(tokenService(now.plus(Duration.ofMinutes(14))).authenticate(token));
+        assertNull(tokenService(now.plus(Duration.ofMinutes(15))).authenticate(token));
+    }
+
+    @Test
+    public void testTamperedTokenIsRejected() {
+        TokenService tokenService = tokenService(now);
+        String token = tokenService.issue(admin);
+        String forged = tokenService.issue(UsernamePasswordAuthenticationToken.authenticated("admin", null,
+                AuthorityUtils.createAuthorityList("ROLE_ADMIN", "ROLE_SUPER")));
+
+        String mixed = forged.substring(0, forged.indexOf('.')) + token.substring(token.indexOf('.'));
+
+        assertNull(tokenService.authenticate(mixed));
+        assertNull(tokenService.authenticate("not-a-token"));
+        assertNull(tokenService.authenticate("@@@.###"));
+    }
+
+    @Test
+    public void testTokenFromAnotherSecretIsRejected() {
+        String token = tokenService(now).issue(admin);
+        authProperties.setTokenSecret("other-secret");
+
+        assertNull(tokenService(now).authenticate(token));
+    }
+
+    private TokenService tokenService(Instant instant) {
+        return new TokenService(authProperties, Clock.fixed(instant, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,109 @@
+package com.retailstore.service;
+
+import com.retailstore.analytics.BillSnapshot;
+import com.retailstore.analytics.BillSnapshotLoader;
+import com.retailstore.analytics.DiscountCounters;
+import com.retailstore.config.DiscountCounterProperties;
+import com.retailstore.constant.ItemType;
+import com.retailstore.constant.UserType;
+import com.retailstore.model.response.BillReportLine;
+import com.retailstore.model.response.DiscountCounterReport;
+import com.retailstore.model.response.DiscountSimulationReport;
+import com.retailstore.pricing.rule.DefaultDiscountRules;
+import com.retailstore.pricing.rule.DiscountRuleDefinition;
+import com.retailstore.pricing.rule.DiscountRuleEngine;
+import com.retailstore.pricing.rule.DiscountRuleTable;
+import com.retailstore.service.impl.BillAnalyticsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BillAnalyticsServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+
+    private BillSnapshotLoader billSnapshotLoader;
+
+    private DiscountCounters discountCounters;
+
+    private BillAnalyticsService billAnalyticsService;
+
+    @BeforeEach
+    public void setup() {
+        billSnapshotLoader = mock(BillSnapshotLoader.class);
+        discountCounters = new DiscountCounters(new DiscountCounterProperties());
+        billAnalyticsService = new BillAnalyticsServiceImpl(billSnapshotLoader,
+                new DiscountRuleEngine(DefaultDiscountRules::get), discountCounters);
+
+        when(billSnapshotLoader.load()).thenReturn(BillSnapshot.builder()
+                .bill(1, 1, UserType.EMPLOYEE, TODAY)
+                .item(30_000, ItemType.GROCERY)
+                .item(50_000, ItemType.OTHER)
+                .bill(2, 9, null, null)
+                .item(10_000, ItemType.OTHER)
+                .build(Instant.EPOCH));
+    }
+
+    @Test
+    public void testSimulationWithActiveRules() {
+        DiscountSimulationReport report = billAnalyticsService.simulate(List.of(), TODAY);
+
+        assertEquals(2, report.getBills());
+        assertEquals(1, report.getUnpriced());
+        BillReportLine employee = report.getTotals().get(UserType.EMPLOYEE.ordinal());
+        assertEquals(1, employee.getBills());
+        assertEquals(80_000, employee.getGrossAmount());
+        assertEquals(19_000, employee.getDiscountAmount());
+        assertEquals(61_000, employee.getNetPayableAmount());
+    }
+
+    @Test
+    public void testSimulationWithPostedRules() {
+        DiscountRuleDefinition staffSale = DiscountRuleDefinition.builder()
+                .id("staff-sale").userTypes(Set.of(UserType.EMPLOYEE)).percentage(0.5).build();
+
+        DiscountSimulationReport report = billAnalyticsService.simulate(List.of(staffSale), TODAY);
+
+        assertEquals(40_000, report.getTotals().get(UserType.EMPLOYEE.ordinal()).getNetPayableAmount());
+    }
+
+    @Test
+    public void testSnapshotIsLoadedOnceUntilRefreshed() {
+        billAnalyticsService.simulate(null, TODAY);
+        assertEquals(2, billAnalyticsService.getSnapshot().getBills());
+        verify(billSnapshotLoader, times(1)).load();
+
+        assertEquals(3, billAnalyticsService.refreshSnapshot().getItems());
+        verify(billSnapshotLoader, times(2)).load();
+    }
+
+    @Test
+    public void testDiscountCountersHaveATotalAndRuleLinesPerUserType() {
+        DiscountRuleTable rules = DiscountRuleTable.compile(1, DefaultDiscountRules.get());
+        discountCounters.record(UserType.EMPLOYEE, rules.schedule(UserType.EMPLOYEE, TODAY, TODAY), 80_000, 30_000);
+        discountCounters.record(UserType.CUSTOMER, rules.schedule(UserType.CUSTOMER, TODAY, TODAY), 99, 0);
+
+        DiscountCounterReport report = billAnalyticsService.getDiscountCounters(null);
+
+        assertEquals(List.of(
+                        "total EMPLOYEE null 1 80000 19000",
+                        "rule EMPLOYEE bulk 1 null 4000",
+                        "rule EMPLOYEE employee 1 null 15000",
+                        "total AFFILIATE null 0 0 0",
+                        "total CUSTOMER null 1 99 0"),
+                report.getLines().stream()
+                        .map(line -> line.getRecord() + " " + line.getUserType() + " " + line.getRule() + " "
+                                + line.getBills() + " " + line.getTotalAmount() + " " + line.getDiscountAmount())
+                        .toList());
+    }
+}
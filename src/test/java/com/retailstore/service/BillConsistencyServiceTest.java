@@ -0,0 +1,72 @@
+package com.retailstore.service;
+
+import com.retailstore.cache.PayableResultCache;
+import com.retailstore.config.BillConsistencyProperties;
+import com.retailstore.entity.BillTotalsDrift;
+import com.retailstore.model.response.BillConsistencyReport;
+import com.retailstore.repository.BillRepository;
+import com.retailstore.service.impl.BillConsistencyServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BillConsistencyServiceTest {
+
+    private BillRepository billRepository;
+
+    private PayableResultCache payableResultCache;
+
+    private BillConsistencyService billConsistencyService;
+
+    @BeforeEach
+    public void setup() {
+        BillConsistencyProperties properties = new BillConsistencyProperties();
+        properties.setBatchSize(2);
+        billRepository = mock(BillRepository.class);
+        payableResultCache = mock(PayableResultCache.class);
+        billConsistencyService = new BillConsistencyServiceImpl(billRepository, payableResultCache, properties);
+
+        // Bill 1 never had totals stored, the others lost one $inc.
+        when(billRepository.streamTotalsDrift(anyInt())).thenAnswer(invocation -> LongStream
+                .rangeClosed(1, 5)
+                .mapToObj(id -> id == 1
+                        ? new BillTotalsDrift(id, id, null, 2, null, 30000, null, 10000)
+                        : new BillTotalsDrift(id, id, 2, 3, 30000L, 45000, 10000L, 10000)));
+    }
+
+    @Test
+    public void testCheckReportsDriftWithoutWriting() {
+        BillConsistencyReport report = billConsistencyService.check(3);
+
+        assertEquals(5, report.getDrifted());
+        assertEquals(0, report.getRepaired());
+        assertEquals(List.of(1L, 2L, 3L), report.getDrifts().stream().map(BillTotalsDrift::id).toList());
+        verify(billRepository, never()).storeTotals(anyCollection());
+        verify(payableResultCache, never()).invalidateAll();
+    }
+
+    @Test
+    public void testRepairRecomputesDriftedBillsInBatches() {
+        when(billRepository.storeTotals(anyCollection())).thenAnswer(invocation ->
+                (long) invocation.<List<Long>>getArgument(0).size());
+
+        BillConsistencyReport report = billConsistencyService.repair(10);
+
+        assertEquals(5, report.getDrifted());
+        assertEquals(5, report.getRepaired());
+        verify(billRepository).storeTotals(List.of(1L, 2L));
+        verify(billRepository).storeTotals(List.of(3L, 4L));
+        verify(billRepository).storeTotals(List.of(5L));
+        verify(payableResultCache).invalidateAll();
+    }
+}
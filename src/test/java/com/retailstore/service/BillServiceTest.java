@@ -1,28 +1,69 @@
 package com.retailstore.service;
 
+import com.retailstore.analytics.DiscountCounters;
+import com.retailstore.analytics.DiscountTotals;
+import com.retailstore.cache.BillIdFilter;
+import com.retailstore.cache.PayableResultCache;
+import com.retailstore.concurrent.FetchExecutor;
+import com.retailstore.config.BillIdFilterProperties;
+import com.retailstore.config.BillLoadProperties;
+import com.retailstore.config.DiscountCounterProperties;
+import com.retailstore.config.PayableCacheProperties;
+import com.retailstore.constant.BillLoadMode;
 import com.retailstore.constant.ItemType;
 import com.retailstore.constant.UserType;
 import com.retailstore.entity.Bill;
+import com.retailstore.entity.BillTotals;
 import com.retailstore.entity.Item;
 import com.retailstore.entity.User;
+import com.retailstore.exception.BillNotFoundException;
+import com.retailstore.metrics.BillingMetrics;
+import com.retailstore.model.request.BillAmountRequest;
+import com.retailstore.model.request.CreateBillRequest;
+import com.retailstore.model.response.BillPayableResponse;
+import com.retailstore.model.response.BillTotalsResponse;
+import com.retailstore.pricing.rule.DefaultDiscountRules;
+import com.retailstore.pricing.rule.DiscountRuleEngine;
 import com.retailstore.repository.BillRepository;
 import com.retailstore.repository.UserRepository;
 import com.retailstore.service.impl.BillServiceImpl;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,17 +77,41 @@ public class BillServiceTest {
 
     @Mock
     private UserService userService;
+
+    @Spy
+    private PayableResultCache payableResultCache = new PayableResultCache(new PayableCacheProperties());
+
+    // Not built, every id passes.
+    @Spy
+    private BillIdFilter billIdFilter = new BillIdFilter(null, new BillIdFilterProperties());
+
+    @Spy
+    private DiscountRuleEngine discountRuleEngine = new DiscountRuleEngine(DefaultDiscountRules::get);
+
+    @Spy
+    private FetchExecutor fetchExecutor = FetchExecutor.inline();
+
+    @Spy
+    private BillLoadProperties billLoadProperties = new BillLoadProperties();
+
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private BillingMetrics billingMetrics = new BillingMetrics(meterRegistry);
+
+    @Spy
+    private DiscountCounters discountCounters = new DiscountCounters(new DiscountCounterProperties());
     
     private List<Item> items;
 
     @BeforeEach
     public void setup() {
         items = Arrays.asList(
-                new Item(1, 200.0, ItemType.GROCERY),
-                new Item(2, 100.0, ItemType.GROCERY),
-                new Item(3, 150.0, ItemType.OTHER),
-                new Item(4, 50.0, ItemType.OTHER),
-                new Item(5, 300.0, ItemType.OTHER)
+                new Item(1, 20000, ItemType.GROCERY),
+                new Item(2, 10000, ItemType.GROCERY),
+                new Item(3, 15000, ItemType.OTHER),
+                new Item(4, 5000, ItemType.OTHER),
+                new Item(5, 30000, ItemType.OTHER)
         );
     }
 
@@ -63,9 +128,33 @@ public class BillServiceTest {
         when(billRepository.findByIdAndUserId(1, 1))
                 .thenReturn(Optional.of(employeeUserBill));
 
-        double result = billService.calculateNetPayableAmount(1, 1);
+        long result = billService.calculateNetPayableAmount(1, 1);
+
+        assertEquals(61000, result);
+    }
 
-        assertEquals(610, result);
+    @Test
+    public void testPricedBillIsCountedPerUserTypeAndRule() {
+        User employeeUser = new User();
+        employeeUser.setId(1);
+        employeeUser.setType(UserType.EMPLOYEE);
+        employeeUser.setCreatedAt(LocalDate.now().minusYears(3));
+        when(userService.get(1)).thenReturn(employeeUser);
+        when(billRepository.findByIdAndUserId(1, 1)).thenReturn(Optional.of(new Bill(1, 1, items)));
+
+        billService.calculateNetPayableAmount(1, 1);
+        // Answered from the payable cache, the discount was already counted.
+        billService.calculateNetPayableAmount(1, 1);
+
+        DiscountTotals totals = discountCounters.totals(Duration.ofMinutes(1));
+        assertEquals(1, totals.bills(UserType.EMPLOYEE));
+        assertEquals(80000, totals.totalAmount(UserType.EMPLOYEE));
+        assertEquals(19000, totals.discountAmount(UserType.EMPLOYEE));
+        assertEquals(Map.of(
+                DefaultDiscountRules.EMPLOYEE_RULE, new DiscountTotals.RuleTotal(1, 15000),
+                DefaultDiscountRules.BULK_RULE, new DiscountTotals.RuleTotal(1, 4000)),
+                totals.rules(UserType.EMPLOYEE));
+        assertEquals(0, totals.bills(UserType.CUSTOMER));
     }
 
     @Test
@@ -81,9 +170,9 @@ public class BillServiceTest {
         when(billRepository.findByIdAndUserId(2, 2))
                 .thenReturn(Optional.of(affiliateUserBill));
 
-        double result = billService.calculateNetPayableAmount(2, 2);
+        long result = billService.calculateNetPayableAmount(2, 2);
 
-        assertEquals(710.0, result);
+        assertEquals(71000, result);
     }
 
     @Test
@@ -100,9 +189,9 @@ public class BillServiceTest {
         when(billRepository.findByIdAndUserId(3, 3))
                 .thenReturn(Optional.of(customerUserBill));
 
-        double result = billService.calculateNetPayableAmount(3, 3);
+        long result = billService.calculateNetPayableAmount(3, 3);
 
-        assertEquals(760.0, result);
+        assertEquals(76000, result);
     }
 
     @Test
@@ -119,9 +208,9 @@ public class BillServiceTest {
         when(billRepository.findByIdAndUserId(4, 4))
                 .thenReturn(Optional.of(customerUserBill));
 
-        double result = billService.calculateNetPayableAmount(4, 4);
+        long result = billService.calculateNetPayableAmount(4, 4);
 
-        assertEquals(735.0, result);
+        assertEquals(73500, result);
     }
 
     @Test
@@ -138,9 +227,9 @@ public class BillServiceTest {
         when(billRepository.findByIdAndUserId(5, 5))
                 .thenReturn(Optional.of(customerUserBill));
 
-        double result = billService.calculateNetPayableAmount(5, 5);
+        long result = billService.calculateNetPayableAmount(5, 5);
 
-        assertEquals(0.0, result);
+        assertEquals(0, result);
     }
 
     @Test
@@ -151,14 +240,358 @@ public class BillServiceTest {
         customerUser.setType(UserType.CUSTOMER);
         customerUser.setCreatedAt(LocalDate.now());
 
-        Bill customerUserBill = new Bill(6, 6, List.of(new Item(1, 200.0, ItemType.GROCERY)));
+        Bill customerUserBill = new Bill(6, 6, List.of(new Item(1, 20000, ItemType.GROCERY)));
 
         when(userService.get(6)).thenReturn(customerUser);
         when(billRepository.findByIdAndUserId(6, 6))
                 .thenReturn(Optional.of(customerUserBill));
 
-        double result = billService.calculateNetPayableAmount(6, 6);
+        long result = billService.calculateNetPayableAmount(6, 6);
+
+        assertEquals(19000, result);
+    }
+
+    @Test
+    public void testCalculateNetPayableAmountsInBatch() {
+        User employeeUser = new User();
+        employeeUser.setId(1);
+        employeeUser.setType(UserType.EMPLOYEE);
+        employeeUser.setCreatedAt(LocalDate.now().minusYears(3));
+
+        User customerUser = new User();
+        customerUser.setId(3);
+        customerUser.setType(UserType.CUSTOMER);
+        customerUser.setCreatedAt(LocalDate.now());
+
+        when(billRepository.findByIdIn(anyCollection()))
+                .thenReturn(List.of(new Bill(1, 1, items), new Bill(3, 3, items), new Bill(7, 7, items)));
+        when(userService.getAll(anyCollection())).thenReturn(List.of(employeeUser, customerUser));
+
+        List<BillPayableResponse> result = billService.calculateNetPayableAmounts(List.of(
+                new BillAmountRequest(3, 3),
+                new BillAmountRequest(1, 1),
+                new BillAmountRequest(1, 2),
+                new BillAmountRequest(9, 9),
+                new BillAmountRequest(7, 7)
+        ));
+
+        assertEquals(5, result.size());
+        assertEquals(3, result.get(0).getBillId());
+        assertEquals(76000, result.get(0).getNetPayableAmount());
+        assertEquals(1, result.get(1).getBillId());
+        assertEquals(61000, result.get(1).getNetPayableAmount());
+        assertNull(result.get(2).getNetPayableAmount());
+        assertEquals("Bill not found", result.get(2).getError());
+        assertEquals("Bill not found", result.get(3).getError());
+        assertEquals("User not found", result.get(4).getError());
+
+        verify(billRepository, times(1)).findByIdIn(anyCollection());
+        verify(userService, times(1)).getAll(anyCollection());
+    }
+
+    @Test
+    public void testBillVersionIsCountedOnceHoweverOftenItIsPriced() {
+        User employeeUser = new User();
+        employeeUser.setId(1);
+        employeeUser.setType(UserType.EMPLOYEE);
+        employeeUser.setCreatedAt(LocalDate.now().minusYears(3));
+        Bill bill = new Bill(1, 1, items);
+        bill.setVersion(1L);
+        Bill changed = new Bill(1, 1, items.subList(0, 4));
+        changed.setVersion(2L);
+        when(billRepository.findByIdIn(anyCollection())).thenReturn(List.of(bill), List.of(bill), List.of(changed));
+        when(userService.getAll(anyCollection())).thenReturn(List.of(employeeUser));
+
+        // Batches bypass the payable cache, so the first version is priced twice.
+        List<BillAmountRequest> requests = List.of(new BillAmountRequest(1, 1));
+        billService.calculateNetPayableAmounts(requests);
+        billService.calculateNetPayableAmounts(requests);
+        billService.calculateNetPayableAmounts(requests);
+
+        DiscountTotals totals = discountCounters.totals(Duration.ofMinutes(1));
+        assertEquals(2, totals.bills(UserType.EMPLOYEE));
+        assertEquals(80000 + 50000, totals.totalAmount(UserType.EMPLOYEE));
+        assertEquals(19000 + 8500, totals.discountAmount(UserType.EMPLOYEE));
+    }
+
+    @Test
+    public void testRepeatedCalculationIsServedFromResultCache() {
+        User affiliateUser = new User();
+        affiliateUser.setId(2);
+        affiliateUser.setType(UserType.AFFILIATE);
+        affiliateUser.setCreatedAt(LocalDate.now().minusYears(3));
+        affiliateUser.setVersion(0L);
+
+        when(userService.get(2)).thenReturn(affiliateUser);
+        when(billRepository.findByIdAndUserId(2, 2))
+                .thenReturn(Optional.of(new Bill(2, 2, items)));
+
+        assertEquals(71000, billService.calculateNetPayableAmount(2, 2));
+        assertEquals(71000, billService.calculateNetPayableAmount(2, 2));
+
+        verify(billRepository, times(1)).findByIdAndUserId(2, 2);
+    }
+
+    @Test
+    public void testChangedUserVersionBypassesResultCache() {
+        User customerUser = new User();
+        customerUser.setId(3);
+        customerUser.setType(UserType.CUSTOMER);
+        customerUser.setCreatedAt(LocalDate.now().minusYears(3));
+        customerUser.setVersion(0L);
+
+        User employeeUser = new User();
+        employeeUser.setId(3);
+        employeeUser.setType(UserType.EMPLOYEE);
+        employeeUser.setCreatedAt(LocalDate.now().minusYears(3));
+        employeeUser.setVersion(1L);
+
+        when(userService.get(3)).thenReturn(customerUser, employeeUser);
+        when(billRepository.findByIdAndUserId(3, 3))
+                .thenReturn(Optional.of(new Bill(3, 3, items)));
+
+        assertEquals(73500, billService.calculateNetPayableAmount(3, 3));
+        assertEquals(61000, billService.calculateNetPayableAmount(3, 3));
+    }
+
+    @Test
+    public void testInvalidatedBillIsRecalculated() {
+        User employeeUser = new User();
+        employeeUser.setId(1);
+        employeeUser.setType(UserType.EMPLOYEE);
+        employeeUser.setCreatedAt(LocalDate.now().minusYears(3));
+
+        when(userService.get(1)).thenReturn(employeeUser);
+        when(billRepository.findByIdAndUserId(1, 1))
+                .thenReturn(Optional.of(new Bill(1, 1, items)))
+                .thenReturn(Optional.of(new Bill(1, 1, List.of(new Item(1, 20000, ItemType.GROCERY)))));
+
+        assertEquals(61000, billService.calculateNetPayableAmount(1, 1));
+        payableResultCache.invalidate(1);
+        assertEquals(19000, billService.calculateNetPayableAmount(1, 1));
+    }
+
+    @Test
+    public void testMissingBillIsReportedBeforeMissingUser() {
+        when(userService.get(8)).thenThrow(new RuntimeException("User not found"));
+        when(billRepository.findByIdAndUserId(8, 8)).thenReturn(Optional.empty());
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> billService.calculateNetPayableAmount(8, 8));
+
+        assertEquals("Bill not found", exception.getMessage());
+    }
+
+    @Test
+    public void testBillAndUserAreFetchedConcurrentlyOnVirtualThreads() {
+        User employeeUser = new User();
+        employeeUser.setId(1);
+        employeeUser.setType(UserType.EMPLOYEE);
+        employeeUser.setCreatedAt(LocalDate.now().minusYears(3));
+
+        // Each fetch only completes once the other one has started.
+        CountDownLatch billStarted = new CountDownLatch(1);
+        CountDownLatch userStarted = new CountDownLatch(1);
+        when(billRepository.findByIdAndUserId(1, 1)).thenAnswer(invocation -> {
+            billStarted.countDown();
+            assertTrue(userStarted.await(5, TimeUnit.SECONDS));
+            return Optional.of(new Bill(1, 1, items));
+        });
+        when(userService.get(1)).thenAnswer(invocation -> {
+            userStarted.countDown();
+            assertTrue(billStarted.await(5, TimeUnit.SECONDS));
+            return employeeUser;
+        });
+
+        try (FetchExecutor virtualThreads = FetchExecutor.virtualThreads()) {
+            BillServiceImpl concurrentBillService = new BillServiceImpl(billRepository, userService,
+                    payableResultCache, billIdFilter, discountRuleEngine, virtualThreads, billLoadProperties,
+                    billingMetrics, discountCounters);
+
+            assertEquals(61000, concurrentBillService.calculateNetPayableAmount(1, 1));
+        }
+    }
+
+    @Test
+    public void testConcurrentIdenticalCallsShareOneFetchAndItsError() throws Exception {
+        billService.bindTo(meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userService.get(13)).thenAnswer(invocation -> {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            throw new RuntimeException("User not found");
+        });
+        when(billRepository.findByIdAndUserId(13, 13)).thenReturn(Optional.of(new Bill(13, 13, items)));
+
+        List<Future<Long>> results = new ArrayList<>();
+        try (ExecutorService retries = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 4; i++) {
+                results.add(retries.submit(() -> billService.calculateNetPayableAmount(13, 13)));
+            }
+            FunctionCounter coalesced = meterRegistry.get("retailstore.coalesced.calls")
+                    .tag("operation", "payable").functionCounter();
+            while (coalesced.count() < 3) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (Future<Long> result : results) {
+                ExecutionException thrown = assertThrows(ExecutionException.class,
+                        () -> result.get(5, TimeUnit.SECONDS));
+                assertEquals("User not found", thrown.getCause().getMessage());
+            }
+        }
+
+        verify(billRepository, times(1)).findByIdAndUserId(13, 13);
+        verify(userService, times(1)).get(13);
+    }
+
+    @Test
+    public void testUnknownBillIsRejectedWithoutQueries() {
+        when(billRepository.count()).thenReturn(1L);
+        when(billRepository.streamAllIds(anyInt())).thenReturn(LongStream.of(1));
+        BillIdFilter builtFilter = new BillIdFilter(billRepository, new BillIdFilterProperties());
+        builtFilter.rebuild();
+        BillServiceImpl billService = new BillServiceImpl(billRepository, userService, payableResultCache,
+                builtFilter, discountRuleEngine, fetchExecutor, billLoadProperties, billingMetrics, discountCounters);
+        long unknown = LongStream.iterate(2, id -> id + 1)
+                .filter(id -> !builtFilter.mightContain(id))
+                .findFirst()
+                .orElseThrow();
+
+        assertThrows(BillNotFoundException.class, () -> billService.calculateNetPayableAmount(unknown, 1));
+        assertNull(billService.findPayableVersion(unknown, 1));
+        assertEquals("Bill not found", billService.calculateNetPayableAmounts(
+                List.of(new BillAmountRequest(unknown, 1))).get(0).getError());
+
+        verify(billRepository, times(0)).findByIdAndUserId(anyLong(), anyLong());
+        verify(billRepository, times(0)).findByIdIn(anyCollection());
+        verify(userService, times(0)).get(anyLong());
+    }
+
+    @Test
+    public void testAggregatedBillIsPricedFromMongoSums() {
+        billLoadProperties.setMode(BillLoadMode.AGGREGATE);
+
+        User employeeUser = new User();
+        employeeUser.setId(9);
+        employeeUser.setType(UserType.EMPLOYEE);
+        employeeUser.setCreatedAt(LocalDate.now().minusYears(3));
+
+        when(userService.get(9)).thenReturn(employeeUser);
+        when(billRepository.findTotalsByIdAndUserId(9, 9, 0))
+                .thenReturn(Optional.of(new BillTotals(9, 9, 1L, 5, 80000, 30000, null)));
+
+        assertEquals(61000, billService.calculateNetPayableAmount(9, 9));
+        verify(billRepository, times(0)).findByIdAndUserId(9, 9);
+    }
+
+    @Test
+    public void testAutoModeOnlyAggregatesLargeBills() {
+        billLoadProperties.setMode(BillLoadMode.AUTO);
+        billLoadProperties.setAggregateMinItems(3);
+
+        User customerUser = new User();
+        customerUser.setId(10);
+        customerUser.setType(UserType.CUSTOMER);
+        customerUser.setCreatedAt(LocalDate.now());
+
+        // Bill 10 is small enough to come back with its items, bill 11 only with its sums.
+        when(billRepository.findTotalsByIdIn(anyCollection(), eq(3))).thenReturn(List.of(
+                new BillTotals(10, 10, 1L, 1, 0, 0, List.of(new Item(1, 20000, ItemType.GROCERY))),
+                new BillTotals(11, 10, 1L, 5, 80000, 30000, null)));
+        when(userService.getAll(anyCollection())).thenReturn(List.of(customerUser));
+
+        List<BillPayableResponse> responses = billService.calculateNetPayableAmounts(List.of(
+                new BillAmountRequest(10, 10),
+                new BillAmountRequest(11, 10)));
+
+        assertEquals(19000, responses.get(0).getNetPayableAmount());
+        assertEquals(76000, responses.get(1).getNetPayableAmount());
+        verify(billRepository, times(0)).findByIdIn(anyCollection());
+    }
+
+    @Test
+    public void testStagesAndDiscountAreMeasured() {
+        User employeeUser = new User();
+        employeeUser.setId(12);
+        employeeUser.setType(UserType.EMPLOYEE);
+        employeeUser.setCreatedAt(LocalDate.now().minusYears(3));
+
+        when(userService.get(12)).thenReturn(employeeUser);
+        when(billRepository.findByIdAndUserId(12, 12)).thenReturn(Optional.of(new Bill(12, 12, items)));
+
+        billService.calculateNetPayableAmount(12, 12);
+        billService.calculateNetPayableAmount(12, 12);
+
+        assertEquals(1, meterRegistry.get("retailstore.bill.payable").tag("outcome", "computed").timer().count());
+        assertEquals(1, meterRegistry.get("retailstore.bill.payable").tag("outcome", "cached").timer().count());
+        assertEquals(1, meterRegistry.get("retailstore.bill.fetch").timer().count());
+        assertEquals(1, meterRegistry.get("retailstore.bill.discount").timer().count());
+        assertEquals(5.0, meterRegistry.get("retailstore.bill.items").tag("userType", "EMPLOYEE")
+                .summary().totalAmount());
+        assertEquals(190.0, meterRegistry.get("retailstore.bill.discount.amount").tag("userType", "EMPLOYEE")
+                .summary().totalAmount());
+    }
+
+    @Test
+    public void testAddedItemUpdatesTotalsAndInvalidatesResult() {
+        User employeeUser = new User();
+        employeeUser.setId(1);
+        employeeUser.setType(UserType.EMPLOYEE);
+        employeeUser.setCreatedAt(LocalDate.now().minusYears(3));
+        Item added = new Item(6, 10000, ItemType.OTHER);
+
+        when(userService.get(1)).thenReturn(employeeUser);
+        when(billRepository.findByIdAndUserId(1, 1))
+                .thenReturn(Optional.of(new Bill(1, 1, items)))
+                .thenReturn(Optional.of(new Bill(1, 1, List.of(items.get(0), items.get(1), items.get(2),
+                        items.get(3), items.get(4), added))));
+        when(billRepository.pushItem(1, 1, added))
+                .thenReturn(Optional.of(new BillTotals(1, 1, 1L, 6, 90000, 30000, null)));
+
+        assertEquals(61000, billService.calculateNetPayableAmount(1, 1));
+        BillTotalsResponse response = billService.addItem(1, 1, added);
+
+        assertEquals(90000, response.getTotalAmount());
+        assertEquals(6, response.getItemCount());
+        assertEquals(1L, response.getVersion());
+        verify(payableResultCache).invalidate(1);
+        assertEquals(67500, billService.calculateNetPayableAmount(1, 1));
+    }
+
+    @Test
+    public void testItemAddedToBillWithoutStoredTotalsStoresThemFirst() {
+        Item added = new Item(6, 10000, ItemType.GROCERY);
+        when(billRepository.pushItem(1, 1, added))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new BillTotals(1, 1, 2L, 6, 90000, 40000, null)));
+        when(billRepository.storeMissingTotals(1, 1)).thenReturn(true);
+
+        assertEquals(40000, billService.addItem(1, 1, added).getGroceryAmount());
+        verify(billRepository, times(2)).pushItem(1, 1, added);
+    }
+
+    @Test
+    public void testItemMutationsReportMissingBillAndItem() {
+        when(billRepository.pullItem(1, 1, 7)).thenReturn(Optional.empty());
+        when(billRepository.pushItem(eq(2L), eq(2L), any(Item.class))).thenReturn(Optional.empty());
+        when(billRepository.existsByIdAndUserId(1, 1)).thenReturn(false);
+        when(billRepository.existsByIdAndUserId(2, 2)).thenReturn(true);
+
+        RuntimeException missingBill = assertThrows(RuntimeException.class, () -> billService.removeItem(1, 1, 7));
+        assertEquals("Bill not found", missingBill.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> billService.addItem(2, 2, new Item(1, 1000, ItemType.OTHER)));
+        assertThrows(IllegalArgumentException.class,
+                () -> billService.addItem(2, 2, new Item(1, -1000, ItemType.OTHER)));
+        verify(payableResultCache, times(0)).invalidate(anyLong());
+    }
+
+    @Test
+    public void testCreatedBillRejectsDuplicateItems() {
+        CreateBillRequest request = new CreateBillRequest(20, 1, List.of(
+                new Item(1, 1000, ItemType.OTHER), new Item(1, 2000, ItemType.GROCERY)));
 
-        assertEquals(190.0, result);
+        assertThrows(IllegalArgumentException.class, () -> billService.createBill(request));
+        verify(billRepository, times(0)).insert(any(Bill.class));
     }
 }
@@ -0,0 +1,196 @@
+package com.retailstore.service;
+
+import com.retailstore.analytics.DiscountCounters;
+import com.retailstore.analytics.DiscountTotals;
+import com.retailstore.cache.BillIdFilter;
+import com.retailstore.cache.PayableResultCache;
+import com.retailstore.concurrent.FetchExecutor;
+import com.retailstore.config.BillIdFilterProperties;
+import com.retailstore.config.BillLoadProperties;
+import com.retailstore.config.DiscountCounterProperties;
+import com.retailstore.config.PayableCacheProperties;
+import com.retailstore.constant.ItemType;
+import com.retailstore.constant.UserType;
+import com.retailstore.entity.Bill;
+import com.retailstore.entity.Item;
+import com.retailstore.entity.User;
+import com.retailstore.metrics.BillingMetrics;
+import com.retailstore.model.request.BillAmountRequest;
+import com.retailstore.pricing.rule.DefaultDiscountRules;
+import com.retailstore.pricing.rule.DiscountRuleEngine;
+import com.retailstore.repository.BillRepository;
+import com.retailstore.repository.ReactiveBillRepository;
+import com.retailstore.repository.ReactiveUserRepository;
+import com.retailstore.service.impl.BillServiceImpl;
+import com.retailstore.service.impl.ReactiveBillServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveBillServiceTest {
+
+    @Mock
+    private ReactiveBillRepository billRepository;
+
+    @Mock
+    private ReactiveUserRepository userRepository;
+
+    @Spy
+    private DiscountRuleEngine discountRuleEngine = new DiscountRuleEngine(DefaultDiscountRules::get);
+
+    @Spy
+    private DiscountCounters discountCounters = new DiscountCounters(new DiscountCounterProperties());
+
+    // Not built, every id passes.
+    @Spy
+    private BillIdFilter billIdFilter = new BillIdFilter(null, new BillIdFilterProperties());
+
+    @InjectMocks
+    private ReactiveBillServiceImpl billService;
+
+    private List<Item> items;
+
+    @BeforeEach
+    public void setup() {
+        items = Arrays.asList(
+                new Item(1, 20000, ItemType.GROCERY),
+                new Item(2, 10000, ItemType.GROCERY),
+                new Item(3, 15000, ItemType.OTHER),
+                new Item(4, 5000, ItemType.OTHER),
+                new Item(5, 30000, ItemType.OTHER)
+        );
+    }
+
+    @Test
+    public void testCalculateNetPayableForEmployee() {
+        User employeeUser = user(1, UserType.EMPLOYEE, LocalDate.now().minusYears(3));
+
+        when(billRepository.findByIdAndUserId(1, 1)).thenReturn(Mono.just(new Bill(1, 1, items)));
+        when(userRepository.findById(1L)).thenReturn(Mono.just(employeeUser));
+
+        StepVerifier.create(billService.calculateNetPayableAmount(1, 1))
+                .expectNext(61000L)
+                .verifyComplete();
+    }
+
+    @Test
+    public void testMissingBillIsReportedBeforeMissingUser() {
+        when(billRepository.findByIdAndUserId(2, 2)).thenReturn(Mono.empty());
+        when(userRepository.findById(2L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(billService.calculateNetPayableAmount(2, 2))
+                .expectErrorMessage("Bill not found")
+                .verify();
+    }
+
+    @Test
+    public void testMissingUser() {
+        when(billRepository.findByIdAndUserId(3, 3)).thenReturn(Mono.just(new Bill(3, 3, items)));
+        when(userRepository.findById(3L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(billService.calculateNetPayableAmount(3, 3))
+                .expectErrorMessage("User not found")
+                .verify();
+    }
+
+    @Test
+    public void testCalculateNetPayableAmountsInBatch() {
+        User employeeUser = user(4, UserType.EMPLOYEE, LocalDate.now().minusYears(3));
+
+        when(billRepository.findByIdIn(anyCollection())).thenReturn(Flux.just(new Bill(4, 4, items)));
+        when(userRepository.findAllById(anyCollection())).thenReturn(Flux.just(employeeUser));
+
+        StepVerifier.create(billService.calculateNetPayableAmounts(List.of(
+                        new BillAmountRequest(4, 4),
+                        new BillAmountRequest(5, 4))))
+                .expectNextMatches(response -> response.getBillId() == 4 && response.getNetPayableAmount() == 61000)
+                .expectNextMatches(response -> "Bill not found".equals(response.getError()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testSameAmountsAsServletBillService() {
+        BillRepository blockingBillRepository = mock(BillRepository.class);
+        UserService userService = mock(UserService.class);
+        PayableCacheProperties cacheProperties = new PayableCacheProperties();
+        cacheProperties.setEnabled(false);
+        BillServiceImpl servletBillService = new BillServiceImpl(blockingBillRepository, userService,
+                new PayableResultCache(cacheProperties), billIdFilter, discountRuleEngine, FetchExecutor.inline(),
+                new BillLoadProperties(), new BillingMetrics(new SimpleMeterRegistry()),
+                new DiscountCounters(new DiscountCounterProperties()));
+
+        List<User> users = List.of(
+                user(1, UserType.EMPLOYEE, LocalDate.now()),
+                user(2, UserType.AFFILIATE, LocalDate.now()),
+                user(3, UserType.CUSTOMER, LocalDate.now()),
+                user(4, UserType.CUSTOMER, LocalDate.now().minusYears(2).minusDays(1)));
+        for (User user : users) {
+            long id = user.getId();
+            Bill bill = new Bill(id, id, items);
+            when(blockingBillRepository.findByIdAndUserId(id, id)).thenReturn(Optional.of(bill));
+            when(userService.get(id)).thenReturn(user);
+            when(billRepository.findByIdAndUserId(id, id)).thenReturn(Mono.just(bill));
+            when(userRepository.findById(id)).thenReturn(Mono.just(user));
+
+            StepVerifier.create(billService.calculateNetPayableAmount(id, id))
+                    .expectNext(servletBillService.calculateNetPayableAmount(id, id))
+                    .verifyComplete();
+        }
+    }
+
+    @Test
+    public void testBillVersionPricedByBothStacksIsCountedOnce() {
+        BillRepository blockingBillRepository = mock(BillRepository.class);
+        UserService userService = mock(UserService.class);
+        PayableCacheProperties cacheProperties = new PayableCacheProperties();
+        cacheProperties.setEnabled(false);
+        BillServiceImpl servletBillService = new BillServiceImpl(blockingBillRepository, userService,
+                new PayableResultCache(cacheProperties), billIdFilter, discountRuleEngine, FetchExecutor.inline(),
+                new BillLoadProperties(), new BillingMetrics(new SimpleMeterRegistry()), discountCounters);
+
+        User employeeUser = user(6, UserType.EMPLOYEE, LocalDate.now().minusYears(3));
+        Bill bill = new Bill(6, 6, items);
+        bill.setVersion(3L);
+        when(billRepository.findByIdAndUserId(6, 6)).thenReturn(Mono.just(bill));
+        when(userRepository.findById(6L)).thenReturn(Mono.just(employeeUser));
+        when(blockingBillRepository.findByIdAndUserId(6, 6)).thenReturn(Optional.of(bill));
+        when(userService.get(6)).thenReturn(employeeUser);
+
+        StepVerifier.create(billService.calculateNetPayableAmount(6, 6))
+                .expectNext(61000L)
+                .verifyComplete();
+        assertEquals(61000, servletBillService.calculateNetPayableAmount(6, 6));
+
+        DiscountTotals totals = discountCounters.totals(Duration.ofMinutes(1));
+        assertEquals(1, totals.bills(UserType.EMPLOYEE));
+        assertEquals(19000, totals.discountAmount(UserType.EMPLOYEE));
+    }
+
+    private User user(long id, UserType type, LocalDate createdAt) {
+        User user = new User();
+        user.setId(id);
+        user.setType(type);
+        user.setCreatedAt(createdAt);
+        return user;
+    }
+}
@@ -0,0 +1,139 @@
+package com.retailstore.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retailstore.config.MoneyProperties;
+import com.retailstore.config.ReportProperties;
+import com.retailstore.constant.MoneyFormat;
+import com.retailstore.constant.ReportFormat;
+import com.retailstore.constant.UserType;
+import com.retailstore.entity.BillTotals;
+import com.retailstore.entity.User;
+import com.retailstore.pricing.rule.DefaultDiscountRules;
+import com.retailstore.pricing.rule.DiscountRuleEngine;
+import com.retailstore.repository.BillRepository;
+import com.retailstore.service.impl.ReportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReportServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+
+    @Mock
+    private BillRepository billRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Spy
+    private DiscountRuleEngine discountRuleEngine = new DiscountRuleEngine(DefaultDiscountRules::get);
+
+    @Spy
+    private ReportProperties reportProperties = new ReportProperties();
+
+    @Spy
+    private MoneyProperties moneyProperties = new MoneyProperties();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ReportServiceImpl reportService;
+
+    @BeforeEach
+    public void setup() {
+        reportProperties.setBatchSize(2);
+
+        when(billRepository.streamAllTotals(2)).thenReturn(Stream.of(
+                new BillTotals(1, 1, 1L, 5, 80000, 30000, null),
+                new BillTotals(2, 2, 1L, 5, 80000, 30000, null),
+                new BillTotals(3, 1, 1L, 1, 20000, 20000, null),
+                new BillTotals(4, 9, 1L, 1, 10000, 0, null)));
+        when(userService.getAll(anyCollection())).thenReturn(List.of(
+                user(1, UserType.EMPLOYEE),
+                user(2, UserType.AFFILIATE)));
+    }
+
+    @Test
+    public void testNdjsonReport() throws IOException {
+        String report = report(ReportFormat.NDJSON);
+
+        assertEquals("""
+                {"record":"bill","billId":1,"userId":1,"userType":"EMPLOYEE","grossAmount":800.0,"groceryAmount":300.0,\
+                "discountAmount":190.0,"netPayableAmount":610.0}
+                {"record":"bill","billId":2,"userId":2,"userType":"AFFILIATE","grossAmount":800.0,"groceryAmount":300.0,\
+                "discountAmount":90.0,"netPayableAmount":710.0}
+                {"record":"bill","billId":3,"userId":1,"userType":"EMPLOYEE","grossAmount":200.0,"groceryAmount":200.0,\
+                "discountAmount":10.0,"netPayableAmount":190.0}
+                {"record":"total","userType":"EMPLOYEE","bills":2,"grossAmount":1000.0,"groceryAmount":500.0,\
+                "discountAmount":200.0,"netPayableAmount":800.0}
+                {"record":"total","userType":"AFFILIATE","bills":1,"grossAmount":800.0,"groceryAmount":300.0,\
+                "discountAmount":90.0,"netPayableAmount":710.0}
+                """, report);
+        // One user lookup per cursor batch.
+        verify(userService, times(2)).getAll(anyCollection());
+    }
+
+    @Test
+    public void testCsvReport() throws IOException {
+        String report = report(ReportFormat.CSV);
+
+        assertEquals("""
+                record,billId,userId,userType,bills,grossAmount,groceryAmount,discountAmount,netPayableAmount
+                bill,1,1,EMPLOYEE,,800.0,300.0,190.0,610.0
+                bill,2,2,AFFILIATE,,800.0,300.0,90.0,710.0
+                bill,3,1,EMPLOYEE,,200.0,200.0,10.0,190.0
+                total,,,EMPLOYEE,2,1000.0,500.0,200.0,800.0
+                total,,,AFFILIATE,1,800.0,300.0,90.0,710.0
+                """, report);
+    }
+
+    @Test
+    public void testCsvReportInMinorUnits() throws IOException {
+        moneyProperties.setFormat(MoneyFormat.MINOR_UNITS);
+
+        String report = report(ReportFormat.CSV);
+
+        assertEquals("""
+                record,billId,userId,userType,bills,grossAmount,groceryAmount,discountAmount,netPayableAmount
+                bill,1,1,EMPLOYEE,,80000,30000,19000,61000
+                bill,2,2,AFFILIATE,,80000,30000,9000,71000
+                bill,3,1,EMPLOYEE,,20000,20000,1000,19000
+                total,,,EMPLOYEE,2,100000,50000,20000,80000
+                total,,,AFFILIATE,1,80000,30000,9000,71000
+                """, report);
+    }
+
+    private String report(ReportFormat format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        reportService.writeBillReport(TODAY, format, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private User user(long id, UserType type) {
+        User user = new User();
+        user.setId(id);
+        user.setType(type);
+        user.setCreatedAt(TODAY.minusYears(1));
+        return user;
+    }
+}
@@ -0,0 +1,174 @@
+package com.retailstore.service;
+
+import com.retailstore.cache.UserCache;
+import com.retailstore.config.UserCacheProperties;
+import com.retailstore.constant.UserType;
+import com.retailstore.entity.User;
+import com.retailstore.repository.UserRepository;
+import com.retailstore.service.impl.UserServiceImpl;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UserServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserCacheProperties properties;
+
+    private User customerUser;
+
+    @BeforeEach
+    public void setup() {
+        properties = new UserCacheProperties();
+
+        customerUser = new User();
+        customerUser.setId(1);
+        customerUser.setType(UserType.CUSTOMER);
+        customerUser.setCreatedAt(LocalDate.now());
+    }
+
+    @Test
+    public void testGetIsServedFromCache() {
+        UserServiceImpl userService = new UserServiceImpl(userRepository, new UserCache(properties));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(customerUser));
+
+        userService.get(1);
+        User result = userService.get(1);
+
+        assertEquals(UserType.CUSTOMER, result.getType());
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    public void testEvictReloadsChangedUser() {
+        UserServiceImpl userService = new UserServiceImpl(userRepository, new UserCache(properties));
+
+        User employeeUser = new User();
+        employeeUser.setId(1);
+        employeeUser.setType(UserType.EMPLOYEE);
+
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(customerUser))
+                .thenReturn(Optional.of(employeeUser));
+
+        assertEquals(UserType.CUSTOMER, userService.get(1).getType());
+        userService.evict(1);
+        assertEquals(UserType.EMPLOYEE, userService.get(1).getType());
+    }
+
+    @Test
+    public void testMissingUserIsNotCached() {
+        UserServiceImpl userService = new UserServiceImpl(userRepository, new UserCache(properties));
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> userService.get(2));
+        assertThrows(RuntimeException.class, () -> userService.get(2));
+
+        verify(userRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    public void testGetAllOnlyLoadsMissingUsers() {
+        UserCache userCache = new UserCache(properties);
+        UserServiceImpl userService = new UserServiceImpl(userRepository, userCache);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(customerUser));
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of());
+
+        userService.get(1);
+        List<User> result = userService.getAll(List.of(1L, 2L));
+
+        assertEquals(1, result.size());
+        assertEquals(1, userCache.stats().hitCount());
+        verify(userRepository, times(1)).findAllById(Set.of(2L));
+    }
+
+    @Test
+    public void testGetAllDoesNotCacheUserChangedDuringLoad() {
+        UserServiceImpl userService = new UserServiceImpl(userRepository, new UserCache(properties));
+        User employeeUser = new User();
+        employeeUser.setId(1);
+        employeeUser.setType(UserType.EMPLOYEE);
+
+        // The user is saved as employee while the bulk read still returns the customer.
+        when(userRepository.findAllById(anyIterable()))
+                .thenAnswer(invocation -> {
+                    userService.evict(1);
+                    return List.of(customerUser);
+                })
+                .thenReturn(List.of(employeeUser));
+
+        assertEquals(UserType.CUSTOMER, userService.getAll(List.of(1L)).get(0).getType());
+        assertEquals(UserType.EMPLOYEE, userService.getAll(List.of(1L)).get(0).getType());
+        verify(userRepository, times(2)).findAllById(Set.of(1L));
+    }
+
+    @Test
+    public void testDisabledCacheAlwaysHitsRepository() {
+        properties.setEnabled(false);
+        UserServiceImpl userService = new UserServiceImpl(userRepository, new UserCache(properties));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(customerUser));
+
+        userService.get(1);
+        userService.get(1);
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    public void testConcurrentMissesShareOneLoad() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserServiceImpl userService = new UserServiceImpl(userRepository, new UserCache(properties));
+        userService.bindTo(meterRegistry);
+
+        // The first load only returns once the other lookups, e.g. for other bills of the user, are waiting on it.
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findById(1L)).thenAnswer(invocation -> {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return Optional.of(customerUser);
+        });
+
+        List<Future<User>> results = new ArrayList<>();
+        try (ExecutorService lookups = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 4; i++) {
+                results.add(lookups.submit(() -> userService.get(1)));
+            }
+            FunctionCounter coalesced = meterRegistry.get("retailstore.coalesced.calls")
+                    .tag("operation", "user").functionCounter();
+            while (coalesced.count() < 3) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (Future<User> result : results) {
+                assertEquals(UserType.CUSTOMER, result.get(5, TimeUnit.SECONDS).getType());
+            }
+        }
+
+        verify(userRepository, times(1)).findById(1L);
+    }
+}